@@ -0,0 +1,153 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+
+import searchTree.ConcurrentSearchTreeMap;
+import searchTree.SearchTreeMap;
+
+/**
+ * Throughput of counting keys from many threads at once:
+ *
+ * <pre>
+ * java bench.ConcurrentBenchmark [-ops 1000000] [-threads 1,2,4,8,16,32]
+ * </pre>
+ *
+ * Each run splits ops keys between the threads, and every thread adds one
+ * to the count of each of its keys, like the ingestion threads of a word
+ * count. It compares ConcurrentSearchTreeMap.update with the baseline of a
+ * SearchTreeMap whose compute is called under one lock, and prints the
+ * updates per second with each number of threads. Sorted keys are left out,
+ * since they make SearchTreeMap's unbalanced tree a list.
+ *
+ */
+public class ConcurrentBenchmark {
+
+	private static final BiFunction<Integer, Integer, Integer> INCREMENT = (key, count) -> count == null ? 1
+			: count + 1;
+
+	/**
+	 * A map the threads count into
+	 */
+	private interface CountingMap {
+		void increment(int key);
+
+		int size();
+	}
+
+	private static final class LockedMap implements CountingMap {
+		private final SearchTreeMap<Integer, Integer> map = new SearchTreeMap<Integer, Integer>();
+
+		public void increment(int key) {
+			synchronized (map) {
+				map.compute(key, INCREMENT);
+			}
+		}
+
+		public int size() {
+			synchronized (map) {
+				return map.size();
+			}
+		}
+	}
+
+	private static final class ConcurrentMap implements CountingMap {
+		private final ConcurrentSearchTreeMap<Integer, Integer> map = new ConcurrentSearchTreeMap<Integer, Integer>();
+
+		public void increment(int key) {
+			map.update(key, INCREMENT);
+		}
+
+		public int size() {
+			return map.size();
+		}
+	}
+
+	private interface Maker {
+		CountingMap make();
+	}
+
+	private static final String[] NAMES = { "locked SearchTreeMap", "ConcurrentSearchTreeMap" };
+
+	private static final Maker[] MAKERS = { LockedMap::new, ConcurrentMap::new };
+
+	public static void main(String[] args) throws Exception {
+		int ops = 1000000;
+		List<Integer> threads = new ArrayList<Integer>();
+		for (int i = 0; i + 1 < args.length; i += 2) {
+			if (args[i].equals("-ops")) {
+				ops = Integer.parseInt(args[i + 1]);
+			} else if (args[i].equals("-threads")) {
+				for (String part : args[i + 1].split(",")) {
+					threads.add(Integer.parseInt(part.trim()));
+				}
+			}
+		}
+		if (threads.isEmpty()) {
+			for (int t = 1; t <= 32; t *= 2) {
+				threads.add(t);
+			}
+		}
+		Collections.sort(threads);
+
+		System.out.printf("%d processors%n", Runtime.getRuntime().availableProcessors());
+		System.out.printf("%-7s %9s %-24s %8s %14s%n", "order", "ops", "map", "threads", "updates/s");
+		for (KeyOrder order : new KeyOrder[] { KeyOrder.RANDOM, KeyOrder.ZIPF }) {
+			int[] keys = order.keys(ops, new Random(42));
+			for (int m = 0; m < MAKERS.length; m++) {
+				for (int t : threads) {
+					benchmark(NAMES[m], MAKERS[m], order, keys, t);
+				}
+			}
+		}
+	}
+
+	private static void benchmark(String name, Maker maker, KeyOrder order, int[] keys, int threads)
+			throws InterruptedException {
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try {
+			//each thread takes its own slice of the keys
+			List<Callable<Void>> slices = new ArrayList<Callable<Void>>();
+			CountingMap[] map = new CountingMap[1];
+			for (int i = 0; i < threads; i++) {
+				int from = (int) ((long) keys.length * i / threads);
+				int to = (int) ((long) keys.length * (i + 1) / threads);
+				slices.add(() -> {
+					CountingMap counts = map[0];
+					for (int k = from; k < to; k++) {
+						counts.increment(keys[k]);
+					}
+					return null;
+				});
+			}
+			Harness.Result result = Harness.measure(keys.length, new Harness.Run() {
+				public void setUp() {
+					map[0] = maker.make();
+				}
+
+				public long run() {
+					try {
+						for (Future<Void> done : pool.invokeAll(slices)) {
+							done.get();
+						}
+					} catch (InterruptedException | ExecutionException e) {
+						throw new IllegalStateException(e);
+					}
+					return map[0].size();
+				}
+			});
+			System.out.printf("%-7s %9d %-24s %8d %14.0f%n", order.name().toLowerCase(), keys.length, name, threads,
+					1e9 / result.nanosPerOperation);
+		} finally {
+			pool.shutdown();
+		}
+	}
+}
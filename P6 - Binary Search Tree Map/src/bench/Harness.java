@@ -0,0 +1,106 @@
+package bench;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * A small stand-in for JMH: runs a piece of code until the JIT has warmed it
+ * up, then times it over several runs and reports the time and the bytes
+ * allocated per operation.
+ *
+ * Allocation is read from the HotSpot per-thread allocation counter, so it
+ * is reported as -1 on JVMs that don't have one.
+ *
+ */
+public final class Harness {
+
+	private static final long WARMUP_NANOS = 300_000_000L;
+	private static final long MEASURE_NANOS = 700_000_000L;
+	private static final int MIN_RUNS = 3;
+
+	/**
+	 * Results are added to this, so the JIT can't drop code whose result
+	 * isn't used
+	 */
+	public static volatile long sink;
+
+	private Harness() {
+	}
+
+	/**
+	 * The outcome of one measurement
+	 */
+	public static final class Result {
+		public final double nanosPerOperation;
+		public final double bytesPerOperation;
+
+		Result(double nanosPerOperation, double bytesPerOperation) {
+			this.nanosPerOperation = nanosPerOperation;
+			this.bytesPerOperation = bytesPerOperation;
+		}
+	}
+
+	/**
+	 * Code to measure. A run may start with untimed setup, and returns a
+	 * value that is added to sink.
+	 */
+	public interface Run {
+		/**
+		 * Do the setup for a run
+		 */
+		default void setUp() {
+		}
+
+		/**
+		 * Do the work being measured
+		 *
+		 * @return anything depending on the work
+		 */
+		long run();
+	}
+
+	/**
+	 * Time run: warm it up for a while, then measure runs for a while, and
+	 * take the average
+	 *
+	 * @param operations - number of operations each run does
+	 * @param run - code to measure
+	 * @return time and bytes allocated per operation
+	 */
+	public static Result measure(int operations, Run run) {
+		long end = System.nanoTime() + WARMUP_NANOS;
+		do {
+			run.setUp();
+			sink += run.run();
+		} while (System.nanoTime() < end);
+
+		long nanos = 0;
+		long bytes = 0;
+		int runs = 0;
+		//the deadline includes setup, so runs with a long setUp don't go on for ever
+		end = System.nanoTime() + MEASURE_NANOS;
+		while (runs < MIN_RUNS || System.nanoTime() < end) {
+			run.setUp();
+			long allocatedBefore = allocatedBytes();
+			long start = System.nanoTime();
+			sink += run.run();
+			nanos += System.nanoTime() - start;
+			bytes += allocatedBytes() - allocatedBefore;
+			runs++;
+		}
+		double totalOperations = (double) operations * runs;
+		return new Result(nanos / totalOperations, allocatedBytes() < 0 ? -1 : bytes / totalOperations);
+	}
+
+	/**
+	 * @return bytes allocated by this thread so far, or -1 if the JVM doesn't
+	 *         count them
+	 */
+	private static long allocatedBytes() {
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		if (threads instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,73 @@
+package bench;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * The orders in which the benchmarks use their keys
+ */
+public enum KeyOrder {
+
+	/**
+	 * 0, 1, 2, ... n - 1: the worst case for an unbalanced tree
+	 */
+	SORTED {
+		int[] keys(int n, Random random) {
+			int[] keys = new int[n];
+			for (int i = 0; i < n; i++) {
+				keys[i] = i;
+			}
+			return keys;
+		}
+	},
+
+	/**
+	 * Each of 0 ... n - 1 once, shuffled
+	 */
+	RANDOM {
+		int[] keys(int n, Random random) {
+			int[] keys = SORTED.keys(n, random);
+			for (int i = n - 1; i > 0; i--) {
+				int j = random.nextInt(i + 1);
+				int swap = keys[i];
+				keys[i] = keys[j];
+				keys[j] = swap;
+			}
+			return keys;
+		}
+	},
+
+	/**
+	 * n keys drawn from 0 ... n - 1 with a Zipf distribution, where key i
+	 * comes up about 1 / (i + 1) as often as key 0, like words in text. Most
+	 * draws are repeats of a few keys.
+	 */
+	ZIPF {
+		int[] keys(int n, Random random) {
+			double[] cumulative = new double[n];
+			double sum = 0;
+			for (int i = 0; i < n; i++) {
+				sum += 1.0 / (i + 1);
+				cumulative[i] = sum;
+			}
+			int[] keys = new int[n];
+			for (int i = 0; i < n; i++) {
+				int index = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+				keys[i] = index >= 0 ? index : Math.min(n - 1, -index - 1);
+			}
+			//scatter the popular keys over the key space instead of leaving them all at the small end
+			int[] scatter = RANDOM.keys(n, new Random(n));
+			for (int i = 0; i < n; i++) {
+				keys[i] = scatter[keys[i]];
+			}
+			return keys;
+		}
+	};
+
+	/**
+	 * @param n - number of keys
+	 * @param random - source of randomness
+	 * @return n keys, each between 0 and n - 1, in this order
+	 */
+	abstract int[] keys(int n, Random random);
+}
@@ -0,0 +1,502 @@
+package bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Scanner;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import searchTree.AdaptiveRadixTreeMap;
+import searchTree.BTree;
+import searchTree.Counter;
+import searchTree.FrozenSearchTreeMap;
+import searchTree.SearchTreeMap;
+import searchTree.SplayTree;
+import wordCount.WordCountEngine;
+
+/**
+ * Benchmarks of SearchTreeMap, with each kind of Tree behind it, against
+ * java.util.TreeMap:
+ *
+ * <pre>
+ * java bench.SearchTreeBenchmark [-sizes 1000,10000,...] [-words file] [-corpus file,file,...]
+ * </pre>
+ *
+ * For every key order and size it times put, get, remove, getMin, keyList
+ * and subMap, printing nanoseconds and bytes allocated per operation. For
+ * the SearchTreeMaps it also times get on the FrozenSearchTreeMap made by
+ * freeze(), right after get on the live tree, with the same keys. With
+ * -words it also times counting the words of a file: with the original
+ * Scanner loop of WordCountGUI, which does a get and a put of a new Integer
+ * for each word, with the same loop counting into Counters through
+ * computeIfAbsent, and with WordCountEngine.
+ *
+ * With -corpus it joins the files (say lincoln.txt and beatles.txt) into one
+ * text and compares AdaptiveRadixTreeMap with SearchTreeMap on its words:
+ * counting them, getting each of them again, taking the subMap between the
+ * words a quarter and three quarters of the way through, and a prefixScan
+ * for the first two letters of every word. SearchTreeMap has no prefixScan,
+ * so it takes the subMap from the prefix to the prefix followed by
+ * Character.MAX_VALUE.
+ *
+ * NonEmptyTree doesn't balance itself, so sorted keys make it a list that
+ * takes O(n) per operation; it is skipped for sorted keys above
+ * MAX_UNBALANCED_SIZE.
+ *
+ */
+public class SearchTreeBenchmark {
+
+	private static final int MAX_UNBALANCED_SIZE = 10000;
+	private static final int MIN_CALLS = 1000;
+	//the recursive NonEmptyTree methods go as deep as the tree
+	private static final long STACK_SIZE = 1L << 30;
+
+	/**
+	 * The operations being measured, on a map from Integer to Integer
+	 */
+	private interface BenchMap {
+		void put(int key);
+
+		Integer get(int key);
+
+		void remove(int key);
+
+		int getMin();
+
+		List<Integer> keyList();
+
+		int subMapSize(int fromKey, int toKey);
+	}
+
+	private static final class SearchTreeBenchMap implements BenchMap {
+		private final SearchTreeMap<Integer, Integer> map;
+
+		SearchTreeBenchMap(SearchTreeMap<Integer, Integer> map) {
+			this.map = map;
+		}
+
+		public void put(int key) {
+			map.put(key, key);
+		}
+
+		public Integer get(int key) {
+			return map.get(key);
+		}
+
+		public void remove(int key) {
+			map.remove(key);
+		}
+
+		public int getMin() {
+			return map.getMin();
+		}
+
+		public List<Integer> keyList() {
+			return map.keyList();
+		}
+
+		public int subMapSize(int fromKey, int toKey) {
+			return map.subMap(fromKey, toKey).size();
+		}
+
+		FrozenSearchTreeMap<Integer, Integer> freeze() {
+			return map.freeze();
+		}
+	}
+
+	private static final class TreeBenchMap implements BenchMap {
+		private final TreeMap<Integer, Integer> map = new TreeMap<Integer, Integer>();
+
+		public void put(int key) {
+			map.put(key, key);
+		}
+
+		public Integer get(int key) {
+			return map.get(key);
+		}
+
+		public void remove(int key) {
+			map.remove(key);
+		}
+
+		public int getMin() {
+			return map.firstKey();
+		}
+
+		public List<Integer> keyList() {
+			return new java.util.ArrayList<Integer>(map.keySet());
+		}
+
+		public int subMapSize(int fromKey, int toKey) {
+			//copied, since SearchTreeMap.subMap makes a new map too
+			return new TreeMap<Integer, Integer>(map.subMap(fromKey, true, toKey, true)).size();
+		}
+	}
+
+	private static final String[] NAMES = { "NonEmptyTree", "BTree", "SplayTree", "TreeMap" };
+
+	private static final List<Supplier<BenchMap>> MAKERS = Arrays.<Supplier<BenchMap>>asList(
+			() -> new SearchTreeBenchMap(new SearchTreeMap<Integer, Integer>()),
+			() -> new SearchTreeBenchMap(new SearchTreeMap<Integer, Integer>(new BTree<Integer, Integer>())),
+			() -> new SearchTreeBenchMap(new SearchTreeMap<Integer, Integer>(new SplayTree<Integer, Integer>())),
+			() -> new TreeBenchMap());
+
+	/**
+	 * The operations compared on the words of the corpus
+	 */
+	private interface WordMap {
+		Counter get(String word);
+
+		void put(String word, Counter counter);
+
+		int subMapSize(String fromKey, String toKey);
+
+		int prefixScanSize(String prefix);
+	}
+
+	private static final class SearchTreeWordMap implements WordMap {
+		private final SearchTreeMap<String, Counter> map = new SearchTreeMap<String, Counter>();
+
+		public Counter get(String word) {
+			return map.get(word);
+		}
+
+		public void put(String word, Counter counter) {
+			map.put(word, counter);
+		}
+
+		public int subMapSize(String fromKey, String toKey) {
+			return map.subMap(fromKey, toKey).size();
+		}
+
+		public int prefixScanSize(String prefix) {
+			return map.subMap(prefix, prefix + Character.MAX_VALUE).keyList().size();
+		}
+	}
+
+	private static final class RadixWordMap implements WordMap {
+		private final AdaptiveRadixTreeMap<Counter> map = new AdaptiveRadixTreeMap<Counter>();
+
+		public Counter get(String word) {
+			return map.get(word);
+		}
+
+		public void put(String word, Counter counter) {
+			map.put(word, counter);
+		}
+
+		public int subMapSize(String fromKey, String toKey) {
+			return map.subMap(fromKey, toKey).size();
+		}
+
+		public int prefixScanSize(String prefix) {
+			return map.prefixScan(prefix).size();
+		}
+	}
+
+	private static final String[] WORD_MAP_NAMES = { "SearchTreeMap", "ART" };
+
+	private static final List<Supplier<WordMap>> WORD_MAP_MAKERS = Arrays.<Supplier<WordMap>>asList(
+			() -> new SearchTreeWordMap(), () -> new RadixWordMap());
+
+	public static void main(String[] args) throws Exception {
+		int[] sizes = { 1000, 10000, 100000, 1000000 };
+		Path words = null;
+		List<Path> corpus = new ArrayList<Path>();
+		for (int i = 0; i + 1 < args.length; i += 2) {
+			if (args[i].equals("-sizes")) {
+				String[] parts = args[i + 1].split(",");
+				sizes = new int[parts.length];
+				for (int j = 0; j < parts.length; j++) {
+					sizes[j] = Integer.parseInt(parts[j].trim());
+				}
+			} else if (args[i].equals("-words")) {
+				words = Paths.get(args[i + 1]);
+			} else if (args[i].equals("-corpus")) {
+				for (String part : args[i + 1].split(",")) {
+					corpus.add(Paths.get(part.trim()));
+				}
+			}
+		}
+		int[] chosenSizes = sizes;
+		Path chosenWords = words;
+		Throwable[] failure = new Throwable[1];
+		Thread thread = new Thread(null, () -> {
+			try {
+				run(chosenSizes, chosenWords, corpus);
+			} catch (Throwable e) {
+				failure[0] = e;
+			}
+		}, "benchmark", STACK_SIZE);
+		thread.start();
+		thread.join();
+		if (failure[0] != null) {
+			throw new RuntimeException(failure[0]);
+		}
+	}
+
+	private static void run(int[] sizes, Path words, List<Path> corpus) throws IOException {
+		System.out.printf("%-9s %-7s %9s %-13s %12s %12s%n", "op", "order", "n", "map", "ns/op", "B/op");
+		for (KeyOrder order : KeyOrder.values()) {
+			for (int n : sizes) {
+				int[] keys = order.keys(n, new Random(42));
+				for (int m = 0; m < MAKERS.size(); m++) {
+					if (m == 0 && order == KeyOrder.SORTED && n > MAX_UNBALANCED_SIZE) {
+						continue;
+					}
+					benchmarkMap(NAMES[m], MAKERS.get(m), order, keys);
+				}
+			}
+		}
+		if (!corpus.isEmpty()) {
+			benchmarkCorpus(corpus);
+		}
+		if (words != null) {
+			benchmarkWordCount(words);
+		}
+	}
+
+	private static void benchmarkMap(String name, Supplier<BenchMap> maker, KeyOrder order, int[] keys) {
+		int n = keys.length;
+		BenchMap built = maker.get();
+		for (int key : keys) {
+			built.put(key);
+		}
+		int from = n / 2, to = n / 2 + Math.max(1, n / 100);
+
+		report("put", order, n, name, Harness.measure(n, new Harness.Run() {
+			BenchMap map;
+
+			public void setUp() {
+				map = maker.get();
+			}
+
+			public long run() {
+				for (int key : keys) {
+					map.put(key);
+				}
+				return map.getMin();
+			}
+		}));
+		report("get", order, n, name, Harness.measure(n, () -> {
+			long sum = 0;
+			for (int key : keys) {
+				sum += built.get(key);
+			}
+			return sum;
+		}));
+		if (built instanceof SearchTreeBenchMap) {
+			FrozenSearchTreeMap<Integer, Integer> frozen = ((SearchTreeBenchMap) built).freeze();
+			report("frozenGet", order, n, name, Harness.measure(n, () -> {
+				long sum = 0;
+				for (int key : keys) {
+					sum += frozen.get(key);
+				}
+				return sum;
+			}));
+		}
+		report("getMin", order, n, name, Harness.measure(MIN_CALLS, () -> {
+			long sum = 0;
+			for (int i = 0; i < MIN_CALLS; i++) {
+				sum += built.getMin();
+			}
+			return sum;
+		}));
+		report("keyList", order, n, name, Harness.measure(1, () -> built.keyList().size()));
+		report("subMap", order, n, name, Harness.measure(1, () -> built.subMapSize(from, to)));
+		report("remove", order, n, name, Harness.measure(n, new Harness.Run() {
+			BenchMap map;
+
+			public void setUp() {
+				map = maker.get();
+				for (int key : keys) {
+					map.put(key);
+				}
+			}
+
+			public long run() {
+				for (int key : keys) {
+					map.remove(key);
+				}
+				return 0;
+			}
+		}));
+	}
+
+	private static void report(String operation, KeyOrder order, int n, String name, Harness.Result result) {
+		System.out.printf("%-9s %-7s %9d %-13s %12.1f %12.1f%n", operation, order.name().toLowerCase(), n, name,
+				result.nanosPerOperation, result.bytesPerOperation);
+	}
+
+	/**
+	 * Time AdaptiveRadixTreeMap against SearchTreeMap on the words of the
+	 * files joined together
+	 */
+	private static void benchmarkCorpus(List<Path> files) throws IOException {
+		StringBuilder text = new StringBuilder();
+		for (Path file : files) {
+			text.append(new String(Files.readAllBytes(file), "UTF-8")).append('\n');
+		}
+		List<String> words = new ArrayList<String>();
+		//the distinct words in order give the subMap bounds and the prefixes
+		TreeMap<String, Boolean> seen = new TreeMap<String, Boolean>();
+		Matcher matcher = Pattern.compile("[a-zA-Z]+").matcher(text);
+		while (matcher.find()) {
+			words.add(matcher.group());
+			seen.put(matcher.group(), true);
+		}
+		List<String> distinct = new ArrayList<String>(seen.keySet());
+		String from = distinct.get(distinct.size() / 4), to = distinct.get(3 * distinct.size() / 4);
+		List<String> prefixes = new ArrayList<String>();
+		for (String word : distinct) {
+			String prefix = word.substring(0, Math.min(2, word.length()));
+			if (prefixes.isEmpty() || !prefixes.get(prefixes.size() - 1).equals(prefix)) {
+				prefixes.add(prefix);
+			}
+		}
+
+		System.out.printf("%n%-10s %9s %9s %-13s %12s %12s%n", "corpus op", "words", "distinct", "map", "ns/op",
+				"B/op");
+		for (int m = 0; m < WORD_MAP_MAKERS.size(); m++) {
+			Supplier<WordMap> maker = WORD_MAP_MAKERS.get(m);
+			WordMap built = maker.get();
+			ingest(built, words);
+			reportCorpus("ingest", words, distinct, WORD_MAP_NAMES[m], Harness.measure(words.size(), new Harness.Run() {
+				WordMap map;
+
+				public void setUp() {
+					map = maker.get();
+				}
+
+				public long run() {
+					ingest(map, words);
+					return map.get(words.get(0)).get();
+				}
+			}));
+			reportCorpus("get", words, distinct, WORD_MAP_NAMES[m], Harness.measure(words.size(), () -> {
+				long sum = 0;
+				for (String word : words) {
+					sum += built.get(word).get();
+				}
+				return sum;
+			}));
+			reportCorpus("subMap", words, distinct, WORD_MAP_NAMES[m],
+					Harness.measure(1, () -> built.subMapSize(from, to)));
+			reportCorpus("prefixScan", words, distinct, WORD_MAP_NAMES[m], Harness.measure(prefixes.size(), () -> {
+				long sum = 0;
+				for (String prefix : prefixes) {
+					sum += built.prefixScanSize(prefix);
+				}
+				return sum;
+			}));
+		}
+	}
+
+	/**
+	 * Count the words the same way in either map: one get, and a put only
+	 * for a word not seen before
+	 */
+	private static void ingest(WordMap map, List<String> words) {
+		for (String word : words) {
+			Counter counter = map.get(word);
+			if (counter == null) {
+				counter = new Counter();
+				map.put(word, counter);
+			}
+			counter.increment();
+		}
+	}
+
+	private static void reportCorpus(String operation, List<String> words, List<String> distinct, String name,
+			Harness.Result result) {
+		System.out.printf("%-10s %9d %9d %-13s %12.1f %12.1f%n", operation, words.size(), distinct.size(), name,
+				result.nanosPerOperation, result.bytesPerOperation);
+	}
+
+	/**
+	 * Time the Scanner loops of WordCountGUI against WordCountEngine. Bytes
+	 * allocated only count the calling thread, so they leave out the
+	 * engine's worker threads.
+	 */
+	private static void benchmarkWordCount(Path file) throws IOException {
+		int bytes = (int) Math.min(Integer.MAX_VALUE, Files.size(file));
+		int processors = Runtime.getRuntime().availableProcessors();
+		System.out.printf("%n%-30s %10s %12s%n", "word count " + file.getFileName(), "MB/s", "B/byte");
+		reportWordCount("Scanner get/put loop", bytes, Harness.measure(bytes, () -> getPutCount(file).size()));
+		reportWordCount("Scanner Counter loop", bytes, Harness.measure(bytes, () -> counterCount(file).size()));
+		reportWordCount("WordCountEngine, 1 thread", bytes,
+				Harness.measure(bytes, () -> count(file, 1).size()));
+		if (processors > 1) {
+			reportWordCount("WordCountEngine, " + processors + " threads", bytes,
+					Harness.measure(bytes, () -> count(file, processors).size()));
+		}
+	}
+
+	private static void reportWordCount(String name, int bytes, Harness.Result result) {
+		System.out.printf("%-30s %10.1f %12.2f%n", name, 1e9 / (result.nanosPerOperation * 1024 * 1024),
+				result.bytesPerOperation);
+	}
+
+	/**
+	 * The counting loop WordCountGUI started with: a get and then a put of a
+	 * new Integer for every word, so each word walks the tree twice
+	 */
+	private static SearchTreeMap<String, Integer> getPutCount(Path file) {
+		SearchTreeMap<String, Integer> tree = new SearchTreeMap<String, Integer>();
+		forEachScannerWord(file, s -> {
+			Integer i = tree.get(s);
+			if (i == null) {
+				tree.put(s, 1);
+			} else {
+				tree.put(s, i + 1);
+			}
+		});
+		return tree;
+	}
+
+	/**
+	 * The same loop with one walk of the tree per word, adding to a Counter
+	 * in place instead of boxing a new Integer
+	 */
+	private static SearchTreeMap<String, Counter> counterCount(Path file) {
+		SearchTreeMap<String, Counter> tree = new SearchTreeMap<String, Counter>();
+		forEachScannerWord(file, s -> tree.computeIfAbsent(s, k -> new Counter()).increment());
+		return tree;
+	}
+
+	/**
+	 * Find the words of a file the way WordCountGUI did, with a Scanner and
+	 * the pattern [a-zA-Z]+
+	 */
+	private static void forEachScannerWord(Path file, Consumer<String> action) {
+		try (Scanner sc = new Scanner(file)) {
+			Pattern p = Pattern.compile("[a-zA-Z]+");
+			String s;
+			while (sc.hasNextLine()) {
+				while ((s = sc.findInLine(p)) != null) {
+					action.accept(s);
+				}
+				sc.nextLine();
+			}
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static SearchTreeMap<String, Counter> count(Path file, int threads) {
+		try {
+			return WordCountEngine.count(file, threads);
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,122 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+
+import searchTree.SearchTreeMap;
+
+/**
+ * Scaling benchmark of the join based set operations of SearchTreeMap:
+ *
+ * <pre>
+ * java bench.SetOperationBenchmark [-size 1000000] [-threads 1,2,4,8]
+ * </pre>
+ *
+ * Each operation combines a map of size n with one of size n (keys drawn
+ * from the same range, so about half are shared) and with one of size
+ * n / 100, running in a ForkJoinPool with each number of threads. The maps
+ * are rebuilt with fromSorted before every run, since the operations take
+ * them apart. It prints the time per operation and the speedup over the
+ * same operation with one thread, which is always measured. The threads
+ * default to powers of two up to the number of processors.
+ *
+ */
+public class SetOperationBenchmark {
+
+	private interface Operation {
+		SearchTreeMap<Integer, Integer> apply(SearchTreeMap<Integer, Integer> a, SearchTreeMap<Integer, Integer> b);
+	}
+
+	private static final String[] NAMES = { "union", "intersection", "difference" };
+
+	private static final Operation[] OPERATIONS = {
+			(a, b) -> SearchTreeMap.unionDestructive(a, b, Integer::sum),
+			(a, b) -> SearchTreeMap.intersectionDestructive(a, b, Integer::sum),
+			(a, b) -> SearchTreeMap.differenceDestructive(a, b) };
+
+	public static void main(String[] args) {
+		int size = 1000000;
+		List<Integer> threads = new ArrayList<Integer>();
+		for (int i = 0; i + 1 < args.length; i += 2) {
+			if (args[i].equals("-size")) {
+				size = Integer.parseInt(args[i + 1]);
+			} else if (args[i].equals("-threads")) {
+				for (String part : args[i + 1].split(",")) {
+					threads.add(Integer.parseInt(part.trim()));
+				}
+			}
+		}
+		if (threads.isEmpty()) {
+			int processors = Runtime.getRuntime().availableProcessors();
+			for (int t = 1; t < processors; t *= 2) {
+				threads.add(t);
+			}
+			threads.add(processors);
+		}
+		//the speedup column is over one thread, so that is measured even if it wasn't asked for
+		if (!threads.contains(1)) {
+			threads.add(1);
+		}
+		Collections.sort(threads);
+
+		Random random = new Random(42);
+		List<Map.Entry<Integer, Integer>> big = entries(size, 2 * size, random);
+		List<Map.Entry<Integer, Integer>> same = entries(size, 2 * size, random);
+		List<Map.Entry<Integer, Integer>> small = entries(Math.max(1, size / 100), 2 * size, random);
+		System.out.printf("%d processors%n", Runtime.getRuntime().availableProcessors());
+		System.out.printf("%-13s %9s %9s %8s %12s %8s%n", "op", "n", "m", "threads", "ms", "speedup");
+		for (int o = 0; o < OPERATIONS.length; o++) {
+			benchmark(NAMES[o], OPERATIONS[o], big, same, threads);
+			benchmark(NAMES[o], OPERATIONS[o], big, small, threads);
+		}
+	}
+
+	private static void benchmark(String name, Operation operation, List<Map.Entry<Integer, Integer>> a,
+			List<Map.Entry<Integer, Integer>> b, List<Integer> threads) {
+		double oneThread = 0;
+		for (int t : threads) {
+			ForkJoinPool pool = new ForkJoinPool(t);
+			try {
+				Harness.Result result = Harness.measure(1, new Harness.Run() {
+					SearchTreeMap<Integer, Integer> first, second;
+
+					public void setUp() {
+						first = SearchTreeMap.fromSorted(a.iterator());
+						second = SearchTreeMap.fromSorted(b.iterator());
+					}
+
+					public long run() {
+						//run from inside the pool, so the operation forks its halves into it
+						SearchTreeMap<Integer, Integer> result = pool.submit(() -> operation.apply(first, second)).join();
+						//size would walk the whole result, so only look up one key
+						return result.get(a.get(0).getKey()) == null ? 0 : 1;
+					}
+				});
+				double millis = result.nanosPerOperation / 1e6;
+				if (t == 1) {
+					oneThread = millis;
+				}
+				System.out.printf("%-13s %9d %9d %8d %12.1f %8.2f%n", name, a.size(), b.size(), t, millis,
+						oneThread / millis);
+			} finally {
+				pool.shutdown();
+			}
+		}
+	}
+
+	/**
+	 * @return count sorted entries with distinct keys from 0 to range - 1
+	 */
+	private static List<Map.Entry<Integer, Integer>> entries(int count, int range, Random random) {
+		TreeMap<Integer, Integer> map = new TreeMap<Integer, Integer>();
+		while (map.size() < count) {
+			map.put(random.nextInt(range), 1);
+		}
+		return new ArrayList<Map.Entry<Integer, Integer>>(map.entrySet());
+	}
+}
@@ -6,31 +6,55 @@ import java.awt.FlowLayout;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.net.URL;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.Scanner;
-import java.util.regex.Pattern;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 
 import javax.swing.JApplet;
 import javax.swing.JButton;
+import javax.swing.JCheckBox;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
+import javax.swing.JProgressBar;
 import javax.swing.JScrollPane;
-import javax.swing.JTextArea;
+import javax.swing.JTable;
 import javax.swing.JTextField;
 import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
 import javax.swing.UIManager;
 import javax.swing.WindowConstants;
 
+import searchTree.Counter;
 import searchTree.SearchTreeMap;
+import wordCount.CountMinSketch;
+import wordCount.IncrementalWordCounter;
+import wordCount.SpaceSaving;
+import wordCount.WordCountEngine;
 
 public class WordCountGUI extends JFrame implements ActionListener {
 
 	private static final long serialVersionUID = 1L;
+	// how many words the top view shows, and how many counters it keeps to find them
+	private static final int TOP_K = 100;
+	private static final int TOP_K_COUNTERS = 10000;
 
 	JTextField fileTextField;
-	JTextArea textArea;
+	JButton refreshButton;
+	JButton cancelButton;
+	JCheckBox followBox;
+	JCheckBox topBox;
+	JProgressBar progressBar;
+	JLabel statusLabel;
+	WordCountTableModel tableModel;
+	SwingWorker<?, ?> worker;
+	IncrementalWordCounter follower;
 
 	public WordCountGUI() {
 
@@ -42,18 +66,31 @@ public class WordCountGUI extends JFrame implements ActionListener {
 		fileTextField.addActionListener(this);
 
 		/* Adding Post button */
-		JButton refreshButton = new JButton("Count!");
+		refreshButton = new JButton("Count!");
 		refreshButton.addActionListener(this);
 
-		/* Text Area to type info */
-		textArea = new JTextArea(20, 60);
-		textArea.setEditable(false);
+		/* Cancel button, only enabled while counting or following */
+		cancelButton = new JButton("Cancel");
+		cancelButton.setEnabled(false);
+		cancelButton.addActionListener(e -> cancel());
 
-		JScrollPane scrollPane = new JScrollPane(textArea,
+		/* Keep counting what is added to the file after the first count */
+		followBox = new JCheckBox("Follow");
+
+		/* Only find the most frequent words, shown while the file is read */
+		topBox = new JCheckBox("Top " + TOP_K);
+
+		/* Table of words and counts, filled in row by row as it scrolls */
+		tableModel = new WordCountTableModel();
+		JTable table = new JTable(tableModel);
+
+		JScrollPane scrollPane = new JScrollPane(table,
 				JScrollPane.VERTICAL_SCROLLBAR_ALWAYS,
-				JScrollPane.HORIZONTAL_SCROLLBAR_ALWAYS);
+				JScrollPane.HORIZONTAL_SCROLLBAR_AS_NEEDED);
 
-		/* Adding the scrollPane to the panel */
+		/* Progress of the count and number of words found */
+		progressBar = new JProgressBar(0, 100);
+		statusLabel = new JLabel(" ");
 
 		// Lay out the GUI.
 		BorderLayout layout = new BorderLayout();
@@ -65,8 +102,15 @@ public class WordCountGUI extends JFrame implements ActionListener {
 		top.add(urlLabel);
 		top.add(fileTextField);
 		top.add(refreshButton);
+		top.add(cancelButton);
+		top.add(followBox);
+		top.add(topBox);
+		JPanel bottom = new JPanel(new BorderLayout());
+		bottom.add(progressBar, BorderLayout.CENTER);
+		bottom.add(statusLabel, BorderLayout.SOUTH);
 		contentPane.add(top, BorderLayout.NORTH);
 		contentPane.add(scrollPane, BorderLayout.CENTER);
+		contentPane.add(bottom, BorderLayout.SOUTH);
 
 		setDefaultCloseOperation(WindowConstants.EXIT_ON_CLOSE);
 		pack();
@@ -74,37 +118,181 @@ public class WordCountGUI extends JFrame implements ActionListener {
 	}
 
 	public void actionPerformed(ActionEvent e) {
+		// a count is already running
+		if (worker != null && !worker.isDone()) {
+			return;
+		}
 		String fileName = fileTextField.getText();
-		textArea.selectAll();
+		Path path = Paths.get(fileName);
+		stopFollowing();
+		cancelButton.setEnabled(true);
+		progressBar.setValue(0);
+		statusLabel.setText("Counting " + fileName + "...");
+		if (followBox.isSelected()) {
+			follow(fileName, path);
+			return;
+		}
+		refreshButton.setEnabled(false);
+		if (topBox.isSelected()) {
+			topK(fileName, path);
+			return;
+		}
 
-		SearchTreeMap<String, Integer> tree = new SearchTreeMap<String, Integer>();
-		try {
-			Path path = Paths.get(fileName);
-			Scanner sc = new Scanner(path);
-			Pattern p = Pattern.compile("[a-zA-Z]+");
-			String s;
-			while (sc.hasNextLine()) {
-				// find all words in line
-				while ((s = sc.findInLine(p)) != null) {
-					Integer i = tree.get(s);
-					if (i == null)
-						tree.put(s, 1);
-					else
-						tree.put(s, i + 1);
+		// the file is counted off the event thread, so the window keeps
+		// repainting and the count can be cancelled. The rows are listed
+		// there too, since walking the whole tree would stall the window.
+		SwingWorker<List<Map.Entry<String, Counter>>, Void> countWorker = new SwingWorker<List<Map.Entry<String, Counter>>, Void>() {
+			protected List<Map.Entry<String, Counter>> doInBackground() throws Exception {
+				long size = Math.max(1, Files.size(path));
+				return WordCountEngine.count(path, Runtime.getRuntime().availableProcessors(),
+						counted -> setProgress((int) (100 * counted / size))).entryList();
+			}
+
+			protected void done() {
+				refreshButton.setEnabled(true);
+				cancelButton.setEnabled(false);
+				try {
+					List<Map.Entry<String, Counter>> entries = get();
+					tableModel.setEntries(entries);
+					progressBar.setValue(100);
+					statusLabel.setText(fileName + ": Words Counted = " + entries.size());
+				} catch (CancellationException exc) {
+					statusLabel.setText("Cancelled");
+				} catch (InterruptedException exc) {
+					statusLabel.setText("Cancelled");
+				} catch (ExecutionException exc) {
+					statusLabel.setText("Could not count " + fileName + ": " + exc.getCause());
 				}
-				sc.nextLine(); // go to next line
 			}
-		} catch (Exception exc) {
-			
+		};
+		start(countWorker);
+	}
+
+	/**
+	 * Show the most frequent words while the file is being read. Space-Saving
+	 * keeps a fixed number of counters however many different words there
+	 * are, and the count-min sketch tightens its estimates.
+	 */
+	private void topK(String fileName, Path path) {
+		SwingWorker<SpaceSaving<String>, List<Map.Entry<String, Counter>>> topWorker = new SwingWorker<SpaceSaving<String>, List<Map.Entry<String, Counter>>>() {
+			protected SpaceSaving<String> doInBackground() throws Exception {
+				long size = Math.max(1, Files.size(path));
+				SpaceSaving<String> summary = new SpaceSaving<String>(TOP_K_COUNTERS,
+						new CountMinSketch<String>(0.0001, 0.001));
+				WordCountEngine.forEachWord(path, summary::offer, counted -> {
+					setProgress((int) (100 * counted / size));
+					publish(topEntries(summary));
+				});
+				return summary;
+			}
+
+			protected void process(List<List<Map.Entry<String, Counter>>> tops) {
+				// only the newest top list is worth showing
+				tableModel.setEntries(tops.get(tops.size() - 1));
+			}
+
+			protected void done() {
+				refreshButton.setEnabled(true);
+				cancelButton.setEnabled(false);
+				try {
+					SpaceSaving<String> summary = get();
+					tableModel.setEntries(topEntries(summary));
+					progressBar.setValue(100);
+					statusLabel.setText(fileName + ": top " + TOP_K + " of " + summary.total()
+							+ " words, counts at most " + summary.maxError() + " too high");
+				} catch (CancellationException exc) {
+					statusLabel.setText("Cancelled");
+				} catch (InterruptedException exc) {
+					statusLabel.setText("Cancelled");
+				} catch (ExecutionException exc) {
+					statusLabel.setText("Could not count " + fileName + ": " + exc.getCause());
+				}
+			}
+		};
+		start(topWorker);
+	}
+
+	private static List<Map.Entry<String, Counter>> topEntries(SpaceSaving<String> summary) {
+		List<Map.Entry<String, Counter>> entries = new ArrayList<Map.Entry<String, Counter>>();
+		for (Map.Entry<String, Long> entry : summary.top(TOP_K)) {
+			entries.add(fixedEntry(entry.getKey(), entry.getValue()));
 		}
+		return entries;
+	}
+
+	/**
+	 * Copy the counts into Counters of their own, so the table shows them as
+	 * they are now even if the map's Counters change afterwards
+	 */
+	private static List<Map.Entry<String, Counter>> snapshot(SearchTreeMap<String, Counter> counts) {
+		List<Map.Entry<String, Counter>> entries = counts.entryList();
+		for (int i = 0; i < entries.size(); i++) {
+			Map.Entry<String, Counter> entry = entries.get(i);
+			entries.set(i, fixedEntry(entry.getKey(), entry.getValue().get()));
+		}
+		return entries;
+	}
+
+	/**
+	 * @return an entry for the table with a Counter that nothing else changes
+	 */
+	private static Map.Entry<String, Counter> fixedEntry(String word, long count) {
+		Counter counter = new Counter();
+		counter.add((int) Math.min(Integer.MAX_VALUE, count));
+		return new AbstractMap.SimpleImmutableEntry<String, Counter>(word, counter);
+	}
+
+	/**
+	 * Run a worker that counts in the background, showing its progress
+	 */
+	private void start(SwingWorker<?, ?> countWorker) {
+		worker = countWorker;
+		worker.addPropertyChangeListener(event -> {
+			if ("progress".equals(event.getPropertyName())) {
+				progressBar.setValue((Integer) event.getNewValue());
+			}
+		});
+		worker.execute();
+	}
 
-		String curStr = fileName + "\nWords Counted = " + tree.size()
-		+ "\n<Word #>\n";
-		for (String str : tree.keyList()) {
-			curStr = curStr + str + " " + tree.get(str) + "\n";
+	/**
+	 * Count the file and then keep counting the bytes added to it. Each
+	 * update only reads the new bytes, unless the file was rotated or
+	 * truncated.
+	 */
+	private void follow(String fileName, Path path) {
+		IncrementalWordCounter counter = new IncrementalWordCounter(path);
+		follower = counter;
+		counter.follow(1000, () -> {
+			// the counts can be read here, between updates, and are copied since the next update changes
+			// the Counters in place while the event thread may still be drawing them
+			List<Map.Entry<String, Counter>> entries = snapshot(counter.counts());
+			SwingUtilities.invokeLater(() -> {
+				if (follower == counter) {
+					tableModel.setEntries(entries);
+					progressBar.setValue(100);
+					statusLabel.setText(fileName + " (following): Words Counted = " + entries.size());
+				}
+			});
+		});
+	}
+
+	private void stopFollowing() {
+		if (follower != null) {
+			follower.close();
+			follower = null;
 		}
-		textArea.setText(curStr);
+	}
 
+	private void cancel() {
+		if (worker != null && !worker.isDone()) {
+			worker.cancel(true);
+		}
+		if (follower != null) {
+			stopFollowing();
+			cancelButton.setEnabled(false);
+			statusLabel.setText("Stopped following");
+		}
 	}
 
 	public static void main(String[] args) {
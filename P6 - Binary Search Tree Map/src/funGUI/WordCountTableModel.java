@@ -0,0 +1,50 @@
+package funGUI;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import javax.swing.table.AbstractTableModel;
+
+import searchTree.Counter;
+
+/**
+ * Shows word counts as a two column table of words and counts, in the order
+ * they are given. The JTable only asks for the rows it is drawing, so no text is built
+ * for the rows that are never seen.
+ */
+class WordCountTableModel extends AbstractTableModel {
+
+	private static final long serialVersionUID = 1L;
+
+	private List<Map.Entry<String, Counter>> entries = Collections.emptyList();
+
+	/**
+	 * Show the counts of entries, one row each in the order of the list
+	 */
+	void setEntries(List<Map.Entry<String, Counter>> entries) {
+		this.entries = entries;
+		fireTableDataChanged();
+	}
+
+	public int getRowCount() {
+		return entries.size();
+	}
+
+	public int getColumnCount() {
+		return 2;
+	}
+
+	public String getColumnName(int column) {
+		return column == 0 ? "Word" : "#";
+	}
+
+	public Class<?> getColumnClass(int column) {
+		return column == 0 ? String.class : Integer.class;
+	}
+
+	public Object getValueAt(int row, int column) {
+		Map.Entry<String, Counter> entry = entries.get(row);
+		return column == 0 ? entry.getKey() : (Object) entry.getValue().get();
+	}
+}
@@ -0,0 +1,549 @@
+package searchTree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * This class provides the operations of SearchTreeMap for String keys, using
+ * an adaptive radix tree instead of comparing whole keys at every level.
+ *
+ * Each node stands for a prefix shared by all the keys below it. Instead of
+ * storing one character per node, a chain of nodes with a single child is
+ * compressed into one node holding the whole run of characters (path
+ * compression). A lookup reads each character of the key once, so it costs
+ * O(key length) no matter how many keys are stored.
+ *
+ * The children of a node are kept the way that suits their number (this is
+ * what makes the tree adaptive):
+ * <ul>
+ * <li>up to 48 children: a sorted array of labels next to an array of child
+ * references, growing 4, 16, 48 as needed
+ * <li>more than 48 children, all labelled with characters below 256 (as in
+ * English text): an array of 256 references indexed directly by the label
+ * </ul>
+ *
+ * Children are visited in label order, and a key comes before every longer key
+ * it is a prefix of, so traversals return keys in the same order as
+ * String.compareTo.
+ *
+ */
+public class AdaptiveRadixTreeMap<V> {
+
+	private static final int DIRECT_SIZE = 256;
+	private static final int MAX_SORTED_BEFORE_DIRECT = 48;
+	private static final char[] NO_CHARS = new char[0];
+
+	private Node<V> root = new Node<V>(NO_CHARS);
+	private int size;
+
+	/**
+	 * A node of the tree. The key of a node is the key of its parent, then the
+	 * label leading to it, then prefix.
+	 */
+	private static final class Node<V> {
+		char[] prefix;
+		boolean hasValue;
+		V value;
+		int count;
+		//sorted labels and the matching children, while direct is null
+		char[] labels;
+		Node<V>[] children;
+		//children indexed by label, once there are too many for the sorted arrays
+		Node<V>[] direct;
+
+		Node(char[] prefix) {
+			this.prefix = prefix;
+		}
+	}
+
+	/**
+	 * Find the value the key is mapped to
+	 *
+	 * @param k - Search key
+	 * @return value k is mapped to, or null if there is no mapping for the key
+	 */
+	public V get(String k) {
+		Node<V> node = root;
+		int depth = 0;
+		while (true) {
+			char[] prefix = node.prefix;
+			if (k.length() - depth < prefix.length) {
+				return null;
+			}
+			for (int i = 0; i < prefix.length; i++) {
+				if (k.charAt(depth + i) != prefix[i]) {
+					return null;
+				}
+			}
+			depth += prefix.length;
+			if (depth == k.length()) {
+				return node.hasValue ? node.value : null;
+			}
+			node = findChild(node, k.charAt(depth));
+			if (node == null) {
+				return null;
+			}
+			depth++;
+		}
+	}
+
+	/**
+	 * Update the mapping for the key
+	 *
+	 * @param k - key value
+	 * @param v - value the key should be bound to
+	 */
+	public void put(String k, V v) {
+		Node<V> node = root;
+		int depth = 0;
+		while (true) {
+			char[] prefix = node.prefix;
+			int common = 0;
+			while (common < prefix.length && depth + common < k.length()
+					&& prefix[common] == k.charAt(depth + common)) {
+				common++;
+			}
+			//the key leaves this node's prefix part way, so the prefix is split there
+			if (common < prefix.length) {
+				splitPrefix(node, common);
+			}
+			depth += common;
+			if (depth == k.length()) {
+				if (!node.hasValue) {
+					node.hasValue = true;
+					size++;
+				}
+				node.value = v;
+				return;
+			}
+			char label = k.charAt(depth);
+			Node<V> child = findChild(node, label);
+			if (child == null) {
+				//the rest of the key goes into one new leaf
+				Node<V> leaf = new Node<V>(k.substring(depth + 1).toCharArray());
+				leaf.hasValue = true;
+				leaf.value = v;
+				addChild(node, label, leaf);
+				size++;
+				return;
+			}
+			node = child;
+			depth++;
+		}
+	}
+
+	/**
+	 * Remove any existing binding for a key
+	 *
+	 * @param k - key to be removed from the map
+	 */
+	public void remove(String k) {
+		remove(root, k, 0);
+	}
+
+	/**
+	 * Return number of keys bound by this map
+	 *
+	 * @return number of keys bound by this map
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Return the minimum key value in the map
+	 *
+	 * @return the minimum key value in the map
+	 * @throws NoSuchElementException if the map is empty
+	 */
+	public String getMin() {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		StringBuilder key = new StringBuilder();
+		Node<V> node = root;
+		//a key comes before all the longer keys below it
+		while (true) {
+			key.append(node.prefix);
+			if (node.hasValue) {
+				return key.toString();
+			}
+			int index = nextChild(node, -1);
+			key.append((char) childLabel(node, index));
+			node = childAt(node, index);
+		}
+	}
+
+	/**
+	 * Return the maximum key value in the map
+	 *
+	 * @return the maximum key value in the map
+	 * @throws NoSuchElementException if the map is empty
+	 */
+	public String getMax() {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		StringBuilder key = new StringBuilder();
+		Node<V> node = root;
+		//keep taking the last child until reaching a leaf, which always holds a key
+		while (true) {
+			key.append(node.prefix);
+			if (node.count == 0) {
+				return key.toString();
+			}
+			int index = lastChild(node);
+			key.append((char) childLabel(node, index));
+			node = childAt(node, index);
+		}
+	}
+
+	/**
+	 * Return list of keys in map in natural sorted order
+	 *
+	 * @return list of keys in map in sorted order
+	 */
+	public List<String> keyList() {
+		ArrayList<String> keyList = new ArrayList<String>(size);
+		collect(root, new StringBuilder(), keyList);
+		return keyList;
+	}
+
+	/**
+	 * Return, in sorted order, every key that starts with prefix. Only the
+	 * subtree below the prefix is visited, which makes this suitable for
+	 * autocomplete.
+	 *
+	 * @param prefix - what the keys must start with
+	 * @return sorted list of the keys starting with prefix
+	 */
+	public List<String> prefixScan(String prefix) {
+		ArrayList<String> keyList = new ArrayList<String>();
+		Node<V> node = root;
+		int depth = 0;
+		StringBuilder path = new StringBuilder();
+		while (true) {
+			char[] nodePrefix = node.prefix;
+			//compare the node's prefix with what is left of the wanted prefix
+			int length = Math.min(nodePrefix.length, prefix.length() - depth);
+			for (int i = 0; i < length; i++) {
+				if (nodePrefix[i] != prefix.charAt(depth + i)) {
+					return keyList;
+				}
+			}
+			//the wanted prefix ends inside or at the end of this node, so all of its keys match
+			if (depth + nodePrefix.length >= prefix.length()) {
+				collect(node, path, keyList);
+				return keyList;
+			}
+			path.append(nodePrefix);
+			depth += nodePrefix.length;
+			char label = prefix.charAt(depth);
+			node = findChild(node, label);
+			if (node == null) {
+				return keyList;
+			}
+			path.append(label);
+			depth++;
+		}
+	}
+
+	/**
+	 * Return subset of the map between the values fromKey-toKey.  It will
+	 * include fromKey and toKey if they are found in the original map.
+	 * The values for fromKey and toKey do not actually need to be in the map.
+	 * You can assume than fromKey is less than or equal to toKey.
+	 *
+	 * @return AdaptiveRadixTreeMap consisting of subset of this map
+	 */
+	public AdaptiveRadixTreeMap<V> subMap(String fromKey, String toKey) {
+		AdaptiveRadixTreeMap<V> retMap = new AdaptiveRadixTreeMap<V>();
+		subMap(root, new StringBuilder(), fromKey, toKey, retMap);
+		return retMap;
+	}
+
+	/**
+	 * Return a string representation of the map
+	 */
+	public String toString() {
+		return keyList().toString();
+	}
+
+	/**
+	 * Put every entry of the subtree whose key is in [fromKey, toKey] into
+	 * retMap, skipping subtrees that lie completely outside the range
+	 */
+	private void subMap(Node<V> node, StringBuilder path, String fromKey, String toKey,
+			AdaptiveRadixTreeMap<V> retMap) {
+		int pathLength = path.length();
+		path.append(node.prefix);
+		String here = path.toString();
+		//every key below starts with here, so none can be in range if here is already past toKey
+		if (here.compareTo(toKey) > 0) {
+			path.setLength(pathLength);
+			return;
+		}
+		//and none can be in range if here is before fromKey without being a prefix of it
+		if (here.compareTo(fromKey) < 0 && !fromKey.startsWith(here)) {
+			path.setLength(pathLength);
+			return;
+		}
+		if (node.hasValue && here.compareTo(fromKey) >= 0) {
+			retMap.put(here, node.value);
+		}
+		for (int index = nextChild(node, -1); index >= 0; index = nextChild(node, index)) {
+			path.append((char) childLabel(node, index));
+			subMap(childAt(node, index), path, fromKey, toKey, retMap);
+			path.setLength(path.length() - 1);
+		}
+		path.setLength(pathLength);
+	}
+
+	/**
+	 * Add the keys of the subtree to keyList in order. path holds the key of
+	 * node's parent and the label leading to node.
+	 */
+	private void collect(Node<V> node, StringBuilder path, List<String> keyList) {
+		int pathLength = path.length();
+		path.append(node.prefix);
+		if (node.hasValue) {
+			keyList.add(path.toString());
+		}
+		for (int index = nextChild(node, -1); index >= 0; index = nextChild(node, index)) {
+			path.append((char) childLabel(node, index));
+			collect(childAt(node, index), path, keyList);
+			path.setLength(path.length() - 1);
+		}
+		path.setLength(pathLength);
+	}
+
+	/**
+	 * Remove k from the subtree rooted at node, where the first depth
+	 * characters of k lead to node.
+	 *
+	 * @return true if node is left with no key and no children, so its parent
+	 *         should drop it
+	 */
+	private boolean remove(Node<V> node, String k, int depth) {
+		char[] prefix = node.prefix;
+		if (k.length() - depth < prefix.length) {
+			return false;
+		}
+		for (int i = 0; i < prefix.length; i++) {
+			if (k.charAt(depth + i) != prefix[i]) {
+				return false;
+			}
+		}
+		depth += prefix.length;
+		if (depth == k.length()) {
+			if (!node.hasValue) {
+				return false;
+			}
+			node.hasValue = false;
+			node.value = null;
+			size--;
+		} else {
+			char label = k.charAt(depth);
+			Node<V> child = findChild(node, label);
+			if (child == null || !remove(child, k, depth + 1)) {
+				return false;
+			}
+			removeChild(node, label);
+		}
+		if (node == root) {
+			return false;
+		}
+		if (!node.hasValue && node.count == 1) {
+			mergeWithOnlyChild(node);
+		}
+		return !node.hasValue && node.count == 0;
+	}
+
+	/**
+	 * Cut node's prefix after the first "at" characters. The rest of the
+	 * prefix, with everything node held, moves into a new child.
+	 */
+	private void splitPrefix(Node<V> node, int at) {
+		Node<V> lower = new Node<V>(Arrays.copyOfRange(node.prefix, at + 1, node.prefix.length));
+		lower.hasValue = node.hasValue;
+		lower.value = node.value;
+		lower.count = node.count;
+		lower.labels = node.labels;
+		lower.children = node.children;
+		lower.direct = node.direct;
+		char label = node.prefix[at];
+		node.prefix = Arrays.copyOf(node.prefix, at);
+		node.hasValue = false;
+		node.value = null;
+		node.count = 0;
+		node.labels = null;
+		node.children = null;
+		node.direct = null;
+		addChild(node, label, lower);
+	}
+
+	/**
+	 * A node with no key of its own and a single child is pulled together
+	 * with that child into one node, keeping paths compressed
+	 */
+	private void mergeWithOnlyChild(Node<V> node) {
+		int index = nextChild(node, -1);
+		char label = (char) childLabel(node, index);
+		Node<V> child = childAt(node, index);
+		char[] prefix = new char[node.prefix.length + 1 + child.prefix.length];
+		System.arraycopy(node.prefix, 0, prefix, 0, node.prefix.length);
+		prefix[node.prefix.length] = label;
+		System.arraycopy(child.prefix, 0, prefix, node.prefix.length + 1, child.prefix.length);
+		node.prefix = prefix;
+		node.hasValue = child.hasValue;
+		node.value = child.value;
+		node.count = child.count;
+		node.labels = child.labels;
+		node.children = child.children;
+		node.direct = child.direct;
+	}
+
+	private Node<V> findChild(Node<V> node, char label) {
+		if (node.direct != null) {
+			return label < DIRECT_SIZE ? node.direct[label] : null;
+		}
+		if (node.count == 0) {
+			return null;
+		}
+		int index = Arrays.binarySearch(node.labels, 0, node.count, label);
+		return index >= 0 ? node.children[index] : null;
+	}
+
+	private void addChild(Node<V> node, char label, Node<V> child) {
+		if (node.direct != null) {
+			if (label < DIRECT_SIZE) {
+				node.direct[label] = child;
+				node.count++;
+				return;
+			}
+			//a label that doesn't fit the direct array, so go back to sorted arrays
+			toSorted(node, node.count + 1);
+		}
+		if (node.labels == null) {
+			node.labels = new char[4];
+			node.children = newChildren(4);
+		} else if (node.count == node.labels.length) {
+			if (node.count >= MAX_SORTED_BEFORE_DIRECT && label < DIRECT_SIZE && allBelowDirectSize(node)) {
+				toDirect(node);
+				node.direct[label] = child;
+				node.count++;
+				return;
+			}
+			int capacity = node.count < 16 ? 16 : node.count < 48 ? 48 : node.count * 2;
+			node.labels = Arrays.copyOf(node.labels, capacity);
+			node.children = Arrays.copyOf(node.children, capacity);
+		}
+		int index = -Arrays.binarySearch(node.labels, 0, node.count, label) - 1;
+		System.arraycopy(node.labels, index, node.labels, index + 1, node.count - index);
+		System.arraycopy(node.children, index, node.children, index + 1, node.count - index);
+		node.labels[index] = label;
+		node.children[index] = child;
+		node.count++;
+	}
+
+	private void removeChild(Node<V> node, char label) {
+		if (node.direct != null) {
+			node.direct[label] = null;
+			node.count--;
+			//shrink back well below the size that made it grow, so it doesn't flip back and forth
+			if (node.count < MAX_SORTED_BEFORE_DIRECT - 8) {
+				toSorted(node, MAX_SORTED_BEFORE_DIRECT);
+			}
+			return;
+		}
+		int index = Arrays.binarySearch(node.labels, 0, node.count, label);
+		System.arraycopy(node.labels, index + 1, node.labels, index, node.count - index - 1);
+		System.arraycopy(node.children, index + 1, node.children, index, node.count - index - 1);
+		node.count--;
+		node.children[node.count] = null;
+	}
+
+	/**
+	 * Make an array of child links. An array of a generic type can't be
+	 * created directly, so this is the one place the unchecked cast is made.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <V> Node<V>[] newChildren(int length) {
+		return (Node<V>[]) new Node<?>[length];
+	}
+
+	private static boolean allBelowDirectSize(Node<?> node) {
+		for (int i = 0; i < node.count; i++) {
+			if (node.labels[i] >= DIRECT_SIZE) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void toDirect(Node<V> node) {
+		node.direct = newChildren(DIRECT_SIZE);
+		for (int i = 0; i < node.count; i++) {
+			node.direct[node.labels[i]] = node.children[i];
+		}
+		node.labels = null;
+		node.children = null;
+	}
+
+	private void toSorted(Node<V> node, int capacity) {
+		char[] labels = new char[capacity];
+		Node<V>[] children = newChildren(capacity);
+		int i = 0;
+		for (int label = 0; label < DIRECT_SIZE; label++) {
+			if (node.direct[label] != null) {
+				labels[i] = (char) label;
+				children[i] = node.direct[label];
+				i++;
+			}
+		}
+		node.labels = labels;
+		node.children = children;
+		node.direct = null;
+	}
+
+	/*
+	 * Children are walked through with an index: the position in the sorted
+	 * arrays, or the label itself in the direct array.
+	 */
+
+	/**
+	 * @return index of the first child after index, or -1 if there is none
+	 */
+	private static int nextChild(Node<?> node, int index) {
+		if (node.direct != null) {
+			for (int label = index + 1; label < DIRECT_SIZE; label++) {
+				if (node.direct[label] != null) {
+					return label;
+				}
+			}
+			return -1;
+		}
+		return index + 1 < node.count ? index + 1 : -1;
+	}
+
+	private static int lastChild(Node<?> node) {
+		if (node.direct != null) {
+			for (int label = DIRECT_SIZE - 1; label >= 0; label--) {
+				if (node.direct[label] != null) {
+					return label;
+				}
+			}
+		}
+		return node.count - 1;
+	}
+
+	private static int childLabel(Node<?> node, int index) {
+		return node.direct != null ? index : node.labels[index];
+	}
+
+	private static <V> Node<V> childAt(Node<V> node, int index) {
+		return node.direct != null ? node.direct[index] : node.children[index];
+	}
+}
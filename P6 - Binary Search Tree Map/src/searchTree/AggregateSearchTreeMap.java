@@ -0,0 +1,287 @@
+package searchTree;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * This class is a sorted map that can also summarize any range of keys
+ * without visiting the entries in that range.
+ *
+ * Every node of the tree stores, next to its key and value, the combination
+ * (using a Monoid) of the measures of every value in its subtree. insert and
+ * delete keep these summaries up to date on their way back up, and the tree
+ * is kept balanced (AVL, with the rotations in AvlNode), so
+ * aggregate(fromKey, toKey) only has to combine O(log n) stored summaries.
+ *
+ * For example, with word counts as values:
+ * <ul>
+ * <li>new AggregateSearchTreeMap&lt;String, Integer, Integer&gt;(Monoid.integerSum(), v -&gt; v)
+ * totals the occurrences of a range of words
+ * <li>new AggregateSearchTreeMap&lt;String, Integer, Integer&gt;(Monoid.integerSum(), v -&gt; 1)
+ * counts the words in a range
+ * <li>new AggregateSearchTreeMap&lt;String, Integer, Integer&gt;(Monoid.maximum(), v -&gt; v)
+ * finds the largest count in a range
+ * </ul>
+ *
+ * @param <K> type of the keys
+ * @param <V> type of the values
+ * @param <A> type of the summaries
+ */
+public class AggregateSearchTreeMap<K extends Comparable<K>, V, A> {
+
+	private final Monoid<A> monoid;
+	private final Function<? super V, ? extends A> measure;
+	private Node root;
+	private int size;
+
+	/**
+	 * A node of the tree. agg is the combination of the measures of every
+	 * value in the subtree rooted here, in key order. It is an inner class so
+	 * that update, which AvlNode calls after every change below the node, can
+	 * reach the monoid and measure.
+	 */
+	private final class Node extends AvlNode<Node> {
+		K key;
+		V value;
+		A agg;
+
+		Node(K key, V value) {
+			this.key = key;
+			this.value = value;
+			update();
+		}
+
+		void update() {
+			super.update();
+			agg = monoid.combine(monoid.combine(agg(left), measure.apply(value)), agg(right));
+		}
+	}
+
+	/**
+	 * Create an empty map that summarizes the values themselves
+	 *
+	 * @param monoid - how values are combined
+	 * @return the new map
+	 */
+	public static <K extends Comparable<K>, V> AggregateSearchTreeMap<K, V, V> of(Monoid<V> monoid) {
+		return new AggregateSearchTreeMap<K, V, V>(monoid, Function.identity());
+	}
+
+	/**
+	 * Create an empty map
+	 *
+	 * @param monoid - how measures are combined
+	 * @param measure - turns a value into what gets combined
+	 */
+	public AggregateSearchTreeMap(Monoid<A> monoid, Function<? super V, ? extends A> measure) {
+		this.monoid = monoid;
+		this.measure = measure;
+	}
+
+	/**
+	 * Find the value the key is mapped to
+	 *
+	 * @param k - Search key
+	 * @return value k is mapped to, or null if there is no mapping for the key
+	 */
+	public V get(K k) {
+		Node node = root;
+		while (node != null) {
+			int cmp = k.compareTo(node.key);
+			if (cmp == 0) {
+				return node.value;
+			}
+			node = cmp < 0 ? node.left : node.right;
+		}
+		return null;
+	}
+
+	/**
+	 * Update the mapping for the key
+	 *
+	 * @param k - key value
+	 * @param v - value the key should be bound to
+	 */
+	public void put(K k, V v) {
+		root = insert(root, k, v);
+	}
+
+	/**
+	 * Remove any existing binding for a key
+	 *
+	 * @param k - key to be removed from the map
+	 */
+	public void remove(K k) {
+		root = delete(root, k);
+	}
+
+	/**
+	 * Return number of keys bound by this map
+	 *
+	 * @return number of keys bound by this map
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Return the minimum key value in the map
+	 *
+	 * @return the minimum key value in the map
+	 * @throws NoSuchElementException if the map is empty
+	 */
+	public K getMin() {
+		if (root == null) {
+			throw new NoSuchElementException();
+		}
+		return AvlNode.first(root).key;
+	}
+
+	/**
+	 * Return the maximum key value in the map
+	 *
+	 * @return the maximum key value in the map
+	 * @throws NoSuchElementException if the map is empty
+	 */
+	public K getMax() {
+		if (root == null) {
+			throw new NoSuchElementException();
+		}
+		return AvlNode.last(root).key;
+	}
+
+	/**
+	 * Return list of keys in map in natural sorted order
+	 *
+	 * @return list of keys in map in sorted order
+	 */
+	public List<K> keyList() {
+		ArrayList<K> keyList = new ArrayList<K>(size);
+		addKeys(root, keyList);
+		return keyList;
+	}
+
+	/**
+	 * Return the combination of the measures of every value in the map
+	 *
+	 * @return the summary of the whole map, or the identity if it is empty
+	 */
+	public A aggregate() {
+		return agg(root);
+	}
+
+	/**
+	 * Return the combination of the measures of the values whose keys are
+	 * between fromKey and toKey, inclusive, in O(log n) time. The values for
+	 * fromKey and toKey do not actually need to be in the map.
+	 *
+	 * @param fromKey - Lower bound value for keys in the range
+	 * @param toKey - Upper bound value for keys in the range
+	 * @return the summary of the range, or the identity if it is empty
+	 */
+	public A aggregate(K fromKey, K toKey) {
+		//walk down until the node that separates the two bounds
+		Node node = root;
+		while (node != null) {
+			if (node.key.compareTo(fromKey) < 0) {
+				node = node.right;
+			} else if (node.key.compareTo(toKey) > 0) {
+				node = node.left;
+			} else {
+				//everything in range is this node, the upper part of its left and the lower part of its right
+				A result = monoid.combine(aggFrom(node.left, fromKey), measure.apply(node.value));
+				return monoid.combine(result, aggTo(node.right, toKey));
+			}
+		}
+		return monoid.identity();
+	}
+
+	/**
+	 * Summary of the keys in the subtree that are at least fromKey
+	 */
+	private A aggFrom(Node node, K fromKey) {
+		A result = monoid.identity();
+		while (node != null) {
+			if (node.key.compareTo(fromKey) < 0) {
+				node = node.right;
+			} else {
+				//this node and its whole right subtree are in range, in front of what was found so far
+				A here = monoid.combine(measure.apply(node.value), agg(node.right));
+				result = monoid.combine(here, result);
+				node = node.left;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Summary of the keys in the subtree that are at most toKey
+	 */
+	private A aggTo(Node node, K toKey) {
+		A result = monoid.identity();
+		while (node != null) {
+			if (node.key.compareTo(toKey) > 0) {
+				node = node.left;
+			} else {
+				//this node and its whole left subtree are in range, after what was found so far
+				A here = monoid.combine(agg(node.left), measure.apply(node.value));
+				result = monoid.combine(result, here);
+				node = node.right;
+			}
+		}
+		return result;
+	}
+
+	private A agg(Node node) {
+		return node == null ? monoid.identity() : node.agg;
+	}
+
+	private Node insert(Node node, K key, V value) {
+		if (node == null) {
+			size++;
+			return new Node(key, value);
+		}
+		int cmp = key.compareTo(node.key);
+		if (cmp < 0) {
+			node.left = insert(node.left, key, value);
+		} else if (cmp > 0) {
+			node.right = insert(node.right, key, value);
+		} else {
+			node.value = value;
+		}
+		return AvlNode.balance(node);
+	}
+
+	private Node delete(Node node, K key) {
+		if (node == null) {
+			return null;
+		}
+		int cmp = key.compareTo(node.key);
+		if (cmp < 0) {
+			node.left = delete(node.left, key);
+		} else if (cmp > 0) {
+			node.right = delete(node.right, key);
+		} else {
+			if (node.left == null || node.right == null) {
+				size--;
+				return node.left == null ? node.right : node.left;
+			}
+			//replace this entry with the smallest one on its right, then remove that one
+			Node next = AvlNode.first(node.right);
+			node.key = next.key;
+			node.value = next.value;
+			node.right = delete(node.right, next.key);
+		}
+		return AvlNode.balance(node);
+	}
+
+	private void addKeys(Node node, List<K> keyList) {
+		if (node != null) {
+			addKeys(node.left, keyList);
+			keyList.add(node.key);
+			addKeys(node.right, keyList);
+		}
+	}
+}
@@ -0,0 +1,88 @@
+package searchTree;
+
+/**
+ * A node of an AVL tree: the links and height that the balanced trees in
+ * this package share, and the rotations that keep them balanced. Subclasses
+ * add the key and value, and anything else they keep about their subtree.
+ *
+ * @param <N> the subclass, so that the links have its type
+ */
+abstract class AvlNode<N extends AvlNode<N>> {
+
+	N left, right;
+	int height = 1;
+
+	/**
+	 * Recompute what this node keeps about its subtree from its children.
+	 * Subclasses that keep more than the height add to this.
+	 */
+	void update() {
+		height = 1 + Math.max(height(left), height(right));
+	}
+
+	static int height(AvlNode<?> node) {
+		return node == null ? 0 : node.height;
+	}
+
+	static <N extends AvlNode<N>> N rotateRight(N node) {
+		N left = node.left;
+		node.left = left.right;
+		node.update();
+		left.right = node;
+		left.update();
+		return left;
+	}
+
+	static <N extends AvlNode<N>> N rotateLeft(N node) {
+		N right = node.right;
+		node.right = right.left;
+		node.update();
+		right.left = node;
+		right.update();
+		return right;
+	}
+
+	/**
+	 * Update a node whose subtrees just changed, rotating it if their heights
+	 * differ by more than one
+	 *
+	 * @return the node now at the top of the subtree
+	 */
+	static <N extends AvlNode<N>> N balance(N node) {
+		int diff = height(node.left) - height(node.right);
+		if (diff > 1) {
+			if (height(node.left.left) < height(node.left.right)) {
+				node.left = rotateLeft(node.left);
+			}
+			return rotateRight(node);
+		}
+		if (diff < -1) {
+			if (height(node.right.right) < height(node.right.left)) {
+				node.right = rotateRight(node.right);
+			}
+			return rotateLeft(node);
+		}
+		node.update();
+		return node;
+	}
+
+	/**
+	 * @return the leftmost node of a non-empty subtree
+	 */
+	static <N extends AvlNode<N>> N first(N node) {
+		while (node.left != null) {
+			node = node.left;
+		}
+		return node;
+	}
+
+	/**
+	 * @return the rightmost node of a non-empty subtree
+	 */
+	static <N extends AvlNode<N>> N last(N node) {
+		while (node.right != null) {
+			node = node.right;
+		}
+		return node;
+	}
+}
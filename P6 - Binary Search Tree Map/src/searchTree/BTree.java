@@ -0,0 +1,416 @@
+package searchTree;
+
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * This class is a B+tree implementation of the Tree interface. Unlike
+ * NonEmptyTree, which holds one key per object, every node of a BTree holds up
+ * to "order" keys in an array, so a lookup only touches a handful of nodes and
+ * the keys it compares against sit next to each other in memory.
+ *
+ * <ul>
+ * <li>Inner nodes hold separator keys and references to their children. The
+ * child at index i holds the keys that are at least keys[i-1] and less than
+ * keys[i].
+ * <li>Leaf nodes hold the key:value pairs, in sorted order, and are linked to
+ * their neighbors so in order traversals and range scans walk the leaves one
+ * after another instead of going back up the tree.
+ * </ul>
+ *
+ * Deletion is relaxed: a node is not merged with its neighbor when it gets
+ * less than half full, it is only unlinked once it is completely empty. This
+ * keeps delete simple and cheap while search, min and max still only look at
+ * one node per level.
+ *
+ * A BTree is a single mutable object, so insert and delete always return this.
+ *
+ */
+public class BTree<K extends Comparable<K>, V> implements Tree<K, V> {
+
+	/**
+	 * The number of keys each node holds when no order is given
+	 */
+	public static final int DEFAULT_ORDER = 64;
+
+	private final int order;
+	private Node root;
+	private Leaf first;
+	private int size;
+
+	/**
+	 * Common part of leaf and inner nodes. The arrays have room for one extra
+	 * key so a node can overflow for a moment before it is split.
+	 */
+	private static abstract class Node {
+		Object[] keys;
+		int count;
+
+		Node(int order) {
+			keys = new Object[order + 1];
+		}
+	}
+
+	/**
+	 * A leaf node: keys[i] is bound to values[i]
+	 */
+	private static final class Leaf extends Node {
+		Object[] values;
+		Leaf prev, next;
+
+		Leaf(int order) {
+			super(order);
+			values = new Object[order + 1];
+		}
+	}
+
+	/**
+	 * An inner node with count separator keys and count + 1 children
+	 */
+	private static final class Inner extends Node {
+		Node[] children;
+
+		Inner(int order) {
+			super(order);
+			children = new Node[order + 2];
+		}
+	}
+
+	/**
+	 * Creates an empty B+tree with DEFAULT_ORDER keys per node
+	 */
+	public BTree() {
+		this(DEFAULT_ORDER);
+	}
+
+	/**
+	 * Creates an empty B+tree
+	 *
+	 * @param order: the maximum number of keys stored in one node
+	 * @throws IllegalArgumentException if order is less than 3
+	 */
+	public BTree(int order) {
+		if (order < 3) {
+			throw new IllegalArgumentException();
+		}
+		this.order = order;
+		this.first = new Leaf(order);
+		this.root = first;
+	}
+
+	/**
+	 * given a key, walk down to the leaf that would hold it and return its value
+	 * @return value, or null if the key is not in the tree
+	 */
+	@SuppressWarnings("unchecked")
+	public V search(K key) {
+		Leaf leaf = findLeaf(key);
+		int index = Arrays.binarySearch(leaf.keys, 0, leaf.count, key);
+		if (index < 0) {
+			return null;
+		}
+		return (V) leaf.values[index];
+	}
+
+	/**
+	 * given a key & value, insert the pair into the tree, splitting any node
+	 * that overflows on the way back up
+	 * @return this tree
+	 */
+	public BTree<K, V> insert(K key, V value) {
+		Object[] split = insert(root, key, value);
+		//if the root itself was split the tree grows by one level
+		if (split != null) {
+			Inner newRoot = new Inner(order);
+			newRoot.keys[0] = split[0];
+			newRoot.children[0] = root;
+			newRoot.children[1] = (Node) split[1];
+			newRoot.count = 1;
+			root = newRoot;
+		}
+		return this;
+	}
+
+	/**
+	 * given a key, remove it from its leaf. Empty nodes are unlinked from
+	 * their parent and a root with a single child is replaced by that child.
+	 * @return this tree
+	 */
+	public BTree<K, V> delete(K key) {
+		if (delete(root, key)) {
+			//every leaf is gone so start over with a single empty leaf
+			first = new Leaf(order);
+			root = first;
+		}
+		while (root instanceof Inner && root.count == 0) {
+			root = ((Inner) root).children[0];
+		}
+		return this;
+	}
+
+	/**
+	 * given a key and a function, replace the key's value with what the
+	 * function returns. Updating a key that is already bound takes one walk
+	 * down the tree; only adding a new key or deleting one walks it again to
+	 * split or unlink nodes.
+	 * @return this tree
+	 */
+	@SuppressWarnings("unchecked")
+	public BTree<K, V> compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+		Leaf leaf = findLeaf(key);
+		int index = Arrays.binarySearch(leaf.keys, 0, leaf.count, key);
+		V oldValue = index >= 0 ? (V) leaf.values[index] : null;
+		V newValue = remappingFunction.apply(key, oldValue);
+		if (newValue == null) {
+			return index >= 0 ? delete(key) : this;
+		}
+		if (index >= 0) {
+			leaf.values[index] = newValue;
+			return this;
+		}
+		return insert(key, newValue);
+	}
+
+	/**
+	 * @return the largest key, found in the rightmost leaf
+	 */
+	@SuppressWarnings("unchecked")
+	public K max() throws TreeIsEmptyException {
+		if (size == 0) {
+			throw new TreeIsEmptyException();
+		}
+		Node node = root;
+		while (node instanceof Inner) {
+			node = ((Inner) node).children[node.count];
+		}
+		return (K) node.keys[node.count - 1];
+	}
+
+	/**
+	 * @return the smallest key, found in the first leaf
+	 */
+	@SuppressWarnings("unchecked")
+	public K min() throws TreeIsEmptyException {
+		if (size == 0) {
+			throw new TreeIsEmptyException();
+		}
+		return (K) first.keys[0];
+	}
+
+	/**
+	 * @return the number of key,value pairs in the tree
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * add every key to the collection by walking the linked leaves from left
+	 * to right
+	 */
+	@SuppressWarnings("unchecked")
+	public void addKeysToCollection(Collection<K> c) {
+		for (Leaf leaf = first; leaf != null; leaf = leaf.next) {
+			for (int i = 0; i < leaf.count; i++) {
+				c.add((K) leaf.keys[i]);
+			}
+		}
+	}
+
+	/**
+	 * add every key,value pair to the collection by walking the linked leaves
+	 * from left to right
+	 */
+	@SuppressWarnings("unchecked")
+	public void addEntriesToCollection(Collection<Map.Entry<K, V>> c) {
+		for (Leaf leaf = first; leaf != null; leaf = leaf.next) {
+			for (int i = 0; i < leaf.count; i++) {
+				c.add(new AbstractMap.SimpleImmutableEntry<K, V>((K) leaf.keys[i], (V) leaf.values[i]));
+			}
+		}
+	}
+
+	/**
+	 * given bounds of [fromKey, toKey] return a new BTree with the entries of
+	 * that range. Only the first leaf is found by searching, the rest of the
+	 * range is read by walking the leaves in order.
+	 */
+	@SuppressWarnings("unchecked")
+	public Tree<K, V> subTree(K fromKey, K toKey) {
+		BTree<K, V> result = new BTree<K, V>(order);
+		Leaf leaf = findLeaf(fromKey);
+		int index = Arrays.binarySearch(leaf.keys, 0, leaf.count, fromKey);
+		if (index < 0) {
+			index = -index - 1;
+		}
+		while (leaf != null) {
+			for (; index < leaf.count; index++) {
+				K key = (K) leaf.keys[index];
+				if (key.compareTo(toKey) > 0) {
+					return result;
+				}
+				result.insert(key, (V) leaf.values[index]);
+			}
+			leaf = leaf.next;
+			index = 0;
+		}
+		return result;
+	}
+
+	/**
+	 * Walk down from the root to the leaf whose range contains key
+	 */
+	private Leaf findLeaf(K key) {
+		Node node = root;
+		while (node instanceof Inner) {
+			node = ((Inner) node).children[childIndex(node, key)];
+		}
+		return (Leaf) node;
+	}
+
+	/**
+	 * Index of the child of an inner node whose range contains key
+	 */
+	private static int childIndex(Node node, Object key) {
+		int index = Arrays.binarySearch(node.keys, 0, node.count, key);
+		//a separator equal to the key is the first key of the child to its right
+		return index >= 0 ? index + 1 : -index - 1;
+	}
+
+	/**
+	 * Insert into the subtree rooted at node.
+	 *
+	 * @return null if node did not split, otherwise the separator key and the
+	 * new right sibling
+	 */
+	private Object[] insert(Node node, K key, V value) {
+		if (node instanceof Leaf) {
+			Leaf leaf = (Leaf) node;
+			int index = Arrays.binarySearch(leaf.keys, 0, leaf.count, key);
+			//the key is already in the tree so only the value changes
+			if (index >= 0) {
+				leaf.values[index] = value;
+				return null;
+			}
+			index = -index - 1;
+			System.arraycopy(leaf.keys, index, leaf.keys, index + 1, leaf.count - index);
+			System.arraycopy(leaf.values, index, leaf.values, index + 1, leaf.count - index);
+			leaf.keys[index] = key;
+			leaf.values[index] = value;
+			leaf.count++;
+			size++;
+			return leaf.count > order ? splitLeaf(leaf) : null;
+		}
+		Inner inner = (Inner) node;
+		int index = childIndex(inner, key);
+		Object[] split = insert(inner.children[index], key, value);
+		if (split == null) {
+			return null;
+		}
+		//make room for the separator and the new child right after the one that split
+		System.arraycopy(inner.keys, index, inner.keys, index + 1, inner.count - index);
+		System.arraycopy(inner.children, index + 1, inner.children, index + 2, inner.count - index);
+		inner.keys[index] = split[0];
+		inner.children[index + 1] = (Node) split[1];
+		inner.count++;
+		return inner.count > order ? splitInner(inner) : null;
+	}
+
+	/**
+	 * Move the upper half of a full leaf into a new leaf linked after it
+	 */
+	private Object[] splitLeaf(Leaf leaf) {
+		Leaf right = new Leaf(order);
+		int mid = leaf.count / 2;
+		right.count = leaf.count - mid;
+		System.arraycopy(leaf.keys, mid, right.keys, 0, right.count);
+		System.arraycopy(leaf.values, mid, right.values, 0, right.count);
+		Arrays.fill(leaf.keys, mid, leaf.count, null);
+		Arrays.fill(leaf.values, mid, leaf.count, null);
+		leaf.count = mid;
+		right.next = leaf.next;
+		right.prev = leaf;
+		if (leaf.next != null) {
+			leaf.next.prev = right;
+		}
+		leaf.next = right;
+		return new Object[] { right.keys[0], right };
+	}
+
+	/**
+	 * Move the upper half of a full inner node into a new node. The middle key
+	 * moves up to the parent instead of staying in either half.
+	 */
+	private Object[] splitInner(Inner inner) {
+		Inner right = new Inner(order);
+		int mid = inner.count / 2;
+		Object separator = inner.keys[mid];
+		right.count = inner.count - mid - 1;
+		System.arraycopy(inner.keys, mid + 1, right.keys, 0, right.count);
+		System.arraycopy(inner.children, mid + 1, right.children, 0, right.count + 1);
+		Arrays.fill(inner.keys, mid, inner.count, null);
+		Arrays.fill(inner.children, mid + 1, inner.count + 1, null);
+		inner.count = mid;
+		return new Object[] { separator, right };
+	}
+
+	/**
+	 * Delete from the subtree rooted at node.
+	 *
+	 * @return true if node has no entries left and should be unlinked
+	 */
+	private boolean delete(Node node, K key) {
+		if (node instanceof Leaf) {
+			Leaf leaf = (Leaf) node;
+			int index = Arrays.binarySearch(leaf.keys, 0, leaf.count, key);
+			if (index < 0) {
+				return false;
+			}
+			System.arraycopy(leaf.keys, index + 1, leaf.keys, index, leaf.count - index - 1);
+			System.arraycopy(leaf.values, index + 1, leaf.values, index, leaf.count - index - 1);
+			leaf.count--;
+			leaf.keys[leaf.count] = null;
+			leaf.values[leaf.count] = null;
+			size--;
+			return leaf.count == 0;
+		}
+		Inner inner = (Inner) node;
+		int index = childIndex(inner, key);
+		Node child = inner.children[index];
+		if (!delete(child, key)) {
+			return false;
+		}
+		if (child instanceof Leaf) {
+			unlink((Leaf) child);
+		}
+		//the only child is gone so this node is empty as well
+		if (inner.count == 0) {
+			return true;
+		}
+		//drop the child together with the separator on one of its sides
+		int keyIndex = index > 0 ? index - 1 : 0;
+		System.arraycopy(inner.keys, keyIndex + 1, inner.keys, keyIndex, inner.count - keyIndex - 1);
+		System.arraycopy(inner.children, index + 1, inner.children, index, inner.count - index);
+		inner.count--;
+		inner.keys[inner.count] = null;
+		inner.children[inner.count + 1] = null;
+		return false;
+	}
+
+	/**
+	 * Remove an empty leaf from the chain of leaves
+	 */
+	private void unlink(Leaf leaf) {
+		if (leaf.prev != null) {
+			leaf.prev.next = leaf.next;
+		} else {
+			first = leaf.next;
+		}
+		if (leaf.next != null) {
+			leaf.next.prev = leaf.prev;
+		}
+	}
+}
@@ -0,0 +1,70 @@
+package searchTree;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This interface describes how DiskSearchTreeMap turns keys and values into
+ * bytes for its pages, and back.
+ *
+ * @param <T> type of the values being converted
+ */
+public interface Codec<T> {
+
+	/**
+	 * @param value - value to convert
+	 * @return the bytes standing for value
+	 */
+	byte[] encode(T value);
+
+	/**
+	 * @param bytes - bytes made by encode
+	 * @return the value the bytes stand for
+	 */
+	T decode(byte[] bytes);
+
+	/**
+	 * @return a codec storing Strings as UTF-8
+	 */
+	static Codec<String> string() {
+		return new Codec<String>() {
+			public byte[] encode(String value) {
+				return value.getBytes(StandardCharsets.UTF_8);
+			}
+
+			public String decode(byte[] bytes) {
+				return new String(bytes, StandardCharsets.UTF_8);
+			}
+		};
+	}
+
+	/**
+	 * @return a codec storing Integers in 4 bytes
+	 */
+	static Codec<Integer> integer() {
+		return new Codec<Integer>() {
+			public byte[] encode(Integer value) {
+				return ByteBuffer.allocate(Integer.BYTES).putInt(value).array();
+			}
+
+			public Integer decode(byte[] bytes) {
+				return ByteBuffer.wrap(bytes).getInt();
+			}
+		};
+	}
+
+	/**
+	 * @return a codec storing Longs in 8 bytes
+	 */
+	static Codec<Long> longInteger() {
+		return new Codec<Long>() {
+			public byte[] encode(Long value) {
+				return ByteBuffer.allocate(Long.BYTES).putLong(value).array();
+			}
+
+			public Long decode(byte[] bytes) {
+				return ByteBuffer.wrap(bytes).getLong();
+			}
+		};
+	}
+}
@@ -0,0 +1,145 @@
+package searchTree;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.BiFunction;
+
+/**
+ * This class provides the same operations as SearchTreeMap, but it is safe to
+ * use from many threads at once without an outside lock. The entries are kept
+ * in a lock-free skip list (ConcurrentSkipListMap), so the keys stay in their
+ * natural sorted order for keyList, getMin, getMax and subMap.
+ *
+ * Reads never block, and writers to different keys do not get in each other's
+ * way. The update method applies a change to one key atomically, so counters
+ * updated from several threads never lose an increment.
+ *
+ */
+public class ConcurrentSearchTreeMap<K extends Comparable<K>, V> {
+
+	ConcurrentSkipListMap<K,V> theMap = new ConcurrentSkipListMap<K,V>();
+
+	/**
+	 * Find the value the key is mapped to
+	 *
+	 * @param k -
+	 *            Search key
+	 * @return value k is mapped to, or null if there is no mapping for the key
+	 */
+	public V get(K k) {
+		return theMap.get(k);
+	}
+
+	/**
+	 * Update the mapping for the key
+	 *
+	 * @param k -
+	 *            key value
+	 * @param v -
+	 *            value the key should be bound to
+	 */
+	public void put(K k, V v) {
+		theMap.put(k, v);
+	}
+
+	/**
+	 * Atomically replace the value bound to a key with the result of the
+	 * function. The function is given the key and its current value (null if
+	 * the key is not bound). If the function returns null the binding is
+	 * removed. Under contention the function may be called more than once, so
+	 * it should not have side effects.
+	 *
+	 * @param k -
+	 *            key value
+	 * @param f -
+	 *            function computing the new value from the old one
+	 * @return the new value bound to k, or null if there is none
+	 */
+	public V update(K k, BiFunction<? super K, ? super V, ? extends V> f) {
+		return theMap.compute(k, f);
+	}
+
+	/**
+	 * Return number of keys bound by this map. While other threads are
+	 * writing, this is only an estimate.
+	 *
+	 * @return number of keys bound by this map
+	 */
+	public int size() {
+		return theMap.size();
+	}
+
+	/**
+	 * Remove any existing binding for a key
+	 *
+	 * @param k -
+	 *            key to be removed from the map
+	 */
+	public void remove(K k) {
+		theMap.remove(k);
+	}
+
+	/**
+	 * Return a Set of all the keys in the map
+	 *
+	 * @return Set of all the keys in the map
+	 */
+	public Set<K> keySet() {
+		return new HashSet<K>(theMap.keySet());
+	}
+
+	/**
+	 * Return the minimum key value in the map
+	 *
+	 * @return the minimum key value in the map
+	 * @throws NoSuchElementException if the map is empty
+	 */
+	public K getMin() {
+		return theMap.firstKey();
+	}
+
+	/**
+	 * Return the maximum key value in the map
+	 *
+	 * @return the maximum key value in the map
+	 * @throws NoSuchElementException if the map is empty
+	 */
+	public K getMax() {
+		return theMap.lastKey();
+	}
+
+	/**
+	 * Return a string representation of the map
+	 */
+	public String toString() {
+		return theMap.toString();
+	}
+
+	/**
+	 * Return list of keys in map in natural sorted order
+	 *
+	 * @return list of keys in map in sorted order
+	 */
+	public List<K> keyList() {
+		return new ArrayList<K>(theMap.keySet());
+	}
+
+	/**
+	 * Return a copy of the entries between the values fromKey-toKey.  It will
+	 * include fromKey and toKey if they are found in the original map.
+	 * You can assume than fromKey is less than or equal to toKey.
+	 *
+	 * @return ConcurrentSearchTreeMap consisting of subset of this map
+	 */
+	public ConcurrentSearchTreeMap<K, V> subMap(K fromKey, K toKey) {
+		ConcurrentSearchTreeMap<K,V> retMap = new ConcurrentSearchTreeMap<K,V>();
+		//copy the range so later changes to either map don't show up in the other
+		retMap.theMap.putAll(theMap.subMap(fromKey, true, toKey, true));
+		return retMap;
+	}
+
+}
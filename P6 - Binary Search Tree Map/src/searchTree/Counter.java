@@ -0,0 +1,45 @@
+package searchTree;
+
+/**
+ * A mutable int, meant to be used as a SearchTreeMap value when counting.
+ * Incrementing a Counter that is already in the map changes it in place,
+ * instead of boxing a new Integer and storing it back with put:
+ * 
+ * <pre>
+ * map.computeIfAbsent(word, k -&gt; new Counter()).increment();
+ * </pre>
+ */
+public class Counter {
+
+	private int count;
+
+	/**
+	 * Add one to the count
+	 */
+	public void increment() {
+		count++;
+	}
+
+	/**
+	 * Add an amount to the count
+	 * 
+	 * @param amount - how much to add
+	 */
+	public void add(int amount) {
+		count += amount;
+	}
+
+	/**
+	 * @return the current count
+	 */
+	public int get() {
+		return count;
+	}
+
+	/**
+	 * Return the count as a string
+	 */
+	public String toString() {
+		return Integer.toString(count);
+	}
+}
@@ -0,0 +1,837 @@
+package searchTree;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeSet;
+import java.util.zip.CRC32;
+
+/**
+ * This class provides the operations of SearchTreeMap on a B+tree stored in a
+ * file, so the map can be much larger than the heap and survives restarts
+ * without being rebuilt.
+ *
+ * <ul>
+ * <li>The file is split into 4 KB pages, and each tree node fills one page.
+ * Pages are read through memory mapped buffers, and only a bounded number of
+ * decoded nodes are cached on the heap.
+ * <li>Pages are never changed in place. put and remove copy each node on the
+ * path they change to a free page (copy-on-write), so the last committed tree
+ * stays untouched on disk.
+ * <li>commit() forces the new pages to disk and only then switches the root.
+ * Page 0 holds two header slots, each with a checksum, and a commit writes
+ * the one the current root is not in. If the machine crashes at any point,
+ * opening the file finds the newest valid header, which is the last complete
+ * commit.
+ * <li>Pages that a commit stops using are reused by later changes. A commit
+ * also writes the list of free pages to a chain of pages that are free in
+ * both the old and the new tree, and the header points at the chain, so the
+ * list is saved with the same copy-on-write guarantee as the tree.
+ * <li>Opening a file only reads the header and the free list, so it takes
+ * time in proportion to the free pages, not to how large the map is.
+ * </ul>
+ *
+ * Changes are only durable after commit() (or close()). To keep the heap
+ * bounded, commit() is also called automatically once more nodes have
+ * changed than the cache holds.
+ *
+ * An instance must not be used by several threads at once.
+ *
+ */
+public class DiskSearchTreeMap<K extends Comparable<K>, V> implements Closeable {
+
+	/**
+	 * Size of one page, and so of one tree node, in bytes
+	 */
+	public static final int PAGE_SIZE = 4096;
+
+	/**
+	 * Largest key plus value, in bytes, that fits in the map. Keeping entries
+	 * below a quarter of a page means a full node can always be split in two
+	 * halves that fit in a page each.
+	 */
+	public static final int MAX_ENTRY_SIZE = PAGE_SIZE / 4 - 16;
+
+	/**
+	 * Number of decoded nodes kept on the heap when no size is given
+	 */
+	public static final int DEFAULT_CACHE_PAGES = 4096;
+
+	private static final int MAGIC = 0x53544d32;
+	//files written before the free list was saved, whose header ends at the size
+	private static final int MAGIC_WITHOUT_FREE_LIST = 0x53544d31;
+	private static final int HEADER_SLOT_SIZE = PAGE_SIZE / 2;
+	private static final int HEADER_BYTES = 44;
+	private static final int HEADER_BYTES_WITHOUT_FREE_LIST = 36;
+	//a free list page holds the next page of the chain, a count and then the free pages
+	private static final int FREE_LIST_ENTRIES = (PAGE_SIZE - Long.BYTES - Integer.BYTES) / Long.BYTES;
+	private static final int SEGMENT_PAGES = 1 << 14;
+	private static final long SEGMENT_BYTES = (long) SEGMENT_PAGES * PAGE_SIZE;
+	private static final byte LEAF = 1;
+	private static final byte INNER = 2;
+
+	private final FileChannel channel;
+	private final Codec<K> keyCodec;
+	private final Codec<V> valueCodec;
+	private final int cachePages;
+	private final List<MappedByteBuffer> segments = new ArrayList<MappedByteBuffer>();
+
+	//state of the last commit, as written in the header
+	private long txn;
+	private long rootPage;
+	private long pageCount;
+	private long size;
+	//pages holding the saved free list, which can only be reused once a later commit replaces it
+	private final List<Long> freeListPages = new ArrayList<Long>();
+
+	//nodes changed since the last commit, by the page they will be written to
+	private final Map<Long, Node> dirty = new HashMap<Long, Node>();
+	//clean nodes read from the file, least recently used first
+	private final LinkedHashMap<Long, Node> cache;
+	//pages that can be written over now, and pages that can be once the next commit is done
+	private final ArrayDeque<Long> freePages = new ArrayDeque<Long>();
+	private final List<Long> pendingFree = new ArrayList<Long>();
+
+	/**
+	 * A tree node. Keys and values are kept both decoded, for comparing, and
+	 * encoded, for writing and measuring the node. An inner node has one more
+	 * child than it has keys.
+	 */
+	private final class Node {
+		long page;
+		boolean leaf;
+		boolean isDirty;
+		ArrayList<K> keys = new ArrayList<K>();
+		ArrayList<byte[]> keyBytes = new ArrayList<byte[]>();
+		ArrayList<V> values;
+		ArrayList<byte[]> valueBytes;
+		ArrayList<Long> children;
+
+		Node(long page, boolean leaf) {
+			this.page = page;
+			this.leaf = leaf;
+			if (leaf) {
+				values = new ArrayList<V>();
+				valueBytes = new ArrayList<byte[]>();
+			} else {
+				children = new ArrayList<Long>();
+			}
+		}
+
+		/**
+		 * @return number of bytes the node takes when written to its page
+		 */
+		int bytes() {
+			int bytes = 3;
+			for (byte[] key : keyBytes) {
+				bytes += 2 + key.length;
+			}
+			if (leaf) {
+				for (byte[] value : valueBytes) {
+					bytes += 2 + value.length;
+				}
+			} else {
+				bytes += Long.BYTES * children.size();
+			}
+			return bytes;
+		}
+	}
+
+	/**
+	 * What a node that overflowed was split into: the key that separates
+	 * the two halves, and the new right half
+	 */
+	private final class Split {
+		final K key;
+		final byte[] keyBytes;
+		final Node right;
+
+		Split(K key, byte[] keyBytes, Node right) {
+			this.key = key;
+			this.keyBytes = keyBytes;
+			this.right = right;
+		}
+	}
+
+	/**
+	 * Open the map stored in file, or create an empty one if the file doesn't
+	 * exist, caching DEFAULT_CACHE_PAGES nodes
+	 *
+	 * @param file - where the map is stored
+	 * @param keyCodec - converts keys to and from bytes
+	 * @param valueCodec - converts values to and from bytes
+	 * @throws IOException if the file can't be opened or isn't a map
+	 */
+	public DiskSearchTreeMap(Path file, Codec<K> keyCodec, Codec<V> valueCodec) throws IOException {
+		this(file, keyCodec, valueCodec, DEFAULT_CACHE_PAGES);
+	}
+
+	/**
+	 * Open the map stored in file, or create an empty one if the file doesn't
+	 * exist
+	 *
+	 * @param file - where the map is stored
+	 * @param keyCodec - converts keys to and from bytes
+	 * @param valueCodec - converts values to and from bytes
+	 * @param cachePages - how many decoded nodes to keep on the heap
+	 * @throws IOException if the file can't be opened or isn't a map
+	 */
+	public DiskSearchTreeMap(Path file, Codec<K> keyCodec, Codec<V> valueCodec, int cachePages)
+			throws IOException {
+		if (cachePages < 1) {
+			throw new IllegalArgumentException();
+		}
+		this.keyCodec = keyCodec;
+		this.valueCodec = valueCodec;
+		this.cachePages = cachePages;
+		this.cache = new LinkedHashMap<Long, Node>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			protected boolean removeEldestEntry(Map.Entry<Long, Node> eldest) {
+				return size() > DiskSearchTreeMap.this.cachePages;
+			}
+		};
+		channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		if (channel.size() == 0) {
+			//a new file: page 0 is the header and page 1 an empty leaf as the root
+			pageCount = 1;
+			Node root = new Node(allocatePage(), true);
+			root.isDirty = true;
+			dirty.put(root.page, root);
+			rootPage = root.page;
+			commit();
+		} else if (!readHeader()) {
+			channel.close();
+			throw new IOException(file + " is not a DiskSearchTreeMap file");
+		}
+	}
+
+	/**
+	 * Find the value the key is mapped to
+	 *
+	 * @param k - Search key
+	 * @return value k is mapped to, or null if there is no mapping for the key
+	 */
+	public V get(K k) {
+		Node node = load(rootPage);
+		while (!node.leaf) {
+			node = load(node.children.get(childIndex(node, k)));
+		}
+		int index = Collections.binarySearch(node.keys, k);
+		return index >= 0 ? node.values.get(index) : null;
+	}
+
+	/**
+	 * Update the mapping for the key
+	 *
+	 * @param k - key value
+	 * @param v - value the key should be bound to
+	 * @throws IllegalArgumentException if the encoded key and value together
+	 *             are larger than MAX_ENTRY_SIZE
+	 */
+	public void put(K k, V v) {
+		byte[] keyBytes = keyCodec.encode(k);
+		byte[] valueBytes = valueCodec.encode(v);
+		if (keyBytes.length + valueBytes.length > MAX_ENTRY_SIZE) {
+			throw new IllegalArgumentException();
+		}
+		Node root = writable(load(rootPage));
+		rootPage = root.page;
+		Split split = insert(root, k, keyBytes, v, valueBytes);
+		//the root was split, so the tree grows by one level
+		if (split != null) {
+			Node newRoot = newNode(false);
+			newRoot.keys.add(split.key);
+			newRoot.keyBytes.add(split.keyBytes);
+			newRoot.children.add(root.page);
+			newRoot.children.add(split.right.page);
+			rootPage = newRoot.page;
+		}
+		commitIfTooManyDirty();
+	}
+
+	/**
+	 * Remove any existing binding for a key
+	 *
+	 * @param k - key to be removed from the map
+	 */
+	public void remove(K k) {
+		//nothing is copied for a key that isn't there
+		if (get(k) == null) {
+			return;
+		}
+		Node root = writable(load(rootPage));
+		rootPage = root.page;
+		if (delete(root, k) && !root.leaf) {
+			discard(root);
+			rootPage = newNode(true).page;
+		}
+		//a root with a single child is replaced by that child
+		root = load(rootPage);
+		while (!root.leaf && root.keys.isEmpty()) {
+			discard(root);
+			rootPage = root.children.get(0);
+			root = load(rootPage);
+		}
+		commitIfTooManyDirty();
+	}
+
+	/**
+	 * Return number of keys bound by this map
+	 *
+	 * @return number of keys bound by this map
+	 */
+	public long size() {
+		return size;
+	}
+
+	/**
+	 * Return the minimum key value in the map
+	 *
+	 * @return the minimum key value in the map
+	 * @throws NoSuchElementException if the map is empty
+	 */
+	public K getMin() {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		Node node = load(rootPage);
+		while (!node.leaf) {
+			node = load(node.children.get(0));
+		}
+		return node.keys.get(0);
+	}
+
+	/**
+	 * Return the maximum key value in the map
+	 *
+	 * @return the maximum key value in the map
+	 * @throws NoSuchElementException if the map is empty
+	 */
+	public K getMax() {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		Node node = load(rootPage);
+		while (!node.leaf) {
+			node = load(node.children.get(node.children.size() - 1));
+		}
+		return node.keys.get(node.keys.size() - 1);
+	}
+
+	/**
+	 * Return list of keys in map in natural sorted order. This reads the
+	 * whole tree, so it is only practical for maps that fit in the heap.
+	 *
+	 * @return list of keys in map in sorted order
+	 */
+	public List<K> keyList() {
+		ArrayList<Map.Entry<K, V>> entries = new ArrayList<Map.Entry<K, V>>();
+		addRange(load(rootPage), null, null, entries);
+		ArrayList<K> keyList = new ArrayList<K>(entries.size());
+		for (Map.Entry<K, V> entry : entries) {
+			keyList.add(entry.getKey());
+		}
+		return keyList;
+	}
+
+	/**
+	 * Return the entries between the values fromKey-toKey as a SearchTreeMap
+	 * on the heap.  It will include fromKey and toKey if they are found in
+	 * this map. Only the pages that hold the range are read.
+	 * You can assume than fromKey is less than or equal to toKey.
+	 *
+	 * @return SearchTreeMap consisting of subset of this map
+	 */
+	public SearchTreeMap<K, V> subMap(K fromKey, K toKey) {
+		ArrayList<Map.Entry<K, V>> entries = new ArrayList<Map.Entry<K, V>>();
+		addRange(load(rootPage), fromKey, toKey, entries);
+		return SearchTreeMap.fromSorted(entries.iterator());
+	}
+
+	/**
+	 * Return number of pages in the file, whether they are used by the tree,
+	 * hold the free list or are free. Freed pages are reused before new ones
+	 * are added, so this only grows when the map needs more pages than it
+	 * has ever had.
+	 *
+	 * @return number of pages in the file
+	 */
+	public long pageCount() {
+		return pageCount;
+	}
+
+	/**
+	 * Make every change since the last commit durable. The changed nodes and
+	 * the new free list are written to free pages and forced to disk, and
+	 * then the header slot not holding the current root is pointed at the
+	 * new root and free list and forced as well.
+	 *
+	 * @throws UncheckedIOException if writing the file fails
+	 */
+	public void commit() {
+		if (dirty.isEmpty()) {
+			return;
+		}
+		TreeSet<Integer> touched = new TreeSet<Integer>();
+		for (Node node : dirty.values()) {
+			writeNode(node);
+			touched.add((int) (node.page / SEGMENT_PAGES));
+		}
+		//once the header is switched, the old copies and the old free list are free as well
+		ArrayList<Long> free = new ArrayList<Long>();
+		free.addAll(pendingFree);
+		free.addAll(freeListPages);
+		List<Long> chain = writeFreeList(free);
+		for (long page : chain) {
+			touched.add((int) (page / SEGMENT_PAGES));
+		}
+		for (int segment : touched) {
+			segments.get(segment).force();
+		}
+		//only now is it safe for the header to point at the new pages
+		txn++;
+		writeHeader(chain.isEmpty() ? 0 : chain.get(0));
+		segment(0).force();
+		for (Node node : dirty.values()) {
+			node.isDirty = false;
+			cache.put(node.page, node);
+		}
+		dirty.clear();
+		pendingFree.clear();
+		freePages.addAll(free);
+		freeListPages.clear();
+		freeListPages.addAll(chain);
+	}
+
+	/**
+	 * Commit any changes and close the file
+	 *
+	 * @throws IOException if the file can't be written or closed
+	 */
+	public void close() throws IOException {
+		try {
+			commit();
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		} finally {
+			channel.close();
+		}
+	}
+
+	private void commitIfTooManyDirty() {
+		if (dirty.size() > cachePages) {
+			commit();
+		}
+	}
+
+	private int childIndex(Node node, K key) {
+		int index = Collections.binarySearch(node.keys, key);
+		//a separator equal to the key is the first key of the child to its right
+		return index >= 0 ? index + 1 : -index - 1;
+	}
+
+	/**
+	 * Insert into the subtree rooted at node, which has already been made
+	 * writable
+	 *
+	 * @return null if node did not split, otherwise how it was split
+	 */
+	private Split insert(Node node, K key, byte[] keyBytes, V value, byte[] valueBytes) {
+		if (node.leaf) {
+			int index = Collections.binarySearch(node.keys, key);
+			if (index >= 0) {
+				node.values.set(index, value);
+				node.valueBytes.set(index, valueBytes);
+				return null;
+			}
+			index = -index - 1;
+			node.keys.add(index, key);
+			node.keyBytes.add(index, keyBytes);
+			node.values.add(index, value);
+			node.valueBytes.add(index, valueBytes);
+			size++;
+			return node.bytes() > PAGE_SIZE ? split(node) : null;
+		}
+		int index = childIndex(node, key);
+		Node child = writable(load(node.children.get(index)));
+		node.children.set(index, child.page);
+		Split split = insert(child, key, keyBytes, value, valueBytes);
+		if (split == null) {
+			return null;
+		}
+		node.keys.add(index, split.key);
+		node.keyBytes.add(index, split.keyBytes);
+		node.children.add(index + 1, split.right.page);
+		return node.bytes() > PAGE_SIZE ? split(node) : null;
+	}
+
+	/**
+	 * Move the upper half (by bytes) of an overflowing node into a new node
+	 */
+	private Split split(Node node) {
+		int total = node.bytes();
+		int bytes = 3;
+		int mid = 0;
+		//find the first entry past the middle of the node's bytes
+		while (mid < node.keys.size() - 1 && bytes < total / 2) {
+			bytes += 2 + node.keyBytes.get(mid).length
+					+ (node.leaf ? 2 + node.valueBytes.get(mid).length : Long.BYTES);
+			mid++;
+		}
+		if (mid == 0) {
+			mid = 1;
+		}
+		Node right = newNode(node.leaf);
+		if (node.leaf) {
+			moveTail(node.keys, right.keys, mid);
+			moveTail(node.keyBytes, right.keyBytes, mid);
+			moveTail(node.values, right.values, mid);
+			moveTail(node.valueBytes, right.valueBytes, mid);
+			return new Split(right.keys.get(0), right.keyBytes.get(0), right);
+		}
+		//the middle key moves up to the parent instead of staying in either half
+		K separator = node.keys.get(mid);
+		byte[] separatorBytes = node.keyBytes.get(mid);
+		moveTail(node.keys, right.keys, mid + 1);
+		moveTail(node.keyBytes, right.keyBytes, mid + 1);
+		moveTail(node.children, right.children, mid + 1);
+		node.keys.remove(mid);
+		node.keyBytes.remove(mid);
+		return new Split(separator, separatorBytes, right);
+	}
+
+	private static <T> void moveTail(List<T> from, List<T> to, int start) {
+		List<T> tail = from.subList(start, from.size());
+		to.addAll(tail);
+		tail.clear();
+	}
+
+	/**
+	 * Delete from the subtree rooted at node, which has already been made
+	 * writable. As in BTree, nodes are only unlinked once they are empty.
+	 *
+	 * @return true if node has no entries left
+	 */
+	private boolean delete(Node node, K key) {
+		if (node.leaf) {
+			int index = Collections.binarySearch(node.keys, key);
+			if (index < 0) {
+				return false;
+			}
+			node.keys.remove(index);
+			node.keyBytes.remove(index);
+			node.values.remove(index);
+			node.valueBytes.remove(index);
+			size--;
+			return node.keys.isEmpty();
+		}
+		int index = childIndex(node, key);
+		Node child = writable(load(node.children.get(index)));
+		node.children.set(index, child.page);
+		if (!delete(child, key)) {
+			return false;
+		}
+		discard(child);
+		node.children.remove(index);
+		//the only child is gone so this node is empty as well
+		if (node.keys.isEmpty()) {
+			return true;
+		}
+		int keyIndex = index > 0 ? index - 1 : 0;
+		node.keys.remove(keyIndex);
+		node.keyBytes.remove(keyIndex);
+		return false;
+	}
+
+	/**
+	 * Return a version of node that may be changed: node itself if it was
+	 * already changed since the last commit, otherwise a copy on a new page
+	 */
+	private Node writable(Node node) {
+		if (node.isDirty) {
+			return node;
+		}
+		Node copy = newNode(node.leaf);
+		copy.keys.addAll(node.keys);
+		copy.keyBytes.addAll(node.keyBytes);
+		if (node.leaf) {
+			copy.values.addAll(node.values);
+			copy.valueBytes.addAll(node.valueBytes);
+		} else {
+			copy.children.addAll(node.children);
+		}
+		//the committed tree still uses the old page until the next commit
+		pendingFree.add(node.page);
+		return copy;
+	}
+
+	private Node newNode(boolean leaf) {
+		Node node = new Node(allocatePage(), leaf);
+		node.isDirty = true;
+		dirty.put(node.page, node);
+		return node;
+	}
+
+	/**
+	 * Give up a node that is no longer part of the tree
+	 */
+	private void discard(Node node) {
+		if (node.isDirty) {
+			//never committed, so its page can be reused right away
+			dirty.remove(node.page);
+			freePages.add(node.page);
+		} else {
+			pendingFree.add(node.page);
+		}
+	}
+
+	private long allocatePage() {
+		if (!freePages.isEmpty()) {
+			long page = freePages.poll();
+			cache.remove(page);
+			return page;
+		}
+		return pageCount++;
+	}
+
+	/**
+	 * Add the entries of the subtree with keys in [fromKey, toKey] to
+	 * entries, in order. A null bound means there is no bound on that side.
+	 */
+	private void addRange(Node node, K fromKey, K toKey, List<Map.Entry<K, V>> entries) {
+		if (node.leaf) {
+			for (int i = 0; i < node.keys.size(); i++) {
+				K key = node.keys.get(i);
+				if ((fromKey == null || key.compareTo(fromKey) >= 0) && (toKey == null || key.compareTo(toKey) <= 0)) {
+					entries.add(new AbstractMap.SimpleImmutableEntry<K, V>(key, node.values.get(i)));
+				}
+			}
+			return;
+		}
+		int first = fromKey == null ? 0 : childIndex(node, fromKey);
+		int last = toKey == null ? node.children.size() - 1 : childIndex(node, toKey);
+		for (int i = first; i <= last; i++) {
+			addRange(load(node.children.get(i)), fromKey, toKey, entries);
+		}
+	}
+
+	/**
+	 * Return the node stored in page, from the changed nodes, the cache, or
+	 * by decoding the mapped page
+	 */
+	private Node load(long page) {
+		Node node = dirty.get(page);
+		if (node == null) {
+			node = cache.get(page);
+		}
+		if (node == null) {
+			node = readNode(page);
+			cache.put(page, node);
+		}
+		return node;
+	}
+
+	private Node readNode(long page) {
+		MappedByteBuffer buffer = segment(page / SEGMENT_PAGES);
+		int offset = (int) (page % SEGMENT_PAGES) * PAGE_SIZE;
+		Node node = new Node(page, buffer.get(offset) == LEAF);
+		int count = buffer.getShort(offset + 1);
+		int position = offset + 3;
+		if (!node.leaf) {
+			node.children.add(buffer.getLong(position));
+			position += Long.BYTES;
+		}
+		for (int i = 0; i < count; i++) {
+			byte[] keyBytes = new byte[buffer.getShort(position)];
+			buffer.get(position + 2, keyBytes);
+			position += 2 + keyBytes.length;
+			node.keys.add(keyCodec.decode(keyBytes));
+			node.keyBytes.add(keyBytes);
+			if (node.leaf) {
+				byte[] valueBytes = new byte[buffer.getShort(position)];
+				buffer.get(position + 2, valueBytes);
+				position += 2 + valueBytes.length;
+				node.values.add(valueCodec.decode(valueBytes));
+				node.valueBytes.add(valueBytes);
+			} else {
+				node.children.add(buffer.getLong(position));
+				position += Long.BYTES;
+			}
+		}
+		return node;
+	}
+
+	private void writeNode(Node node) {
+		MappedByteBuffer buffer = segment(node.page / SEGMENT_PAGES);
+		int offset = (int) (node.page % SEGMENT_PAGES) * PAGE_SIZE;
+		buffer.put(offset, node.leaf ? LEAF : INNER);
+		buffer.putShort(offset + 1, (short) node.keys.size());
+		int position = offset + 3;
+		if (!node.leaf) {
+			buffer.putLong(position, node.children.get(0));
+			position += Long.BYTES;
+		}
+		for (int i = 0; i < node.keys.size(); i++) {
+			byte[] keyBytes = node.keyBytes.get(i);
+			buffer.putShort(position, (short) keyBytes.length);
+			buffer.put(position + 2, keyBytes);
+			position += 2 + keyBytes.length;
+			if (node.leaf) {
+				byte[] valueBytes = node.valueBytes.get(i);
+				buffer.putShort(position, (short) valueBytes.length);
+				buffer.put(position + 2, valueBytes);
+				position += 2 + valueBytes.length;
+			} else {
+				buffer.putLong(position, node.children.get(i + 1));
+				position += Long.BYTES;
+			}
+		}
+	}
+
+	/**
+	 * Write the free pages, plus the ones taken from freePages to hold them,
+	 * to a chain of pages. The chain is taken from freePages (or the end of
+	 * the file), whose pages are free in the committed tree and its free
+	 * list as well as in the new ones, so the last commit stays intact.
+	 *
+	 * Free list page layout: next page of the chain (0 at the end), count,
+	 * then count free pages
+	 *
+	 * @param free - pages that become free with this commit; the pages left
+	 *            in freePages are moved to it
+	 * @return the pages of the chain, first page first
+	 */
+	private List<Long> writeFreeList(List<Long> free) {
+		ArrayList<Long> chain = new ArrayList<Long>();
+		//every page taken for the chain is one entry fewer to store
+		while ((long) chain.size() * FREE_LIST_ENTRIES < free.size() + freePages.size()) {
+			chain.add(allocatePage());
+		}
+		free.addAll(freePages);
+		freePages.clear();
+		int next = 0;
+		for (int i = 0; i < chain.size(); i++) {
+			long page = chain.get(i);
+			MappedByteBuffer buffer = segment(page / SEGMENT_PAGES);
+			int offset = (int) (page % SEGMENT_PAGES) * PAGE_SIZE;
+			int count = Math.min(FREE_LIST_ENTRIES, free.size() - next);
+			buffer.putLong(offset, i + 1 < chain.size() ? chain.get(i + 1) : 0);
+			buffer.putInt(offset + Long.BYTES, count);
+			int position = offset + Long.BYTES + Integer.BYTES;
+			for (int j = 0; j < count; j++) {
+				buffer.putLong(position, free.get(next++));
+				position += Long.BYTES;
+			}
+		}
+		return chain;
+	}
+
+	/**
+	 * Load the free list saved by the last commit, starting at page
+	 */
+	private void readFreeList(long page) {
+		while (page != 0) {
+			freeListPages.add(page);
+			MappedByteBuffer buffer = segment(page / SEGMENT_PAGES);
+			int offset = (int) (page % SEGMENT_PAGES) * PAGE_SIZE;
+			int count = buffer.getInt(offset + Long.BYTES);
+			int position = offset + Long.BYTES + Integer.BYTES;
+			for (int i = 0; i < count; i++) {
+				freePages.add(buffer.getLong(position));
+				position += Long.BYTES;
+			}
+			page = buffer.getLong(offset);
+		}
+	}
+
+	/**
+	 * Header slot layout: magic, txn, root page, page count, size, first page
+	 * of the free list (0 if it is empty), checksum of the first HEADER_BYTES
+	 * bytes
+	 */
+	private void writeHeader(long freeListPage) {
+		MappedByteBuffer buffer = segment(0);
+		int offset = (int) (txn % 2) * HEADER_SLOT_SIZE;
+		buffer.putInt(offset, MAGIC);
+		buffer.putLong(offset + 4, txn);
+		buffer.putLong(offset + 12, rootPage);
+		buffer.putLong(offset + 20, pageCount);
+		buffer.putLong(offset + 28, size);
+		buffer.putLong(offset + 36, freeListPage);
+		buffer.putLong(offset + HEADER_BYTES, checksum(buffer, offset, HEADER_BYTES));
+	}
+
+	/**
+	 * Load the state of the newest header slot with a valid checksum, and the
+	 * free list it points at. Slots written before the free list was saved
+	 * are read with an empty free list.
+	 *
+	 * @return false if neither slot is valid
+	 */
+	private boolean readHeader() {
+		MappedByteBuffer buffer = segment(0);
+		boolean found = false;
+		long freeListPage = 0;
+		for (int slot = 0; slot < 2; slot++) {
+			int offset = slot * HEADER_SLOT_SIZE;
+			int magic = buffer.getInt(offset);
+			int bytes = magic == MAGIC ? HEADER_BYTES : HEADER_BYTES_WITHOUT_FREE_LIST;
+			if ((magic != MAGIC && magic != MAGIC_WITHOUT_FREE_LIST)
+					|| buffer.getLong(offset + bytes) != checksum(buffer, offset, bytes)) {
+				continue;
+			}
+			long slotTxn = buffer.getLong(offset + 4);
+			if (!found || slotTxn > txn) {
+				found = true;
+				txn = slotTxn;
+				rootPage = buffer.getLong(offset + 12);
+				pageCount = buffer.getLong(offset + 20);
+				size = buffer.getLong(offset + 28);
+				freeListPage = magic == MAGIC ? buffer.getLong(offset + 36) : 0;
+			}
+		}
+		if (found) {
+			readFreeList(freeListPage);
+		}
+		return found;
+	}
+
+	private static long checksum(MappedByteBuffer buffer, int offset, int bytes) {
+		byte[] header = new byte[bytes];
+		buffer.get(offset, header);
+		CRC32 crc = new CRC32();
+		crc.update(header);
+		return crc.getValue();
+	}
+
+	/**
+	 * Return the mapped buffer for a segment of the file, mapping it (and
+	 * growing the file) the first time it is used
+	 */
+	private MappedByteBuffer segment(long index) {
+		try {
+			while (segments.size() <= index) {
+				segments.add(channel.map(FileChannel.MapMode.READ_WRITE, segments.size() * SEGMENT_BYTES,
+						SEGMENT_BYTES));
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return segments.get((int) index);
+	}
+}
@@ -1,6 +1,8 @@
 package searchTree;
 
 import java.util.Collection;
+import java.util.Map;
+import java.util.function.BiFunction;
 
 /**
  * This class is used to represent the empty search tree: a search tree that
@@ -52,6 +54,17 @@ import java.util.Collection;
 	public Tree<K, V> delete(K key) {
 		return this;
 	}
+	/**
+	 * The key isn't in the tree, so the function is given null and a new leaf is added here unless it
+	 * returns null
+	 */
+	public Tree<K, V> compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+		V value = remappingFunction.apply(key, null);
+		if (value == null) {
+			return this;
+		}
+		return new NonEmptyTree<K,V>(key, value, this, this);
+	}
 	/**
 	 * Throws the exception if gone past the max, no more further to go
 	 */
@@ -76,6 +89,11 @@ import java.util.Collection;
 	 */
 	public void addKeysToCollection(Collection<K> c) {
 	}
+	/**
+	 * no operation since there are no entries at the end of the tree
+	 */
+	public void addEntriesToCollection(Collection<Map.Entry<K,V>> c) {
+	}
 	/**
 	 * returns the singleton to signify the end of tree 
 	 */
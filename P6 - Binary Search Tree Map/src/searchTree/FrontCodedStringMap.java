@@ -0,0 +1,368 @@
+package searchTree;
+
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * This class is a read-only map from Strings, made from a SearchTreeMap,
+ * that stores its keys front coded to take as little memory as possible.
+ *
+ * The keys are kept in sorted order as UTF-8 in one byte array (the arena),
+ * in blocks of BLOCK_SIZE keys. The first key of a block, its head, is stored
+ * whole. Every other key only stores how many of its first bytes are the same
+ * as the key before it, followed by the rest of its bytes. Neighbouring words
+ * of a vocabulary share most of their letters, so a key takes little more
+ * than a few bytes, where a NonEmptyTree node and its String take over 60.
+ *
+ * A lookup binary searches the block heads, which need no decoding, and
+ * then decodes the keys of one block in order.
+ *
+ * Keys are sorted by their UTF-8 bytes, which is the order of
+ * String.compareTo except for characters above U+FFFF: String.compareTo puts
+ * them before U+E000 to U+FFFF, and here they come after.
+ *
+ */
+public final class FrontCodedStringMap<V> implements Iterable<Map.Entry<String, V>> {
+
+	/**
+	 * Number of keys in a block
+	 */
+	public static final int BLOCK_SIZE = 16;
+
+	private final byte[] arena;
+	//where block i starts in the arena
+	private final int[] blockOffsets;
+	private final Object[] values;
+	private final int size;
+	//length of the longest key, so one buffer can hold any decoded key
+	private final int maxKeyLength;
+
+	/**
+	 * Make a front coded copy of a map
+	 *
+	 * @param map - map to copy
+	 * @return FrontCodedStringMap with the entries of map
+	 */
+	public static <V> FrontCodedStringMap<V> of(SearchTreeMap<String, V> map) {
+		return new FrontCodedStringMap<V>(map.entryList());
+	}
+
+	/**
+	 * Front code entries whose keys are all different
+	 *
+	 * @param entries - entries sorted by key
+	 */
+	FrontCodedStringMap(List<Map.Entry<String, V>> entries) {
+		size = entries.size();
+		byte[][] keys = new byte[size][];
+		for (int i = 0; i < size; i++) {
+			keys[i] = entries.get(i).getKey().getBytes(StandardCharsets.UTF_8);
+		}
+		Integer[] order = new Integer[size];
+		for (int i = 0; i < size; i++) {
+			order[i] = i;
+		}
+		//String order only differs from byte order for characters above U+FFFF
+		Arrays.sort(order, (a, b) -> Arrays.compareUnsigned(keys[a], keys[b]));
+		values = new Object[size];
+		blockOffsets = new int[(size + BLOCK_SIZE - 1) / BLOCK_SIZE];
+		ArenaWriter out = new ArenaWriter();
+		int longest = 0;
+		byte[] previous = new byte[0];
+		for (int i = 0; i < size; i++) {
+			byte[] key = keys[order[i]];
+			values[i] = entries.get(order[i]).getValue();
+			longest = Math.max(longest, key.length);
+			int shared = 0;
+			if (i % BLOCK_SIZE == 0) {
+				blockOffsets[i / BLOCK_SIZE] = out.size;
+			} else {
+				shared = Arrays.mismatch(previous, key);
+				if (shared < 0) {
+					shared = key.length;
+				}
+			}
+			out.writeVarint(shared);
+			out.writeVarint(key.length - shared);
+			out.write(key, shared, key.length - shared);
+			previous = key;
+		}
+		arena = Arrays.copyOf(out.bytes, out.size);
+		maxKeyLength = longest;
+	}
+
+	/**
+	 * Find the value the key is mapped to
+	 *
+	 * @param k - Search key
+	 * @return value k is mapped to, or null if there is no mapping for the key
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(String k) {
+		byte[] key = k.getBytes(StandardCharsets.UTF_8);
+		Cursor cursor = lowerBound(key);
+		if (cursor != null && cursor.compareTo(key) == 0) {
+			return (V) values[cursor.index];
+		}
+		return null;
+	}
+
+	/**
+	 * Return number of keys bound by this map
+	 *
+	 * @return number of keys bound by this map
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Return the minimum key value in the map
+	 *
+	 * @return the minimum key value in the map
+	 * @throws NoSuchElementException if the map is empty
+	 */
+	public String getMin() {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		return new Cursor(0).key();
+	}
+
+	/**
+	 * Return the maximum key value in the map
+	 *
+	 * @return the maximum key value in the map
+	 * @throws NoSuchElementException if the map is empty
+	 */
+	public String getMax() {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		return new Cursor(size - 1).key();
+	}
+
+	/**
+	 * Return list of keys in map in sorted order
+	 *
+	 * @return list of keys in map in sorted order
+	 */
+	public List<String> keyList() {
+		ArrayList<String> keyList = new ArrayList<String>(size);
+		if (size > 0) {
+			Cursor cursor = new Cursor(0);
+			keyList.add(cursor.key());
+			while (cursor.next()) {
+				keyList.add(cursor.key());
+			}
+		}
+		return keyList;
+	}
+
+	/**
+	 * Return subset of the map between the values fromKey-toKey.  It will
+	 * include fromKey and toKey if they are found in the original map.
+	 * The values for fromKey and toKey do not actually need to be in the map.
+	 * You can assume than fromKey is less than or equal to toKey.
+	 *
+	 * @return FrontCodedStringMap consisting of subset of this map
+	 */
+	@SuppressWarnings("unchecked")
+	public FrontCodedStringMap<V> subMap(String fromKey, String toKey) {
+		byte[] to = toKey.getBytes(StandardCharsets.UTF_8);
+		ArrayList<Map.Entry<String, V>> range = new ArrayList<Map.Entry<String, V>>();
+		Cursor cursor = lowerBound(fromKey.getBytes(StandardCharsets.UTF_8));
+		if (cursor != null) {
+			do {
+				if (cursor.compareTo(to) > 0) {
+					break;
+				}
+				range.add(new AbstractMap.SimpleImmutableEntry<String, V>(cursor.key(), (V) values[cursor.index]));
+			} while (cursor.next());
+		}
+		return new FrontCodedStringMap<V>(range);
+	}
+
+	/**
+	 * Return the entries of the map in sorted order of their keys
+	 */
+	public Iterator<Map.Entry<String, V>> iterator() {
+		return new Iterator<Map.Entry<String, V>>() {
+			private Cursor cursor;
+
+			public boolean hasNext() {
+				return cursor == null ? size > 0 : cursor.index < size - 1;
+			}
+
+			@SuppressWarnings("unchecked")
+			public Map.Entry<String, V> next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				if (cursor == null) {
+					cursor = new Cursor(0);
+				} else {
+					cursor.next();
+				}
+				return new AbstractMap.SimpleImmutableEntry<String, V>(cursor.key(), (V) values[cursor.index]);
+			}
+		};
+	}
+
+	/**
+	 * @return number of bytes used to store the keys: the arena and the
+	 *         block offsets
+	 */
+	public long keyBytes() {
+		return arena.length + (long) Integer.BYTES * blockOffsets.length;
+	}
+
+	/**
+	 * Return a string representation of the map
+	 */
+	public String toString() {
+		return keyList().toString();
+	}
+
+	/**
+	 * Return a cursor on the first key that is at least key, or null if
+	 * there is none
+	 */
+	private Cursor lowerBound(byte[] key) {
+		//find the last block whose head is at most key
+		int low = 0, high = blockOffsets.length - 1, block = 0;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			if (compareHead(mid, key) <= 0) {
+				block = mid;
+				low = mid + 1;
+			} else {
+				high = mid - 1;
+			}
+		}
+		if (size == 0) {
+			return null;
+		}
+		Cursor cursor = new Cursor(block * BLOCK_SIZE);
+		while (cursor.compareTo(key) < 0) {
+			if (!cursor.next()) {
+				return null;
+			}
+		}
+		return cursor;
+	}
+
+	/**
+	 * Compare the head of a block with key without decoding it: a head shares
+	 * nothing, so its bytes follow its two length varints
+	 */
+	private int compareHead(int block, byte[] key) {
+		int position = blockOffsets[block] + 1;
+		int length = 0;
+		int shift = 0;
+		byte b;
+		do {
+			b = arena[position++];
+			length |= (b & 0x7f) << shift;
+			shift += 7;
+		} while (b < 0);
+		return Arrays.compareUnsigned(arena, position, position + length, key, 0, key.length);
+	}
+
+	/**
+	 * Decodes the keys one after another, starting at any index
+	 */
+	private final class Cursor {
+		int index;
+		//position of the next key in the arena
+		int position;
+		final byte[] key = new byte[maxKeyLength];
+		int length;
+
+		/**
+		 * Decode from the head of index's block up to index, which must be
+		 * less than size
+		 */
+		Cursor(int index) {
+			int block = index / BLOCK_SIZE;
+			this.index = block * BLOCK_SIZE - 1;
+			position = blockOffsets[block];
+			while (this.index < index) {
+				next();
+			}
+		}
+
+		/**
+		 * Move to the next key
+		 *
+		 * @return false if there was no next key
+		 */
+		boolean next() {
+			if (index + 1 >= size) {
+				return false;
+			}
+			int shared = readVarint();
+			int suffix = readVarint();
+			System.arraycopy(arena, position, key, shared, suffix);
+			position += suffix;
+			length = shared + suffix;
+			index++;
+			return true;
+		}
+
+		int compareTo(byte[] other) {
+			return Arrays.compareUnsigned(key, 0, length, other, 0, other.length);
+		}
+
+		String key() {
+			return new String(key, 0, length, StandardCharsets.UTF_8);
+		}
+
+		private int readVarint() {
+			int value = 0;
+			int shift = 0;
+			byte b;
+			do {
+				b = arena[position++];
+				value |= (b & 0x7f) << shift;
+				shift += 7;
+			} while (b < 0);
+			return value;
+		}
+	}
+
+	/**
+	 * A growing byte array that the arena is written to
+	 */
+	private static final class ArenaWriter {
+		byte[] bytes = new byte[256];
+		int size;
+
+		void writeVarint(int value) {
+			while ((value & ~0x7f) != 0) {
+				write((byte) ((value & 0x7f) | 0x80));
+				value >>>= 7;
+			}
+			write((byte) value);
+		}
+
+		void write(byte[] source, int from, int length) {
+			for (int i = 0; i < length; i++) {
+				write(source[from + i]);
+			}
+		}
+
+		private void write(byte b) {
+			if (size == bytes.length) {
+				bytes = Arrays.copyOf(bytes, size * 2);
+			}
+			bytes[size++] = b;
+		}
+	}
+}
@@ -0,0 +1,213 @@
+package searchTree;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * This class is a read-only copy of a SearchTreeMap, made by
+ * SearchTreeMap.freeze(). Instead of NonEmptyTree objects it keeps two
+ * parallel arrays of keys and values laid out in Eytzinger (breadth first)
+ * order: the root is at index 1 and the children of index i are at 2i and
+ * 2i + 1.
+ *
+ * A search is then only index arithmetic over one array: there are no node
+ * objects to follow, the first levels of every search share the same few
+ * cache lines at the front of the array, and the next index is computed from
+ * the comparison instead of branching on it. The two arrays cost two
+ * references per entry, a fraction of a node object with its header and four
+ * fields.
+ *
+ * The map can't change after it is built, so it can be shared between
+ * threads without any locking.
+ *
+ * It holds at most MAX_SIZE entries, as many as fit in one array. Child
+ * indexes go past Integer.MAX_VALUE once there are more than 2^30 - 1
+ * entries, so they are computed as longs and only index the arrays once
+ * they are known to be at most size.
+ *
+ */
+public final class FrozenSearchTreeMap<K extends Comparable<K>, V> {
+
+	/**
+	 * The most entries a map can hold: the arrays have one more slot than
+	 * that, and JVMs refuse arrays within a few slots of Integer.MAX_VALUE
+	 */
+	public static final int MAX_SIZE = Integer.MAX_VALUE - 9;
+
+	//index 0 is unused so the children of i are always 2i and 2i + 1
+	private final Object[] keys;
+	private final Object[] values;
+	private final int size;
+
+	/**
+	 * Lay out entries that are sorted by key in Eytzinger order
+	 *
+	 * @param entries - entries in strictly increasing order of their keys
+	 * @throws IllegalArgumentException if there are more than MAX_SIZE entries
+	 */
+	FrozenSearchTreeMap(List<Map.Entry<K, V>> entries) {
+		if (entries.size() > MAX_SIZE) {
+			throw new IllegalArgumentException("more than " + MAX_SIZE + " entries");
+		}
+		size = entries.size();
+		keys = new Object[size + 1];
+		values = new Object[size + 1];
+		fill(entries, 0, 1);
+	}
+
+	/**
+	 * An in order walk of the implicit tree visits indexes in sorted order, so
+	 * the sorted entries are handed out in that walk
+	 *
+	 * @return how many entries have been placed after this subtree
+	 */
+	private int fill(List<Map.Entry<K, V>> entries, int next, long index) {
+		if (index <= size) {
+			next = fill(entries, next, 2 * index);
+			Map.Entry<K, V> entry = entries.get(next++);
+			keys[(int) index] = entry.getKey();
+			values[(int) index] = entry.getValue();
+			next = fill(entries, next, 2 * index + 1);
+		}
+		return next;
+	}
+
+	/**
+	 * Find the value the key is mapped to
+	 *
+	 * @param k - Search key
+	 * @return value k is mapped to, or null if there is no mapping for the key
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(K k) {
+		int index = lowerBound(k);
+		if (index != 0 && ((K) keys[index]).compareTo(k) == 0) {
+			return (V) values[index];
+		}
+		return null;
+	}
+
+	/**
+	 * Return number of keys bound by this map
+	 *
+	 * @return number of keys bound by this map
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Return the minimum key value in the map
+	 *
+	 * @return the minimum key value in the map
+	 * @throws NoSuchElementException if the map is empty
+	 */
+	@SuppressWarnings("unchecked")
+	public K getMin() {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		long index = 1;
+		while (2 * index <= size) {
+			index = 2 * index;
+		}
+		return (K) keys[(int) index];
+	}
+
+	/**
+	 * Return the maximum key value in the map
+	 *
+	 * @return the maximum key value in the map
+	 * @throws NoSuchElementException if the map is empty
+	 */
+	@SuppressWarnings("unchecked")
+	public K getMax() {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		long index = 1;
+		while (2 * index + 1 <= size) {
+			index = 2 * index + 1;
+		}
+		return (K) keys[(int) index];
+	}
+
+	/**
+	 * Return list of keys in map in natural sorted order
+	 *
+	 * @return list of keys in map in sorted order
+	 */
+	public List<K> keyList() {
+		ArrayList<K> keyList = new ArrayList<K>(size);
+		addKeys(1, keyList);
+		return keyList;
+	}
+
+	/**
+	 * Return subset of the map between the values fromKey-toKey.  It will
+	 * include fromKey and toKey if they are found in the original map.
+	 * The values for fromKey and toKey do not actually need to be in the map.
+	 * You can assume than fromKey is less than or equal to toKey.
+	 *
+	 * @return FrozenSearchTreeMap consisting of subset of this map
+	 */
+	public FrozenSearchTreeMap<K, V> subMap(K fromKey, K toKey) {
+		ArrayList<Map.Entry<K, V>> range = new ArrayList<Map.Entry<K, V>>();
+		addRange(1, fromKey, toKey, range);
+		return new FrozenSearchTreeMap<K, V>(range);
+	}
+
+	/**
+	 * Return a string representation of the map
+	 */
+	public String toString() {
+		return keyList().toString();
+	}
+
+	/**
+	 * Index of the smallest key that is at least k, or 0 if there is none.
+	 *
+	 * Going right whenever the key at index is less than k ends below the
+	 * leaves. The index of the lower bound is where the path last went left,
+	 * which is found by dropping the trailing right turns (one bits) and the
+	 * left turn before them. The path ends at an index up to 2 * size + 1, so
+	 * it is followed as a long.
+	 */
+	@SuppressWarnings("unchecked")
+	private int lowerBound(K k) {
+		long index = 1;
+		while (index <= size) {
+			index = 2 * index + (((K) keys[(int) index]).compareTo(k) < 0 ? 1 : 0);
+		}
+		return (int) (index >>> (Long.numberOfTrailingZeros(~index) + 1));
+	}
+
+	@SuppressWarnings("unchecked")
+	private void addKeys(long index, List<K> keyList) {
+		if (index <= size) {
+			addKeys(2 * index, keyList);
+			keyList.add((K) keys[(int) index]);
+			addKeys(2 * index + 1, keyList);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void addRange(long index, K fromKey, K toKey, List<Map.Entry<K, V>> range) {
+		if (index > size) {
+			return;
+		}
+		K key = (K) keys[(int) index];
+		if (key.compareTo(fromKey) > 0) {
+			addRange(2 * index, fromKey, toKey, range);
+		}
+		if (key.compareTo(fromKey) >= 0 && key.compareTo(toKey) <= 0) {
+			range.add(new AbstractMap.SimpleImmutableEntry<K, V>(key, (V) values[(int) index]));
+		}
+		if (key.compareTo(toKey) < 0) {
+			addRange(2 * index + 1, fromKey, toKey, range);
+		}
+	}
+}
@@ -0,0 +1,236 @@
+package searchTree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * This class provides the operations of SearchTreeMap for int keys. The keys
+ * are stored in int fields and compared with &lt; and &gt;, so get, put and
+ * remove never box a key or call compareTo.
+ *
+ * The tree is kept balanced (AVL), so keys that arrive in increasing order,
+ * like timestamps or IDs, still give a tree of O(log n) depth. The
+ * balancing is in AvlNode, shared with LongSearchTreeMap and
+ * AggregateSearchTreeMap.
+ *
+ */
+public class IntSearchTreeMap<V> {
+
+	private Node<V> root;
+	private int size;
+
+	/**
+	 * A node of the tree, holding its key as an int
+	 */
+	private static final class Node<V> extends AvlNode<Node<V>> {
+		int key;
+		V value;
+
+		Node(int key, V value) {
+			this.key = key;
+			this.value = value;
+		}
+	}
+
+	/**
+	 * Find the value the key is mapped to
+	 *
+	 * @param k - Search key
+	 * @return value k is mapped to, or null if there is no mapping for the key
+	 */
+	public V get(int k) {
+		Node<V> node = root;
+		while (node != null) {
+			if (k < node.key) {
+				node = node.left;
+			} else if (k > node.key) {
+				node = node.right;
+			} else {
+				return node.value;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Update the mapping for the key
+	 *
+	 * @param k - key value
+	 * @param v - value the key should be bound to
+	 */
+	public void put(int k, V v) {
+		root = insert(root, k, v);
+	}
+
+	/**
+	 * Return number of keys bound by this map
+	 *
+	 * @return number of keys bound by this map
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Remove any existing binding for a key
+	 *
+	 * @param k - key to be removed from the map
+	 */
+	public void remove(int k) {
+		root = delete(root, k);
+	}
+
+	/**
+	 * Return the minimum key value in the map
+	 *
+	 * @return the minimum key value in the map
+	 * @throws NoSuchElementException if the map is empty
+	 */
+	public int getMin() {
+		if (root == null) {
+			throw new NoSuchElementException();
+		}
+		return AvlNode.first(root).key;
+	}
+
+	/**
+	 * Return the maximum key value in the map
+	 *
+	 * @return the maximum key value in the map
+	 * @throws NoSuchElementException if the map is empty
+	 */
+	public int getMax() {
+		if (root == null) {
+			throw new NoSuchElementException();
+		}
+		return AvlNode.last(root).key;
+	}
+
+	/**
+	 * Return the keys in map in natural sorted order, without boxing them
+	 *
+	 * @return array of keys in map in sorted order
+	 */
+	public int[] keyArray() {
+		int[] keys = new int[size];
+		addKeys(root, keys, 0);
+		return keys;
+	}
+
+	/**
+	 * Return list of keys in map in natural sorted order
+	 *
+	 * @return list of keys in map in sorted order
+	 */
+	public List<Integer> keyList() {
+		ArrayList<Integer> keyList = new ArrayList<Integer>(size);
+		for (int key : keyArray()) {
+			keyList.add(key);
+		}
+		return keyList;
+	}
+
+	/**
+	 * Return subset of the map between the values fromKey-toKey.  It will
+	 * include fromKey and toKey if they are found in the original map.
+	 * The values for fromKey and toKey do not actually need to be in the map.
+	 * You can assume than fromKey is less than or equal to toKey.
+	 *
+	 * @return IntSearchTreeMap consisting of subset of this map
+	 */
+	public IntSearchTreeMap<V> subMap(int fromKey, int toKey) {
+		//collect the range in order, then build a balanced tree from it
+		ArrayList<Node<V>> range = new ArrayList<Node<V>>();
+		addRange(root, fromKey, toKey, range);
+		IntSearchTreeMap<V> retMap = new IntSearchTreeMap<V>();
+		retMap.root = build(range, 0, range.size());
+		retMap.size = range.size();
+		return retMap;
+	}
+
+	/**
+	 * Return a string representation of the map
+	 */
+	public String toString() {
+		return Arrays.toString(keyArray());
+	}
+
+	private Node<V> insert(Node<V> node, int key, V value) {
+		if (node == null) {
+			size++;
+			return new Node<V>(key, value);
+		}
+		if (key < node.key) {
+			node.left = insert(node.left, key, value);
+		} else if (key > node.key) {
+			node.right = insert(node.right, key, value);
+		} else {
+			node.value = value;
+			return node;
+		}
+		return AvlNode.balance(node);
+	}
+
+	private Node<V> delete(Node<V> node, int key) {
+		if (node == null) {
+			return null;
+		}
+		if (key < node.key) {
+			node.left = delete(node.left, key);
+		} else if (key > node.key) {
+			node.right = delete(node.right, key);
+		} else {
+			if (node.left == null || node.right == null) {
+				size--;
+				return node.left == null ? node.right : node.left;
+			}
+			//replace this entry with the smallest one on its right, then remove that one
+			Node<V> next = AvlNode.first(node.right);
+			node.key = next.key;
+			node.value = next.value;
+			node.right = delete(node.right, next.key);
+		}
+		return AvlNode.balance(node);
+	}
+
+	private static int addKeys(Node<?> node, int[] keys, int index) {
+		if (node == null) {
+			return index;
+		}
+		index = addKeys(node.left, keys, index);
+		keys[index++] = node.key;
+		return addKeys(node.right, keys, index);
+	}
+
+	private static <V> void addRange(Node<V> node, int fromKey, int toKey, List<Node<V>> range) {
+		if (node == null) {
+			return;
+		}
+		if (node.key > fromKey) {
+			addRange(node.left, fromKey, toKey, range);
+		}
+		if (node.key >= fromKey && node.key <= toKey) {
+			range.add(node);
+		}
+		if (node.key < toKey) {
+			addRange(node.right, fromKey, toKey, range);
+		}
+	}
+
+	/**
+	 * Build a balanced tree of new nodes from the sorted nodes[from, to)
+	 */
+	private static <V> Node<V> build(List<Node<V>> nodes, int from, int to) {
+		if (from >= to) {
+			return null;
+		}
+		int mid = (from + to) >>> 1;
+		Node<V> node = new Node<V>(nodes.get(mid).key, nodes.get(mid).value);
+		node.left = build(nodes, from, mid);
+		node.right = build(nodes, mid + 1, to);
+		node.update();
+		return node;
+	}
+}
@@ -0,0 +1,89 @@
+package searchTree;
+
+/**
+ * This interface describes a monoid: a way of combining two values that is
+ * associative and has an identity value that changes nothing when combined.
+ * AggregateSearchTreeMap uses it to keep a summary of every subtree.
+ *
+ * combine(combine(a, b), c) must equal combine(a, combine(b, c)), and
+ * combine(identity(), a) and combine(a, identity()) must both equal a.
+ *
+ * @param <A> type of the values being combined
+ */
+public interface Monoid<A> {
+
+	/**
+	 * @return the value that changes nothing when combined with another
+	 */
+	A identity();
+
+	/**
+	 * Combine two values. Values for smaller keys are always passed as the
+	 * first argument, so the operation does not need to be commutative.
+	 *
+	 * @param left - value for the smaller keys
+	 * @param right - value for the larger keys
+	 * @return the combined value
+	 */
+	A combine(A left, A right);
+
+	/**
+	 * @return a monoid adding up Integers. Using it with a measure that maps
+	 *         every value to 1 counts entries instead.
+	 */
+	static Monoid<Integer> integerSum() {
+		return new Monoid<Integer>() {
+			public Integer identity() {
+				return 0;
+			}
+
+			public Integer combine(Integer left, Integer right) {
+				return left + right;
+			}
+		};
+	}
+
+	/**
+	 * @return a monoid keeping the smallest value. The identity is null,
+	 *         standing for "no value".
+	 */
+	static <T extends Comparable<T>> Monoid<T> minimum() {
+		return new Monoid<T>() {
+			public T identity() {
+				return null;
+			}
+
+			public T combine(T left, T right) {
+				if (left == null) {
+					return right;
+				}
+				if (right == null) {
+					return left;
+				}
+				return left.compareTo(right) <= 0 ? left : right;
+			}
+		};
+	}
+
+	/**
+	 * @return a monoid keeping the largest value. The identity is null,
+	 *         standing for "no value".
+	 */
+	static <T extends Comparable<T>> Monoid<T> maximum() {
+		return new Monoid<T>() {
+			public T identity() {
+				return null;
+			}
+
+			public T combine(T left, T right) {
+				if (left == null) {
+					return right;
+				}
+				if (right == null) {
+					return left;
+				}
+				return left.compareTo(right) >= 0 ? left : right;
+			}
+		};
+	}
+}
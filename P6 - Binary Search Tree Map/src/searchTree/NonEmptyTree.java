@@ -1,7 +1,10 @@
 package searchTree;
 
+import java.util.AbstractMap;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Map;
+import java.util.function.BiFunction;
 
 /**
  * This class represents a non-empty search tree. An instance of this class
@@ -21,6 +24,8 @@ import java.util.Collections;
 	private Tree<K,V> left, right;
 	private K key;
 	private V value;
+	//number of nodes on the longest path down from this one, kept up to date so TreeJoins can balance
+	private int height;
 	/**
 	 * This is the non empty tree object which are sorted throughout the tree contains key,value pairs
 	 * along with the references to the left and right subtrees
@@ -35,6 +40,46 @@ import java.util.Collections;
 		this.value = value;
 		this.left = left;
 		this.right = right;
+		updateHeight();
+	}
+	/**
+	 * package-private accessors used by the join based algorithms in TreeJoins, which take trees
+	 * apart and put them back together without going through insert and delete
+	 */
+	K getKey() {
+		return this.key;
+	}
+	V getValue() {
+		return this.value;
+	}
+	void setValue(V value) {
+		this.value = value;
+	}
+	Tree<K,V> getLeft() {
+		return this.left;
+	}
+	Tree<K,V> getRight() {
+		return this.right;
+	}
+	void setChildren(Tree<K,V> left, Tree<K,V> right) {
+		this.left = left;
+		this.right = right;
+		updateHeight();
+	}
+	int getHeight() {
+		return this.height;
+	}
+	/**
+	 * the height of any tree made of NonEmptyTree nodes, 0 for the empty tree
+	 */
+	static int heightOf(Tree<?, ?> tree) {
+		return tree instanceof NonEmptyTree ? ((NonEmptyTree<?, ?>) tree).height : 0;
+	}
+	/**
+	 * recompute the height after a subtree has changed
+	 */
+	private void updateHeight() {
+		this.height = 1 + Math.max(heightOf(this.left), heightOf(this.right));
 	}
 	/**
 	 * given a key, search the tree for the key and return its value.
@@ -64,11 +109,13 @@ import java.util.Collections;
 		if(key.compareTo(this.key) < 0) {
 			//recursively calls and sets this.left subtree until it hits the EmptyTree class and inserts there
 			 this.left = this.left.insert(key, value);
+			 updateHeight();
 			 return this;
 		//if the target key is greater than the current key
 		} else if(key.compareTo(this.key) > 0) {
 			//recursively calls and sets this.right subtree until it hits the EmptyTree and inserts there
 			this.right = this.right.insert(key, value);
+			updateHeight();
 			return this;
 		//if the target key is equal to the current key
 		} else {
@@ -91,6 +138,7 @@ import java.util.Collections;
 				this.value = this.left.search(this.key);
 				//then delete the leaf node 
 				this.left = this.left.delete(this.key);
+				updateHeight();
 				return this;
 			//if the left subtree doens't exist then this exception will be thrown
 			} catch(TreeIsEmptyException e) {
@@ -101,11 +149,43 @@ import java.util.Collections;
 		} else if(this.key.compareTo(key) < 0) {
 			//recursively calls this.right subtree and adjusts the tree after deletion
 			this.right = this.right.delete(key);
+			updateHeight();
 			return this;
 		//if the target key is less than the current key
 		} else {
 			//recursively calls this.left subtree and adjusts the tree after deletion
 			this.left = this.left.delete(key);
+			updateHeight();
+			return this;
+		}
+	}
+	/**
+	 * given a key and a function, find the key and replace its value with what the function returns in the
+	 * same walk down the tree. A null result deletes the key.
+	 * @return the current tree
+	 */
+	public Tree<K, V> compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+		int cmp = key.compareTo(this.key);
+		//if the target key is less than the current key
+		if(cmp < 0) {
+			//keep looking in the left subtree, which adds a leaf there if the key is new
+			this.left = this.left.compute(key, remappingFunction);
+			updateHeight();
+			return this;
+		//if the target key is greater than the current key
+		} else if(cmp > 0) {
+			//keep looking in the right subtree, which adds a leaf there if the key is new
+			this.right = this.right.compute(key, remappingFunction);
+			updateHeight();
+			return this;
+		//if the target key is the current key
+		} else {
+			V newValue = remappingFunction.apply(this.key, this.value);
+			//a null result means the key should no longer be in the tree
+			if(newValue == null) {
+				return this.delete(key);
+			}
+			this.value = newValue;
 			return this;
 		}
 	}
@@ -155,6 +235,15 @@ import java.util.Collections;
 		//calls the method on right subtree
 		this.right.addKeysToCollection(c);
 	}
+	/**
+	 * given any collection, add all the key,value pairs from the tree into it in sorted order by keys
+	 * the traversal is in order
+	 */
+	public void addEntriesToCollection(Collection<Map.Entry<K,V>> c) {
+		this.left.addEntriesToCollection(c);
+		c.add(new AbstractMap.SimpleImmutableEntry<K, V>(this.key, this.value));
+		this.right.addEntriesToCollection(c);
+	}
 	/**
 	 * given bounds of [fromKey, toKey] return a new tree with key values of the range, inclusive
 	 */
@@ -1,8 +1,14 @@
 package searchTree;
 
+import java.util.AbstractMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -17,6 +23,28 @@ public class SearchTreeMap<K extends Comparable<K>, V>  {
 	
 	Tree<K,V> theTree = EmptyTree.getInstance();
 
+	/**
+	 * Create an empty map that stores its entries in a binary search tree
+	 * made of NonEmptyTree nodes
+	 */
+	public SearchTreeMap() {
+	}
+
+	/**
+	 * Create an empty map that stores its entries in the given tree, for
+	 * example a BTree
+	 * 
+	 * @param emptyTree -
+	 *            an empty Tree that will hold the entries of this map
+	 * @throws IllegalArgumentException if emptyTree is not empty
+	 */
+	public SearchTreeMap(Tree<K,V> emptyTree) {
+		if (emptyTree.size() != 0) {
+			throw new IllegalArgumentException();
+		}
+		theTree = emptyTree;
+	}
+
 	/**
 	 * Find the value the key is mapped to
 	 * 
@@ -40,6 +68,119 @@ public class SearchTreeMap<K extends Comparable<K>, V>  {
 		theTree = theTree.insert(k, v);
 	}
 
+	/**
+	 * Return the value the key is mapped to, or defaultValue if the key is
+	 * not bound
+	 * 
+	 * @param k -
+	 *            Search key
+	 * @param defaultValue -
+	 *            value to return if there is no mapping for the key
+	 * @return value k is mapped to, or defaultValue
+	 */
+	public V getOrDefault(K k, V defaultValue) {
+		V v = theTree.search(k);
+		return v != null ? v : defaultValue;
+	}
+
+	/**
+	 * Replace the mapping for the key with the result of the function, in a
+	 * single walk down the tree.  The function is given the key and its
+	 * current value (null if there is none).  If it returns null the key is
+	 * removed.
+	 * 
+	 * @param k -
+	 *            key value
+	 * @param f -
+	 *            computes the new value from the current one
+	 * @return the new value bound to k, or null if there is none
+	 */
+	public V compute(K k, BiFunction<? super K, ? super V, ? extends V> f) {
+		Update<V> update = new Update<V>();
+		theTree = theTree.compute(k, (key, oldValue) -> {
+			update.oldValue = oldValue;
+			update.newValue = f.apply(key, oldValue);
+			return update.newValue;
+		});
+		return update.newValue;
+	}
+
+	/**
+	 * If the key is not bound, bind it to the value computed by the function
+	 * (unless that is null).
+	 * 
+	 * @param k -
+	 *            key value
+	 * @param f -
+	 *            computes the value for an unbound key
+	 * @return the value bound to k after the call, or null if there is none
+	 */
+	public V computeIfAbsent(K k, Function<? super K, ? extends V> f) {
+		Update<V> update = new Update<V>();
+		theTree = theTree.compute(k, (key, oldValue) -> {
+			update.newValue = oldValue != null ? oldValue : f.apply(key);
+			return update.newValue;
+		});
+		return update.newValue;
+	}
+
+	/**
+	 * If the key is bound, replace its value with the result of the function.
+	 * If that is null the key is removed.
+	 * 
+	 * @param k -
+	 *            key value
+	 * @param f -
+	 *            computes the new value from the current one
+	 * @return the new value bound to k, or null if there is none
+	 */
+	public V computeIfPresent(K k, BiFunction<? super K, ? super V, ? extends V> f) {
+		return compute(k, (key, oldValue) -> oldValue != null ? f.apply(key, oldValue) : null);
+	}
+
+	/**
+	 * Bind the key to v if it is not bound yet, otherwise replace its value
+	 * with f(current value, v).  If that is null the key is removed.  Counting
+	 * words is merge(word, 1, Integer::sum).
+	 * 
+	 * @param k -
+	 *            key value
+	 * @param v -
+	 *            value for an unbound key, and second argument of f
+	 * @param f -
+	 *            combines the current value with v
+	 * @return the new value bound to k, or null if there is none
+	 */
+	public V merge(K k, V v, BiFunction<? super V, ? super V, ? extends V> f) {
+		return compute(k, (key, oldValue) -> oldValue != null ? f.apply(oldValue, v) : v);
+	}
+
+	/**
+	 * Bind the key to v only if it is not bound yet
+	 * 
+	 * @param k -
+	 *            key value
+	 * @param v -
+	 *            value the key should be bound to if it is unbound
+	 * @return the value k was bound to before, or null if it was unbound
+	 */
+	public V putIfAbsent(K k, V v) {
+		Update<V> update = new Update<V>();
+		theTree = theTree.compute(k, (key, oldValue) -> {
+			update.oldValue = oldValue;
+			return oldValue != null ? oldValue : v;
+		});
+		return update.oldValue;
+	}
+
+	/**
+	 * Holds the values seen by the function passed to Tree.compute, so they
+	 * can be returned after the tree has been updated
+	 */
+	private static final class Update<V> {
+		V oldValue, newValue;
+	}
+
 	/**
 	 * Return number of keys bound by this map
 	 * 
@@ -131,4 +272,195 @@ public class SearchTreeMap<K extends Comparable<K>, V>  {
 		retMap.theTree = theTree.subTree(fromKey, toKey);
 		return retMap;	
 	}
+
+	/**
+	 * Return list of the entries in the map in natural sorted order of keys
+	 * 
+	 * @return list of entries in map in sorted order
+	 */
+	public List<Map.Entry<K, V>> entryList() {
+		ArrayList<Map.Entry<K, V>> entryList = new ArrayList<Map.Entry<K, V>>();
+		theTree.addEntriesToCollection(entryList);
+		return entryList;
+	}
+
+	/**
+	 * Return a read-only copy of this map that stores its entries in arrays
+	 * instead of tree nodes.  Lookups in the copy are faster and it can be
+	 * shared between threads; later changes to this map don't show up in it.
+	 * 
+	 * @return FrozenSearchTreeMap with the same bindings as this map
+	 * @throws IllegalArgumentException if there are more than
+	 *         FrozenSearchTreeMap.MAX_SIZE bindings
+	 */
+	public FrozenSearchTreeMap<K, V> freeze() {
+		return new FrozenSearchTreeMap<K, V>(entryList());
+	}
+
+	/**
+	 * Build a map from entries that are already sorted by key, with no key
+	 * appearing twice.  The keys are never compared: the middle entry of
+	 * every range becomes the root of that range, so the result is a
+	 * perfectly balanced tree built in O(n) time.
+	 * 
+	 * @param entries -
+	 *            entries in strictly increasing order of their keys
+	 * @return SearchTreeMap holding the entries
+	 */
+	public static <K extends Comparable<K>, V> SearchTreeMap<K, V> fromSorted(Iterator<Map.Entry<K, V>> entries) {
+		ArrayList<Map.Entry<K, V>> entryList = new ArrayList<Map.Entry<K, V>>();
+		while (entries.hasNext()) {
+			entryList.add(entries.next());
+		}
+		SearchTreeMap<K,V> retMap = new SearchTreeMap<K,V>();
+		retMap.theTree = buildBalanced(entryList, 0, entryList.size());
+		return retMap;
+	}
+
+	/**
+	 * Combine two maps in O(n+m) time by merging their sorted entries and
+	 * building a balanced tree from the result.  Keys bound in only one map
+	 * keep their value; for keys bound in both, the values are combined.
+	 * Neither argument is changed.
+	 * 
+	 * @param a -
+	 *            first map
+	 * @param b -
+	 *            second map
+	 * @param combiner -
+	 *            called with the value from a and the value from b for keys
+	 *            bound in both maps
+	 * @return new SearchTreeMap with the keys of both maps
+	 */
+	public static <K extends Comparable<K>, V> SearchTreeMap<K, V> merge(SearchTreeMap<K, V> a,
+			SearchTreeMap<K, V> b, BinaryOperator<V> combiner) {
+		List<Map.Entry<K, V>> aEntries = a.entryList();
+		List<Map.Entry<K, V>> bEntries = b.entryList();
+		ArrayList<Map.Entry<K, V>> merged = new ArrayList<Map.Entry<K, V>>(aEntries.size() + bEntries.size());
+		int i = 0, j = 0;
+		//take the smaller key from either list until one of them runs out
+		while (i < aEntries.size() && j < bEntries.size()) {
+			Map.Entry<K, V> aEntry = aEntries.get(i);
+			Map.Entry<K, V> bEntry = bEntries.get(j);
+			int cmp = aEntry.getKey().compareTo(bEntry.getKey());
+			if (cmp < 0) {
+				merged.add(aEntry);
+				i++;
+			} else if (cmp > 0) {
+				merged.add(bEntry);
+				j++;
+			} else {
+				//the key is in both maps so its values are combined
+				merged.add(new AbstractMap.SimpleImmutableEntry<K, V>(aEntry.getKey(),
+						combiner.apply(aEntry.getValue(), bEntry.getValue())));
+				i++;
+				j++;
+			}
+		}
+		//whatever is left over is already sorted and larger than everything merged so far
+		merged.addAll(aEntries.subList(i, aEntries.size()));
+		merged.addAll(bEntries.subList(j, bEntries.size()));
+		return fromSorted(merged.iterator());
+	}
+
+	/**
+	 * Return a map with every key bound in a or b.  Keys bound in both maps
+	 * are bound to combiner(value in a, value in b).
+	 * 
+	 * The maps are combined by splitting and joining their trees, reusing
+	 * their nodes, with the two halves of each step running in parallel.
+	 * Both arguments are left empty; merge is the union that leaves them
+	 * alone, in O(n + m) time.  If both trees are balanced, as those built by
+	 * fromSorted and merge or returned by the Destructive methods are, this
+	 * takes O(m log(n/m + 1)) work for sizes m &lt;= n and the result is
+	 * balanced too.  put and remove don't rebalance, so maps built with them
+	 * only get this bound if their keys went in in random order.
+	 * 
+	 * @param a -
+	 *            first map, emptied by this method
+	 * @param b -
+	 *            second map, emptied by this method
+	 * @param combiner -
+	 *            combines the values of keys bound in both maps
+	 * @return SearchTreeMap with the keys of both maps
+	 * @throws IllegalArgumentException if a and b are the same map
+	 */
+	public static <K extends Comparable<K>, V> SearchTreeMap<K, V> unionDestructive(SearchTreeMap<K, V> a,
+			SearchTreeMap<K, V> b, BinaryOperator<V> combiner) {
+		SearchTreeMap<K,V> retMap = new SearchTreeMap<K,V>();
+		retMap.theTree = TreeJoins.union(a.takeNodeTree(b), b.takeNodeTree(a), combiner);
+		return retMap;
+	}
+
+	/**
+	 * Return a map with the keys bound in both a and b, bound to
+	 * combiner(value in a, value in b).  Works like unionDestructive, and
+	 * also leaves both arguments empty.
+	 * 
+	 * @param a -
+	 *            first map, emptied by this method
+	 * @param b -
+	 *            second map, emptied by this method
+	 * @param combiner -
+	 *            combines the values of keys bound in both maps
+	 * @return SearchTreeMap with the keys found in both maps
+	 * @throws IllegalArgumentException if a and b are the same map
+	 */
+	public static <K extends Comparable<K>, V> SearchTreeMap<K, V> intersectionDestructive(SearchTreeMap<K, V> a,
+			SearchTreeMap<K, V> b, BinaryOperator<V> combiner) {
+		SearchTreeMap<K,V> retMap = new SearchTreeMap<K,V>();
+		retMap.theTree = TreeJoins.intersection(a.takeNodeTree(b), b.takeNodeTree(a), combiner);
+		return retMap;
+	}
+
+	/**
+	 * Return a map with the entries of a whose keys are not bound in b.
+	 * Works like unionDestructive, and also leaves both arguments empty.
+	 * 
+	 * @param a -
+	 *            map whose entries are kept, emptied by this method
+	 * @param b -
+	 *            map whose keys are removed, emptied by this method
+	 * @return SearchTreeMap with the entries of a that are not in b
+	 * @throws IllegalArgumentException if a and b are the same map
+	 */
+	public static <K extends Comparable<K>, V> SearchTreeMap<K, V> differenceDestructive(SearchTreeMap<K, V> a,
+			SearchTreeMap<K, V> b) {
+		SearchTreeMap<K,V> retMap = new SearchTreeMap<K,V>();
+		retMap.theTree = TreeJoins.difference(a.takeNodeTree(b), b.takeNodeTree(a));
+		return retMap;
+	}
+
+	/**
+	 * Hand this map's entries over as a tree of NonEmptyTree nodes and leave
+	 * the map empty.  Maps stored in another kind of Tree are first copied
+	 * into a balanced node tree.
+	 */
+	private Tree<K, V> takeNodeTree(SearchTreeMap<K, V> other) {
+		//the join algorithms take both trees apart, so they can't be the same tree
+		if (this == other) {
+			throw new IllegalArgumentException();
+		}
+		Tree<K, V> tree = theTree;
+		if (!(tree instanceof NonEmptyTree) && !(tree instanceof EmptyTree)) {
+			List<Map.Entry<K, V>> entries = entryList();
+			tree = buildBalanced(entries, 0, entries.size());
+		}
+		theTree = EmptyTree.getInstance();
+		return tree;
+	}
+
+	/**
+	 * Build a balanced tree from entries[from, to) by making the middle entry
+	 * the root and building its subtrees from the entries on either side
+	 */
+	static <K extends Comparable<K>, V> Tree<K, V> buildBalanced(List<Map.Entry<K, V>> entries, int from, int to) {
+		if (from >= to) {
+			return EmptyTree.getInstance();
+		}
+		int mid = (from + to) >>> 1;
+		Map.Entry<K, V> entry = entries.get(mid);
+		return new NonEmptyTree<K, V>(entry.getKey(), entry.getValue(), buildBalanced(entries, from, mid),
+				buildBalanced(entries, mid + 1, to));
+	}
 }
\ No newline at end of file
@@ -0,0 +1,316 @@
+package searchTree;
+
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * This class is a splay tree implementation of the Tree interface. Every
+ * search, insert, delete and compute moves the key it looked for (or the last
+ * node it reached) to the root, using top-down splaying.
+ *
+ * Keys that are used often therefore stay close to the root: with word counts,
+ * where a few words like "the", "and" and "of" make up most of the lookups,
+ * those words are found after one or two comparisons. Any sequence of
+ * operations still costs O(log n) amortized per operation.
+ *
+ * Because search changes the shape of the tree, a SplayTree must not be read
+ * by several threads at once. A SplayTree is a single mutable object, so
+ * insert and delete always return this.
+ *
+ */
+public class SplayTree<K extends Comparable<K>, V> implements Tree<K, V> {
+
+	private Node<K, V> root;
+	private int size;
+	//reused by splay to collect the pieces split off to the left and right
+	private final Node<K, V> header = new Node<K, V>(null, null);
+
+	private static final class Node<K, V> {
+		K key;
+		V value;
+		Node<K, V> left, right;
+
+		Node(K key, V value) {
+			this.key = key;
+			this.value = value;
+		}
+	}
+
+	/**
+	 * given a key, splay it to the root and return its value
+	 * @return value, or null if the key is not in the tree
+	 */
+	public V search(K key) {
+		if (root == null) {
+			return null;
+		}
+		root = splay(root, key);
+		return root.key.compareTo(key) == 0 ? root.value : null;
+	}
+
+	/**
+	 * given a key & value, insert the pair as the new root of the tree
+	 * @return this tree
+	 */
+	public SplayTree<K, V> insert(K key, V value) {
+		if (root == null) {
+			root = new Node<K, V>(key, value);
+			size++;
+			return this;
+		}
+		root = splay(root, key);
+		int cmp = key.compareTo(root.key);
+		if (cmp == 0) {
+			root.value = value;
+			return this;
+		}
+		//after splaying, the old root is the closest key, so it and one of its sides go under the new node
+		Node<K, V> node = new Node<K, V>(key, value);
+		if (cmp < 0) {
+			node.left = root.left;
+			node.right = root;
+			root.left = null;
+		} else {
+			node.right = root.right;
+			node.left = root;
+			root.right = null;
+		}
+		root = node;
+		size++;
+		return this;
+	}
+
+	/**
+	 * given a key, splay it to the root and remove it by joining its subtrees
+	 * @return this tree
+	 */
+	public SplayTree<K, V> delete(K key) {
+		if (root == null) {
+			return this;
+		}
+		root = splay(root, key);
+		if (root.key.compareTo(key) != 0) {
+			return this;
+		}
+		if (root.left == null) {
+			root = root.right;
+		} else {
+			//splaying the left subtree for key brings its largest key up, which has no right child
+			Node<K, V> right = root.right;
+			root = splay(root.left, key);
+			root.right = right;
+		}
+		size--;
+		return this;
+	}
+
+	/**
+	 * given a key and a function, splay the key to the root and replace its
+	 * value with what the function returns. A null result deletes the key.
+	 * @return this tree
+	 */
+	public SplayTree<K, V> compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+		//the key may be bound to null, so whether it is there comes from the splay, not from the value
+		boolean present = false;
+		V oldValue = null;
+		if (root != null) {
+			root = splay(root, key);
+			present = key.compareTo(root.key) == 0;
+			if (present) {
+				oldValue = root.value;
+			}
+		}
+		V newValue = remappingFunction.apply(key, oldValue);
+		if (newValue == null) {
+			return present ? delete(key) : this;
+		}
+		if (present) {
+			root.value = newValue;
+			return this;
+		}
+		return insert(key, newValue);
+	}
+
+	/**
+	 * @return the largest key in the tree
+	 */
+	public K max() throws TreeIsEmptyException {
+		if (root == null) {
+			throw new TreeIsEmptyException();
+		}
+		Node<K, V> node = root;
+		while (node.right != null) {
+			node = node.right;
+		}
+		return node.key;
+	}
+
+	/**
+	 * @return the smallest key in the tree
+	 */
+	public K min() throws TreeIsEmptyException {
+		if (root == null) {
+			throw new TreeIsEmptyException();
+		}
+		Node<K, V> node = root;
+		while (node.left != null) {
+			node = node.left;
+		}
+		return node.key;
+	}
+
+	/**
+	 * @return the number of key,value pairs in the tree
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * add all the keys to the collection in sorted order. The traversal keeps
+	 * its own stack, since a splay tree can be as deep as it has nodes.
+	 */
+	public void addKeysToCollection(Collection<K> c) {
+		Deque<Node<K, V>> stack = new ArrayDeque<Node<K, V>>();
+		Node<K, V> node = root;
+		while (node != null || !stack.isEmpty()) {
+			while (node != null) {
+				stack.push(node);
+				node = node.left;
+			}
+			node = stack.pop();
+			c.add(node.key);
+			node = node.right;
+		}
+	}
+
+	/**
+	 * add all the key,value pairs to the collection in sorted order by keys
+	 */
+	public void addEntriesToCollection(Collection<Map.Entry<K, V>> c) {
+		Deque<Node<K, V>> stack = new ArrayDeque<Node<K, V>>();
+		Node<K, V> node = root;
+		while (node != null || !stack.isEmpty()) {
+			while (node != null) {
+				stack.push(node);
+				node = node.left;
+			}
+			node = stack.pop();
+			c.add(new AbstractMap.SimpleImmutableEntry<K, V>(node.key, node.value));
+			node = node.right;
+		}
+	}
+
+	/**
+	 * given bounds of [fromKey, toKey] return a new SplayTree with the entries
+	 * of that range, built balanced from the sorted entries
+	 */
+	public Tree<K, V> subTree(K fromKey, K toKey) {
+		List<Node<K, V>> range = new ArrayList<Node<K, V>>();
+		Deque<Node<K, V>> stack = new ArrayDeque<Node<K, V>>();
+		Node<K, V> node = root;
+		while (node != null || !stack.isEmpty()) {
+			//skip left subtrees that are entirely below fromKey
+			while (node != null) {
+				if (node.key.compareTo(fromKey) < 0) {
+					node = node.right;
+				} else {
+					stack.push(node);
+					node = node.left;
+				}
+			}
+			if (stack.isEmpty()) {
+				break;
+			}
+			node = stack.pop();
+			if (node.key.compareTo(toKey) > 0) {
+				break;
+			}
+			range.add(node);
+			node = node.right;
+		}
+		SplayTree<K, V> result = new SplayTree<K, V>();
+		result.root = build(range, 0, range.size());
+		result.size = range.size();
+		return result;
+	}
+
+	/**
+	 * Top-down splay: walk down from t towards key, rotating pairs of nodes
+	 * that lean the same way and splitting off everything smaller than key
+	 * into a left tree and everything larger into a right tree. The last node
+	 * reached becomes the root, with the two trees as its subtrees.
+	 */
+	private Node<K, V> splay(Node<K, V> t, K key) {
+		Node<K, V> left = header, right = header;
+		header.left = header.right = null;
+		while (true) {
+			int cmp = key.compareTo(t.key);
+			if (cmp < 0) {
+				if (t.left == null) {
+					break;
+				}
+				if (key.compareTo(t.left.key) < 0) {
+					//zig-zig: rotate right before going on
+					Node<K, V> y = t.left;
+					t.left = y.right;
+					y.right = t;
+					t = y;
+					if (t.left == null) {
+						break;
+					}
+				}
+				//t and its right side are larger than key
+				right.left = t;
+				right = t;
+				t = t.left;
+			} else if (cmp > 0) {
+				if (t.right == null) {
+					break;
+				}
+				if (key.compareTo(t.right.key) > 0) {
+					//zig-zig: rotate left before going on
+					Node<K, V> y = t.right;
+					t.right = y.left;
+					y.left = t;
+					t = y;
+					if (t.right == null) {
+						break;
+					}
+				}
+				//t and its left side are smaller than key
+				left.right = t;
+				left = t;
+				t = t.right;
+			} else {
+				break;
+			}
+		}
+		left.right = t.left;
+		right.left = t.right;
+		t.left = header.right;
+		t.right = header.left;
+		header.left = header.right = null;
+		return t;
+	}
+
+	/**
+	 * Build a balanced tree of new nodes from the sorted nodes[from, to)
+	 */
+	private static <K, V> Node<K, V> build(List<Node<K, V>> nodes, int from, int to) {
+		if (from >= to) {
+			return null;
+		}
+		int mid = (from + to) >>> 1;
+		Node<K, V> node = new Node<K, V>(nodes.get(mid).key, nodes.get(mid).value);
+		node.left = build(nodes, from, mid);
+		node.right = build(nodes, mid + 1, to);
+		return node;
+	}
+}
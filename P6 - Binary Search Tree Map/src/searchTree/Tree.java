@@ -1,6 +1,8 @@
 package searchTree;
 
 import java.util.Collection;
+import java.util.Map;
+import java.util.function.BiFunction;
 
 /**
  * This interface describes the interface for both empty and non-empty search
@@ -35,7 +37,7 @@ public interface Tree <K extends Comparable<K>,V >{
 	 *            Value that the key maps to
 	 * @return -- updated tree
 	 */
-	 NonEmptyTree<K,V> insert(K key, V value);
+	 Tree<K,V> insert(K key, V value);
 
 	/**
 	 * Delete any binding the key has in this tree. If the key isn't bound, this
@@ -53,6 +55,22 @@ public interface Tree <K extends Comparable<K>,V >{
 	 */
 	 Tree<K,V> delete(K key);
 
+	/**
+	 * Replace the binding of a key with the result of a function, in a single
+	 * walk down the tree. The function is given the key and its current value
+	 * (null if the key isn't bound). If it returns null, the key is deleted
+	 * (or stays unbound); otherwise the key is bound to the returned value.
+	 * 
+	 * Like insert and delete, this returns the updated tree.
+	 * 
+	 * @param key --
+	 *            Key
+	 * @param remappingFunction --
+	 *            computes the new value from the key and the current value
+	 * @return -- updated tree
+	 */
+	 Tree<K,V> compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction);
+
 	/**
 	 * Return the maximum key in the subtree
 	 * 
@@ -87,6 +105,16 @@ public interface Tree <K extends Comparable<K>,V >{
 	 *            list sorted.
 	 */
 	void addKeysToCollection(Collection<K> c);
+
+	/**
+	 * Add all key:value pairs bound in this tree to the collection c.
+	 * The entries must be added in the sorted order of their keys.
+	 * 
+	 * @param c -
+	 *            A list that acts as an accumulator for entries.  Entries
+	 *            are inserted in the list in increasing order of their keys.
+	 */
+	void addEntriesToCollection(Collection<Map.Entry<K,V>> c);
 	
 	/**
 	 * Returns a Tree containing all entries between fromKey and toKey, inclusive
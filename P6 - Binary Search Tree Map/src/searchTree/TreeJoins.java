@@ -0,0 +1,290 @@
+package searchTree;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+
+/**
+ * Join based algorithms on trees made of NonEmptyTree nodes.
+ *
+ * Everything is built from two primitives:
+ * <ul>
+ * <li>split(t, k) takes t apart into the entries less than k, the node holding
+ * k (if there is one) and the entries greater than k. It only walks one path,
+ * so it takes time proportional to the depth of t.
+ * <li>join(left, node, right) puts a node back on top of two trees whose keys
+ * are all less than / greater than the node's key. If one tree is more than
+ * one taller than the other, the node is hung off the spine of the taller one
+ * at the height of the shorter one and rotations restore AVL balance on the
+ * way back up, so joining AVL trees gives an AVL tree in time proportional
+ * to the difference in their heights.
+ * </ul>
+ *
+ * Union, intersection and difference split the second tree around the root
+ * of the first, work on the two halves independently and join the results.
+ * On AVL trees (those built by SearchTreeMap.fromSorted and merge, or
+ * returned by these algorithms) that is O(m log(n/m + 1)) work for trees of
+ * size m and n with m &lt;= n, and the results are AVL trees again, so the
+ * bound holds for chains of operations too. Because the two halves share
+ * nothing, they are run in parallel near the top of the recursion, in the
+ * ForkJoinPool of the calling thread if it has one and otherwise in the
+ * common pool.
+ *
+ * These algorithms are destructive: the nodes of the input trees are reused
+ * in the result, so the inputs must not be used afterwards.
+ *
+ */
+final class TreeJoins {
+
+	private TreeJoins() {
+		// Nothing to do
+	}
+
+	/**
+	 * The three parts a tree is split into
+	 */
+	static final class Split<K extends Comparable<K>, V> {
+		final Tree<K, V> left;
+		final NonEmptyTree<K, V> middle;
+		final Tree<K, V> right;
+
+		Split(Tree<K, V> left, NonEmptyTree<K, V> middle, Tree<K, V> right) {
+			this.left = left;
+			this.middle = middle;
+			this.right = right;
+		}
+	}
+
+	/**
+	 * Split a tree into the entries with keys less than key, the node bound
+	 * to key (null if there is none) and the entries with keys greater than
+	 * key
+	 */
+	static <K extends Comparable<K>, V> Split<K, V> split(Tree<K, V> tree, K key) {
+		if (!(tree instanceof NonEmptyTree)) {
+			return new Split<K, V>(tree, null, tree);
+		}
+		NonEmptyTree<K, V> node = (NonEmptyTree<K, V>) tree;
+		int cmp = key.compareTo(node.getKey());
+		if (cmp == 0) {
+			return new Split<K, V>(node.getLeft(), node, node.getRight());
+		} else if (cmp < 0) {
+			//everything right of node is greater than key, so node keeps it and takes the upper part of its left
+			Split<K, V> split = split(node.getLeft(), key);
+			return new Split<K, V>(split.left, split.middle, join(split.right, node, node.getRight()));
+		} else {
+			//everything left of node is less than key, so node keeps it and takes the lower part of its right
+			Split<K, V> split = split(node.getRight(), key);
+			return new Split<K, V>(join(node.getLeft(), node, split.left), split.middle, split.right);
+		}
+	}
+
+	/**
+	 * Make node the root of a tree with left and right as its subtrees. All
+	 * keys in left must be less than node's key and all keys in right greater.
+	 * If left and right are AVL trees, so is the result.
+	 */
+	static <K extends Comparable<K>, V> Tree<K, V> join(Tree<K, V> left, NonEmptyTree<K, V> node, Tree<K, V> right) {
+		int leftHeight = NonEmptyTree.heightOf(left), rightHeight = NonEmptyTree.heightOf(right);
+		if (leftHeight > rightHeight + 1) {
+			return joinRight((NonEmptyTree<K, V>) left, node, right);
+		} else if (rightHeight > leftHeight + 1) {
+			return joinLeft(left, node, (NonEmptyTree<K, V>) right);
+		}
+		node.setChildren(left, right);
+		return node;
+	}
+
+	/**
+	 * Join when left is more than one taller than right: walk down the right
+	 * spine of left to a subtree no more than one taller than right, put node
+	 * there and rotate wherever the spine has become two taller than its
+	 * sibling
+	 */
+	private static <K extends Comparable<K>, V> NonEmptyTree<K, V> joinRight(NonEmptyTree<K, V> left,
+			NonEmptyTree<K, V> node, Tree<K, V> right) {
+		Tree<K, V> spine = left.getRight();
+		NonEmptyTree<K, V> joined;
+		if (NonEmptyTree.heightOf(spine) <= NonEmptyTree.heightOf(right) + 1) {
+			node.setChildren(spine, right);
+			joined = node;
+			if (joined.getHeight() > NonEmptyTree.heightOf(left.getLeft()) + 1) {
+				//node's left subtree is the taller one, so a single rotation at left would leave it unbalanced
+				joined = rotateRight(joined);
+			}
+		} else {
+			joined = joinRight((NonEmptyTree<K, V>) spine, node, right);
+		}
+		left.setChildren(left.getLeft(), joined);
+		if (joined.getHeight() > NonEmptyTree.heightOf(left.getLeft()) + 1) {
+			return rotateLeft(left);
+		}
+		return left;
+	}
+
+	/**
+	 * The mirror image of joinRight, for when right is more than one taller
+	 * than left
+	 */
+	private static <K extends Comparable<K>, V> NonEmptyTree<K, V> joinLeft(Tree<K, V> left,
+			NonEmptyTree<K, V> node, NonEmptyTree<K, V> right) {
+		Tree<K, V> spine = right.getLeft();
+		NonEmptyTree<K, V> joined;
+		if (NonEmptyTree.heightOf(spine) <= NonEmptyTree.heightOf(left) + 1) {
+			node.setChildren(left, spine);
+			joined = node;
+			if (joined.getHeight() > NonEmptyTree.heightOf(right.getRight()) + 1) {
+				joined = rotateLeft(joined);
+			}
+		} else {
+			joined = joinLeft(left, node, (NonEmptyTree<K, V>) spine);
+		}
+		right.setChildren(joined, right.getRight());
+		if (joined.getHeight() > NonEmptyTree.heightOf(right.getRight()) + 1) {
+			return rotateRight(right);
+		}
+		return right;
+	}
+
+	/**
+	 * Make the right child of node the root of its subtree
+	 */
+	private static <K extends Comparable<K>, V> NonEmptyTree<K, V> rotateLeft(NonEmptyTree<K, V> node) {
+		NonEmptyTree<K, V> right = (NonEmptyTree<K, V>) node.getRight();
+		//node goes first, since right's height depends on it
+		node.setChildren(node.getLeft(), right.getLeft());
+		right.setChildren(node, right.getRight());
+		return right;
+	}
+
+	/**
+	 * Make the left child of node the root of its subtree
+	 */
+	private static <K extends Comparable<K>, V> NonEmptyTree<K, V> rotateRight(NonEmptyTree<K, V> node) {
+		NonEmptyTree<K, V> left = (NonEmptyTree<K, V>) node.getLeft();
+		node.setChildren(left.getRight(), node.getRight());
+		left.setChildren(left.getLeft(), node);
+		return left;
+	}
+
+	/**
+	 * Join two trees without a middle node by taking the largest node out of
+	 * left and using it as the middle
+	 */
+	static <K extends Comparable<K>, V> Tree<K, V> join(Tree<K, V> left, Tree<K, V> right) {
+		if (!(left instanceof NonEmptyTree)) {
+			return right;
+		}
+		Split<K, V> last = splitLast((NonEmptyTree<K, V>) left);
+		return join(last.left, last.middle, right);
+	}
+
+	/**
+	 * Take the largest node out of a tree, joining the rest back together on
+	 * the way up so it stays balanced
+	 *
+	 * @return the rest of the tree as left, and the largest node as middle
+	 */
+	private static <K extends Comparable<K>, V> Split<K, V> splitLast(NonEmptyTree<K, V> tree) {
+		if (!(tree.getRight() instanceof NonEmptyTree)) {
+			return new Split<K, V>(tree.getLeft(), tree, EmptyTree.getInstance());
+		}
+		Split<K, V> last = splitLast((NonEmptyTree<K, V>) tree.getRight());
+		return new Split<K, V>(join(tree.getLeft(), tree, last.left), last.middle, last.right);
+	}
+
+	/**
+	 * Every key of a and b. Keys in both get combiner(value in a, value in b).
+	 */
+	static <K extends Comparable<K>, V> Tree<K, V> union(Tree<K, V> a, Tree<K, V> b, BinaryOperator<V> combiner) {
+		return new SetOperation<K, V>(Operation.UNION, a, b, combiner, forkDepth()).invoke();
+	}
+
+	/**
+	 * The keys in both a and b, bound to combiner(value in a, value in b)
+	 */
+	static <K extends Comparable<K>, V> Tree<K, V> intersection(Tree<K, V> a, Tree<K, V> b,
+			BinaryOperator<V> combiner) {
+		return new SetOperation<K, V>(Operation.INTERSECTION, a, b, combiner, forkDepth()).invoke();
+	}
+
+	/**
+	 * The entries of a whose keys are not in b
+	 */
+	static <K extends Comparable<K>, V> Tree<K, V> difference(Tree<K, V> a, Tree<K, V> b) {
+		return new SetOperation<K, V>(Operation.DIFFERENCE, a, b, null, forkDepth()).invoke();
+	}
+
+	/**
+	 * Number of levels of the recursion whose two halves are run in
+	 * parallel. Going a few levels past log2(parallelism) gives the pool
+	 * spare tasks to balance uneven halves.
+	 */
+	private static int forkDepth() {
+		//invoke runs a task in the pool of the calling thread, or the common pool if it isn't in one
+		int parallelism = ForkJoinTask.inForkJoinPool() ? ForkJoinTask.getPool().getParallelism()
+				: ForkJoinPool.getCommonPoolParallelism();
+		return 32 - Integer.numberOfLeadingZeros(parallelism) + 3;
+	}
+
+	private enum Operation {
+		UNION, INTERSECTION, DIFFERENCE
+	}
+
+	/**
+	 * One step of union, intersection or difference: split b around the root
+	 * of a, recurse on both sides and join the results
+	 */
+	private static final class SetOperation<K extends Comparable<K>, V> extends RecursiveTask<Tree<K, V>> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Operation operation;
+		private final Tree<K, V> a, b;
+		private final BinaryOperator<V> combiner;
+		//levels left whose halves are run in parallel
+		private final int forkDepth;
+
+		SetOperation(Operation operation, Tree<K, V> a, Tree<K, V> b, BinaryOperator<V> combiner, int forkDepth) {
+			this.operation = operation;
+			this.a = a;
+			this.b = b;
+			this.combiner = combiner;
+			this.forkDepth = forkDepth;
+		}
+
+		protected Tree<K, V> compute() {
+			//one side is empty so the answer is known without looking at the other
+			if (!(a instanceof NonEmptyTree)) {
+				return operation == Operation.UNION ? b : a;
+			}
+			if (!(b instanceof NonEmptyTree)) {
+				return operation == Operation.INTERSECTION ? b : a;
+			}
+			NonEmptyTree<K, V> root = (NonEmptyTree<K, V>) a;
+			Split<K, V> split = split(b, root.getKey());
+			SetOperation<K, V> leftTask = new SetOperation<K, V>(operation, root.getLeft(), split.left, combiner,
+					forkDepth - 1);
+			SetOperation<K, V> rightTask = new SetOperation<K, V>(operation, root.getRight(), split.right, combiner,
+					forkDepth - 1);
+			Tree<K, V> left, right;
+			if (forkDepth > 0) {
+				//the two halves share no nodes, so one can run on another worker
+				rightTask.fork();
+				left = leftTask.compute();
+				right = rightTask.join();
+			} else {
+				left = leftTask.compute();
+				right = rightTask.compute();
+			}
+			boolean inB = split.middle != null;
+			if (inB && operation != Operation.DIFFERENCE) {
+				root.setValue(combiner.apply(root.getValue(), split.middle.getValue()));
+			}
+			//the root of a stays if it belongs to the result, otherwise the halves are joined without it
+			boolean keep = operation == Operation.UNION || (operation == Operation.INTERSECTION) == inB;
+			return keep ? TreeJoins.join(left, root, right) : TreeJoins.join(left, right);
+		}
+	}
+}
@@ -1,13 +1,44 @@
 package tests;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Scanner;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
 import static org.junit.Assert.*;
 
 import org.junit.Test;
 
+import searchTree.AdaptiveRadixTreeMap;
+import searchTree.AggregateSearchTreeMap;
+import searchTree.BTree;
+import searchTree.ConcurrentSearchTreeMap;
+import searchTree.Codec;
+import searchTree.Counter;
+import searchTree.DiskSearchTreeMap;
 import searchTree.EmptyTree;
+import searchTree.FrontCodedStringMap;
+import searchTree.FrozenSearchTreeMap;
+import searchTree.IntSearchTreeMap;
+import searchTree.Monoid;
 import searchTree.SearchTreeMap;
+import searchTree.SplayTree;
 import searchTree.Tree;
+import wordCount.CorpusIndexer;
+import wordCount.CountMinSketch;
+import wordCount.IncrementalWordCounter;
+import wordCount.InvertedIndex;
+import wordCount.SpaceSaving;
+import wordCount.WordCountEngine;
 
 public class PublicTests{
 	
@@ -65,4 +96,608 @@ public class PublicTests{
 		
 	}
 	
+	@Test
+	public void testConcurrentUpdateKeepsEveryIncrement() throws InterruptedException {
+		final ConcurrentSearchTreeMap<String, Integer> s = new ConcurrentSearchTreeMap<String, Integer>();
+		Thread[] threads = new Thread[8];
+		for (int t = 0; t < threads.length; t++) {
+			threads[t] = new Thread(new Runnable() {
+				public void run() {
+					for (int i = 0; i < 1000; i++) {
+						s.update("word" + (i % 10), (k, v) -> v == null ? 1 : v + 1);
+					}
+				}
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertEquals(10, s.size());
+		assertEquals(Integer.valueOf(800), s.get("word3"));
+		assertEquals("word0", s.getMin());
+		assertEquals("word9", s.getMax());
+		assertEquals(3, s.subMap("word2", "word4").size());
+	}
+	
+	@Test
+	public void testBTreeMatchesTreeMap() {
+		SearchTreeMap<Integer, Integer> s = new SearchTreeMap<Integer, Integer>(new BTree<Integer, Integer>(4));
+		TreeMap<Integer, Integer> expected = new TreeMap<Integer, Integer>();
+		Random random = new Random(132);
+		for (int i = 0; i < 5000; i++) {
+			int key = random.nextInt(500);
+			if (random.nextInt(3) == 0) {
+				s.remove(key);
+				expected.remove(key);
+			} else {
+				s.put(key, i);
+				expected.put(key, i);
+			}
+			assertEquals(expected.size(), s.size());
+			assertEquals(expected.get(key), s.get(key));
+		}
+		assertEquals(new ArrayList<Integer>(expected.keySet()), s.keyList());
+		assertEquals(expected.firstKey(), s.getMin());
+		assertEquals(expected.lastKey(), s.getMax());
+		assertEquals(new ArrayList<Integer>(expected.subMap(100, true, 200, true).keySet()),
+				s.subMap(100, 200).keyList());
+		for (int key = 0; key < 500; key++) {
+			s.remove(key);
+		}
+		assertEquals(0, s.size());
+		assertEquals(null, s.get(7));
+	}
+	
+	@Test
+	public void testFromSortedAndMerge() {
+		List<Map.Entry<Integer, Integer>> entries = new ArrayList<Map.Entry<Integer, Integer>>();
+		for (int i = 0; i < 100000; i += 2) {
+			entries.add(new AbstractMap.SimpleImmutableEntry<Integer, Integer>(i, 1));
+		}
+		SearchTreeMap<Integer, Integer> evens = SearchTreeMap.fromSorted(entries.iterator());
+		assertEquals(50000, evens.size());
+		assertEquals(Integer.valueOf(0), evens.getMin());
+		assertEquals(Integer.valueOf(99998), evens.getMax());
+		assertEquals(Integer.valueOf(1), evens.get(5000));
+		assertEquals(null, evens.get(5001));
+		
+		SearchTreeMap<Integer, Integer> small = new SearchTreeMap<Integer, Integer>();
+		small.put(3, 1);
+		small.put(4, 1);
+		small.put(100001, 1);
+		SearchTreeMap<Integer, Integer> merged = SearchTreeMap.merge(evens, small, Integer::sum);
+		assertEquals(50002, merged.size());
+		assertEquals(Integer.valueOf(2), merged.get(4));
+		assertEquals(Integer.valueOf(1), merged.get(3));
+		assertEquals(Integer.valueOf(100001), merged.getMax());
+		assertEquals(Integer.valueOf(1), evens.get(4));
+	}
+	
+	@Test
+	public void testUnionIntersectionDifference() {
+		Random random = new Random(2022);
+		TreeMap<Integer, Integer> a = new TreeMap<Integer, Integer>();
+		TreeMap<Integer, Integer> b = new TreeMap<Integer, Integer>();
+		for (int i = 0; i < 20000; i++) {
+			a.put(random.nextInt(50000), 1);
+			b.put(random.nextInt(50000), 10);
+		}
+		TreeMap<Integer, Integer> union = new TreeMap<Integer, Integer>(a);
+		TreeMap<Integer, Integer> intersection = new TreeMap<Integer, Integer>();
+		TreeMap<Integer, Integer> difference = new TreeMap<Integer, Integer>(a);
+		for (Integer key : b.keySet()) {
+			union.merge(key, 10, Integer::sum);
+			difference.remove(key);
+			if (a.containsKey(key)) {
+				intersection.put(key, 11);
+			}
+		}
+		
+		SearchTreeMap<Integer, Integer> result = SearchTreeMap.unionDestructive(toMap(a), toMap(b), Integer::sum);
+		assertEquals(new ArrayList<Map.Entry<Integer, Integer>>(union.entrySet()), result.entryList());
+		result = SearchTreeMap.intersectionDestructive(toMap(a), toMap(b), Integer::sum);
+		assertEquals(new ArrayList<Map.Entry<Integer, Integer>>(intersection.entrySet()), result.entryList());
+		SearchTreeMap<Integer, Integer> inB = new SearchTreeMap<Integer, Integer>(new BTree<Integer, Integer>());
+		for (Integer key : b.keySet()) {
+			inB.put(key, 10);
+		}
+		SearchTreeMap<Integer, Integer> inA = toMap(a);
+		result = SearchTreeMap.differenceDestructive(inA, inB);
+		assertEquals(new ArrayList<Map.Entry<Integer, Integer>>(difference.entrySet()), result.entryList());
+		assertEquals(0, inA.size());
+		assertEquals(0, inB.size());
+	}
+
+	@Test
+	public void testChainedUnions() {
+		//each union takes the keys of the next block, so the trees being joined differ more and more in height
+		SearchTreeMap<Integer, Integer> result = new SearchTreeMap<Integer, Integer>();
+		TreeMap<Integer, Integer> expected = new TreeMap<Integer, Integer>();
+		for (int block = 0; block < 300; block++) {
+			TreeMap<Integer, Integer> next = new TreeMap<Integer, Integer>();
+			for (int i = 0; i < 50; i++) {
+				next.put(block * 40 + i, block);
+			}
+			for (Map.Entry<Integer, Integer> entry : next.entrySet()) {
+				expected.merge(entry.getKey(), entry.getValue(), Integer::sum);
+			}
+			result = SearchTreeMap.unionDestructive(result, toMap(next), Integer::sum);
+		}
+		assertEquals(new ArrayList<Map.Entry<Integer, Integer>>(expected.entrySet()), result.entryList());
+		result = SearchTreeMap.differenceDestructive(result, toMap(new TreeMap<Integer, Integer>(expected.subMap(1000, true, 5000, true))));
+		assertEquals(expected.size() - 4001, result.size());
+		assertEquals(null, result.get(1000));
+		assertEquals(expected.get(999), result.get(999));
+	}
+	
+	private static SearchTreeMap<Integer, Integer> toMap(TreeMap<Integer, Integer> map) {
+		return SearchTreeMap.fromSorted(map.entrySet().iterator());
+	}
+	
+	@Test
+	public void testRangeAggregates() {
+		AggregateSearchTreeMap<Integer, Integer, Integer> sums = AggregateSearchTreeMap.of(Monoid.integerSum());
+		AggregateSearchTreeMap<Integer, Integer, Integer> maxes = AggregateSearchTreeMap.of(Monoid.<Integer>maximum());
+		TreeMap<Integer, Integer> expected = new TreeMap<Integer, Integer>();
+		Random random = new Random(7);
+		for (int i = 0; i < 3000; i++) {
+			int key = random.nextInt(1000);
+			if (random.nextInt(4) == 0) {
+				sums.remove(key);
+				maxes.remove(key);
+				expected.remove(key);
+			} else {
+				int value = random.nextInt(100);
+				sums.put(key, value);
+				maxes.put(key, value);
+				expected.put(key, value);
+			}
+		}
+		assertEquals(expected.size(), sums.size());
+		for (int from = 0; from < 1000; from += 37) {
+			int to = from + random.nextInt(300);
+			int sum = 0;
+			Integer max = null;
+			for (int value : expected.subMap(from, true, to, true).values()) {
+				sum += value;
+				max = max == null ? value : Math.max(max, value);
+			}
+			assertEquals(Integer.valueOf(sum), sums.aggregate(from, to));
+			assertEquals(max, maxes.aggregate(from, to));
+		}
+		assertEquals(new ArrayList<Integer>(expected.keySet()), sums.keyList());
+	}
+	
+	@Test
+	public void testUpserts() {
+		SearchTreeMap<String, Integer> s = new SearchTreeMap<String, Integer>();
+		assertEquals(Integer.valueOf(1), s.merge("b", 1, Integer::sum));
+		assertEquals(Integer.valueOf(2), s.merge("b", 1, Integer::sum));
+		assertEquals(null, s.putIfAbsent("a", 5));
+		assertEquals(Integer.valueOf(5), s.putIfAbsent("a", 6));
+		assertEquals(Integer.valueOf(5), s.computeIfAbsent("a", k -> 7));
+		assertEquals(Integer.valueOf(10), s.computeIfPresent("a", (k, v) -> v * 2));
+		assertEquals(null, s.computeIfPresent("c", (k, v) -> 1));
+		assertEquals(Integer.valueOf(0), s.getOrDefault("c", 0));
+		assertEquals(null, s.compute("b", (k, v) -> null));
+		assertEquals(1, s.size());
+		assertEquals(Integer.valueOf(10), s.get("a"));
+		
+		SearchTreeMap<String, Counter> counts = new SearchTreeMap<String, Counter>(new BTree<String, Counter>());
+		for (String word : "the cat and the hat and the bat".split(" ")) {
+			counts.computeIfAbsent(word, k -> new Counter()).increment();
+		}
+		assertEquals(3, counts.get("the").get());
+		assertEquals(2, counts.get("and").get());
+		assertEquals(5, counts.size());
+	}
+	
+	@Test
+	public void testIntSearchTreeMap() {
+		IntSearchTreeMap<String> s = new IntSearchTreeMap<String>();
+		TreeMap<Integer, String> expected = new TreeMap<Integer, String>();
+		for (int i = 0; i < 100000; i++) {
+			s.put(i, "v" + i);
+			expected.put(i, "v" + i);
+		}
+		Random random = new Random(1);
+		for (int i = 0; i < 50000; i++) {
+			int key = random.nextInt(100000);
+			s.remove(key);
+			expected.remove(key);
+		}
+		assertEquals(expected.size(), s.size());
+		assertEquals(expected.get(500), s.get(500));
+		assertEquals(expected.firstKey().intValue(), s.getMin());
+		assertEquals(expected.lastKey().intValue(), s.getMax());
+		assertEquals(new ArrayList<Integer>(expected.keySet()), s.keyList());
+		assertEquals(new ArrayList<Integer>(expected.subMap(-5, true, 1000, true).keySet()),
+				s.subMap(-5, 1000).keyList());
+	}
+	
+	@Test
+	public void testAdaptiveRadixTreeMap() {
+		AdaptiveRadixTreeMap<Integer> s = new AdaptiveRadixTreeMap<Integer>();
+		TreeMap<String, Integer> expected = new TreeMap<String, Integer>();
+		Random random = new Random(33);
+		for (int i = 0; i < 20000; i++) {
+			StringBuilder word = new StringBuilder();
+			int length = random.nextInt(6);
+			for (int j = 0; j < length; j++) {
+				word.append((char) (random.nextInt(4) == 0 ? 'A' + random.nextInt(60) : 'a' + random.nextInt(3)));
+			}
+			String key = word.toString();
+			if (random.nextInt(3) == 0) {
+				s.remove(key);
+				expected.remove(key);
+			} else {
+				s.put(key, i);
+				expected.put(key, i);
+			}
+			assertEquals(expected.get(key), s.get(key));
+		}
+		assertEquals(expected.size(), s.size());
+		assertEquals(new ArrayList<String>(expected.keySet()), s.keyList());
+		assertEquals(expected.firstKey(), s.getMin());
+		assertEquals(expected.lastKey(), s.getMax());
+		assertEquals(new ArrayList<String>(expected.subMap("ab", true, "b", true).keySet()),
+				s.subMap("ab", "b").keyList());
+		assertEquals(new ArrayList<String>(expected.subMap("ab", true, "ab\uffff", true).keySet()),
+				s.prefixScan("ab"));
+		for (String key : expected.keySet()) {
+			s.remove(key);
+		}
+		assertEquals(0, s.size());
+		assertEquals(new ArrayList<String>(), s.keyList());
+	}
+	
+	@Test
+	public void testSplayTreeMatchesTreeMap() {
+		SearchTreeMap<Integer, Integer> s = new SearchTreeMap<Integer, Integer>(new SplayTree<Integer, Integer>());
+		TreeMap<Integer, Integer> expected = new TreeMap<Integer, Integer>();
+		//sorted inserts make a long path, which later lookups have to splay
+		for (int i = 0; i < 100000; i++) {
+			s.put(i, i);
+			expected.put(i, i);
+		}
+		Random random = new Random(34);
+		for (int i = 0; i < 20000; i++) {
+			int key = random.nextInt(120000);
+			if (random.nextInt(3) == 0) {
+				s.remove(key);
+				expected.remove(key);
+			} else if (random.nextBoolean()) {
+				s.merge(key, 1, Integer::sum);
+				expected.merge(key, 1, Integer::sum);
+			}
+			assertEquals(expected.get(key), s.get(key));
+		}
+		assertEquals(expected.size(), s.size());
+		assertEquals(expected.firstKey(), s.getMin());
+		assertEquals(expected.lastKey(), s.getMax());
+		assertEquals(new ArrayList<Integer>(expected.keySet()), s.keyList());
+		assertEquals(new ArrayList<Integer>(expected.subMap(500, true, 900, true).keySet()),
+				s.subMap(500, 900).keyList());
+	}
+	
+	@Test
+	public void testSplayTreeComputeRemovesNullBinding() {
+		//a key bound to null is still there, and a null result removes it as NonEmptyTree.compute does
+		for (Tree<Integer, Integer> tree : Arrays.<Tree<Integer, Integer>>asList(new SplayTree<Integer, Integer>(),
+				EmptyTree.<Integer, Integer>getInstance())) {
+			tree = tree.insert(1, 10).insert(2, null).insert(3, 30);
+			tree = tree.compute(2, (key, value) -> null);
+			assertEquals(2, tree.size());
+			assertEquals(Arrays.asList(1, 3), keys(tree));
+		}
+	}
+	
+	private static List<Integer> keys(Tree<Integer, Integer> tree) {
+		List<Integer> keys = new ArrayList<Integer>();
+		tree.addKeysToCollection(keys);
+		return keys;
+	}
+	
+	@Test
+	public void testFreeze() {
+		for (int n = 0; n < 70; n++) {
+			SearchTreeMap<Integer, String> s = new SearchTreeMap<Integer, String>();
+			for (int i = 0; i < n; i++) {
+				s.put((i * 37) % n * 2, "v" + i);
+			}
+			FrozenSearchTreeMap<Integer, String> frozen = s.freeze();
+			assertEquals(s.size(), frozen.size());
+			for (int key = -1; key <= 2 * n; key++) {
+				assertEquals(s.get(key), frozen.get(key));
+			}
+			assertEquals(s.keyList(), frozen.keyList());
+			assertEquals(s.subMap(5, 40).keyList(), frozen.subMap(5, 40).keyList());
+			if (n > 0) {
+				assertEquals(s.getMin(), frozen.getMin());
+				assertEquals(s.getMax(), frozen.getMax());
+			}
+		}
+	}
+	
+	@Test
+	public void testDiskSearchTreeMapSurvivesReopen() throws IOException {
+		Path file = Files.createTempFile("searchTree", ".db");
+		Files.delete(file);
+		TreeMap<Integer, String> expected = new TreeMap<Integer, String>();
+		Random random = new Random(7);
+		try {
+			DiskSearchTreeMap<Integer, String> disk = new DiskSearchTreeMap<Integer, String>(file,
+					Codec.integer(), Codec.string(), 16);
+			for (int i = 0; i < 20000; i++) {
+				int key = random.nextInt(5000);
+				if (random.nextInt(4) == 0) {
+					expected.remove(key);
+					disk.remove(key);
+				} else {
+					String value = "value" + key + "-" + i;
+					expected.put(key, value);
+					disk.put(key, value);
+				}
+			}
+			disk.close();
+			disk = new DiskSearchTreeMap<Integer, String>(file, Codec.integer(), Codec.string(), 16);
+			assertEquals(expected.size(), disk.size());
+			for (int key = -1; key <= 5000; key++) {
+				assertEquals(expected.get(key), disk.get(key));
+			}
+			assertEquals(new ArrayList<Integer>(expected.keySet()), disk.keyList());
+			assertEquals(new ArrayList<Integer>(expected.subMap(100, true, 900, true).keySet()),
+					disk.subMap(100, 900).keyList());
+			assertEquals(expected.firstKey(), disk.getMin());
+			assertEquals(expected.lastKey(), disk.getMax());
+			//changes that were never committed are lost
+			disk.commit();
+			disk.put(-5, "lost");
+			disk = new DiskSearchTreeMap<Integer, String>(file, Codec.integer(), Codec.string(), 16);
+			assertNull(disk.get(-5));
+			disk.close();
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+	
+	@Test
+	public void testDiskSearchTreeMapReusesPagesFreedBeforeReopen() throws IOException {
+		Path file = Files.createTempFile("searchTree", ".db");
+		Files.delete(file);
+		try {
+			long pages = 0;
+			for (int round = 0; round < 10; round++) {
+				DiskSearchTreeMap<Integer, String> disk = new DiskSearchTreeMap<Integer, String>(file,
+						Codec.integer(), Codec.string(), 16);
+				assertEquals(round == 0 ? 0 : round % 2 == 1 ? 3000 : 1500, disk.size());
+				//every leaf is copied, so the pages of the last round are all freed
+				for (int i = 0; i < 3000; i++) {
+					disk.put(i, "value" + i + "-" + round);
+				}
+				if (round % 2 == 1) {
+					for (int i = 0; i < 3000; i += 2) {
+						disk.remove(i);
+					}
+				}
+				disk.close();
+				//the freed pages were saved, so later rounds never need more
+				if (round == 1) {
+					pages = disk.pageCount();
+				} else if (round > 1) {
+					assertEquals(pages, disk.pageCount());
+				}
+			}
+			DiskSearchTreeMap<Integer, String> disk = new DiskSearchTreeMap<Integer, String>(file,
+					Codec.integer(), Codec.string(), 16);
+			for (int i = 0; i < 3000; i++) {
+				assertEquals(i % 2 == 0 ? null : "value" + i + "-9", disk.get(i));
+			}
+			disk.close();
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+	
+	@Test
+	public void testWordCountEngineMatchesScanner() throws IOException {
+		Path file = Files.createTempFile("words", ".txt");
+		try {
+			//enough text for the file to be split into many chunks
+			Random random = new Random(11);
+			StringBuilder text = new StringBuilder();
+			while (text.length() < 1 << 20) {
+				int length = 1 + random.nextInt(12);
+				for (int i = 0; i < length; i++) {
+					char c = (char) ('a' + random.nextInt(3));
+					text.append(random.nextInt(10) == 0 ? Character.toUpperCase(c) : c);
+				}
+				text.append(" ,.\n-'".charAt(random.nextInt(6)));
+			}
+			Files.write(file, text.toString().getBytes());
+			TreeMap<String, Integer> expected = new TreeMap<String, Integer>();
+			Scanner sc = new Scanner(file);
+			Pattern p = Pattern.compile("[a-zA-Z]+");
+			String s;
+			while (sc.hasNextLine()) {
+				while ((s = sc.findInLine(p)) != null) {
+					expected.merge(s, 1, Integer::sum);
+				}
+				sc.nextLine();
+			}
+			sc.close();
+			for (int threads = 1; threads <= 4; threads *= 2) {
+				SearchTreeMap<String, Counter> counts = WordCountEngine.count(file, threads);
+				assertEquals(new ArrayList<String>(expected.keySet()), counts.keyList());
+				for (String word : expected.keySet()) {
+					assertEquals(expected.get(word).intValue(), counts.get(word).get());
+				}
+			}
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+	
+	@Test
+	public void testCorpusIndexer() throws IOException {
+		Path directory = Files.createTempDirectory("corpus");
+		String[] texts = { "Four score and seven years ago", "yesterday all my troubles seemed so far away",
+				"and seven seas, seven years", "" };
+		List<Path> files = new ArrayList<Path>();
+		try {
+			for (int i = 0; i < texts.length; i++) {
+				files.add(Files.write(directory.resolve("text" + i + ".txt"), texts[i].getBytes()));
+			}
+			InvertedIndex index = CorpusIndexer.index(directory);
+			assertEquals(files, index.files());
+			assertEquals(Arrays.asList(files.get(0), files.get(2)), index.search("seven"));
+			assertEquals(Arrays.asList(files.get(0), files.get(2)), index.phraseQuery("seven years"));
+			assertEquals(Arrays.asList(files.get(2)), index.phraseQuery("and seven seas"));
+			assertEquals(Arrays.asList(), index.phraseQuery("years seven"));
+			assertEquals(Arrays.asList(), index.search("missing"));
+			assertEquals(Arrays.asList("seas", "seemed", "seven"), index.prefixWords("se"));
+			assertEquals(Arrays.asList(files.get(0), files.get(1), files.get(2)), index.prefixQuery("s"));
+			assertArrayEquals(new int[] { 1, 3 }, index.postings("seven").positions(2));
+			assertArrayEquals(new int[] { 0, 2 }, index.postings("seven").documents());
+			assertTrue(index.encodedBytes() > 0);
+		} finally {
+			for (Path file : files) {
+				Files.deleteIfExists(file);
+			}
+			Files.deleteIfExists(directory);
+		}
+	}
+	
+	@Test
+	public void testIncrementalWordCounter() throws IOException {
+		Path file = Files.createTempFile("log", ".txt");
+		try {
+			Files.write(file, "hello wor".getBytes());
+			IncrementalWordCounter counter = new IncrementalWordCounter(file, 2);
+			assertTrue(counter.update());
+			assertEquals(Arrays.asList("hello", "wor"), counter.counts().keyList());
+			assertFalse(counter.update());
+			//the last word goes on in the appended bytes
+			Files.write(file, "ld hello again\n".getBytes(), StandardOpenOption.APPEND);
+			assertTrue(counter.update());
+			assertEquals(Arrays.asList("again", "hello", "world"), counter.counts().keyList());
+			assertEquals(2, counter.counts().get("hello").get());
+			assertEquals(Files.size(file), counter.offset());
+			//rewriting the file from the start means counting it all again
+			Files.write(file, "brand new hello world log".getBytes());
+			assertTrue(counter.update());
+			assertEquals(Arrays.asList("brand", "hello", "log", "new", "world"), counter.counts().keyList());
+			assertEquals(1, counter.counts().get("hello").get());
+			Files.write(file, "x\n".getBytes());
+			assertTrue(counter.update());
+			assertEquals(Arrays.asList("x"), counter.counts().keyList());
+			counter.close();
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+	
+	@Test
+	public void testIncrementalWordCounterSurvivesFailedRead() throws IOException {
+		Path file = Files.createTempFile("log", ".txt");
+		try {
+			Files.write(file, "one two".getBytes());
+			boolean[] broken = new boolean[1];
+			IncrementalWordCounter counter = new IncrementalWordCounter(file, 1) {
+				protected SearchTreeMap<String, Counter> countRange(long from, long to) throws IOException {
+					if (broken[0]) {
+						throw new IOException("file is being rotated");
+					}
+					return super.countRange(from, to);
+				}
+			};
+			assertTrue(counter.update());
+			Files.write(file, " three".getBytes(), StandardOpenOption.APPEND);
+			broken[0] = true;
+			//a failed update, twice, must not take the trailing "two" back out of the counts
+			for (int i = 0; i < 2; i++) {
+				try {
+					counter.update();
+					fail("Should have thrown IOException");
+				} catch (IOException e) {
+				}
+				assertEquals(Arrays.asList("one", "two"), counter.counts().keyList());
+				assertEquals(7, counter.offset());
+			}
+			broken[0] = false;
+			assertTrue(counter.update());
+			assertEquals(Arrays.asList("one", "three", "two"), counter.counts().keyList());
+			assertEquals(1, counter.counts().get("two").get());
+			counter.close();
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+	
+	@Test
+	public void testSpaceSavingFindsHeavyHitters() {
+		//a Zipf-like stream: word i appears about 1 / (i + 1) as often as word 0
+		Random random = new Random(3);
+		TreeMap<String, Long> exact = new TreeMap<String, Long>();
+		CountMinSketch<String> sketch = new CountMinSketch<String>(0.001, 0.01);
+		SpaceSaving<String> summary = new SpaceSaving<String>(50, sketch);
+		for (int i = 0; i < 100000; i++) {
+			String word = "w" + (int) Math.floor(Math.exp(random.nextDouble() * Math.log(5000)) - 1);
+			exact.merge(word, 1L, Long::sum);
+			summary.offer(word);
+		}
+		assertEquals(100000, summary.total());
+		List<Map.Entry<String, Long>> top = summary.top(5);
+		assertEquals(5, top.size());
+		for (int i = 0; i < 5; i++) {
+			//the five most frequent words are w0 to w4, and far above the error bound
+			assertEquals("w" + i, top.get(i).getKey());
+			long count = exact.get("w" + i);
+			assertTrue(top.get(i).getValue() >= count);
+			assertTrue(top.get(i).getValue() - summary.error("w" + i) <= count);
+		}
+		for (String word : exact.keySet()) {
+			long count = exact.get(word);
+			assertTrue(sketch.estimate(word) >= count);
+			assertTrue(summary.estimate(word) >= count);
+			assertTrue(summary.estimate(word) <= count + summary.maxError());
+		}
+	}
+	
+	@Test
+	public void testFrontCodedStringMap() {
+		Random random = new Random(5);
+		SearchTreeMap<String, Integer> s = new SearchTreeMap<String, Integer>();
+		for (int i = 0; i < 2000; i++) {
+			//few letters, so neighbouring keys share long prefixes
+			StringBuilder word = new StringBuilder();
+			int length = 1 + random.nextInt(10);
+			for (int j = 0; j < length; j++) {
+				word.append((char) ('a' + random.nextInt(4)));
+			}
+			s.put(word.toString(), i);
+		}
+		s.put("\u00e9t\u00e9", -1);
+		FrontCodedStringMap<Integer> coded = FrontCodedStringMap.of(s);
+		assertEquals(s.size(), coded.size());
+		assertEquals(s.keyList(), coded.keyList());
+		for (String key : s.keyList()) {
+			assertEquals(s.get(key), coded.get(key));
+		}
+		assertNull(coded.get("e"));
+		assertNull(coded.get("zzz"));
+		assertNull(coded.get(""));
+		assertEquals(s.subMap("ab", "bcd").keyList(), coded.subMap("ab", "bcd").keyList());
+		assertEquals(s.subMap("z", "zz").keyList(), coded.subMap("z", "zz").keyList());
+		assertEquals(s.getMin(), coded.getMin());
+		assertEquals(s.getMax(), coded.getMax());
+		List<Map.Entry<String, Integer>> entries = new ArrayList<Map.Entry<String, Integer>>();
+		for (Map.Entry<String, Integer> entry : coded) {
+			entries.add(entry);
+		}
+		assertEquals(s.entryList(), entries);
+		assertEquals(0, FrontCodedStringMap.of(new SearchTreeMap<String, Integer>()).keyList().size());
+	}
+	
 }
\ No newline at end of file
@@ -0,0 +1,198 @@
+package wordCount;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import searchTree.SearchTreeMap;
+
+/**
+ * This class builds an InvertedIndex of many files at once.
+ *
+ * The list of files is split in halves recursively with fork-join, and each
+ * file is indexed on its own into a SearchTreeMap of PostingLists. On the
+ * way back up, the two halves of each split are combined with
+ * SearchTreeMap.merge. Every file in the left half has a smaller number than
+ * every file in the right half, so the postings of a word found in both are
+ * simply the left ones followed by the right ones.
+ *
+ * Files larger than 2 GB are not supported.
+ *
+ */
+public final class CorpusIndexer {
+
+	private CorpusIndexer() {
+	}
+
+	/**
+	 * Index every regular file under a directory. Files are numbered in the
+	 * sorted order of their paths.
+	 *
+	 * @param directory - directory to index
+	 * @return index of the files
+	 * @throws IOException if the directory or a file can't be read
+	 */
+	public static InvertedIndex index(Path directory) throws IOException {
+		List<Path> files;
+		try (Stream<Path> walk = Files.walk(directory)) {
+			files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+		}
+		return index(files);
+	}
+
+	/**
+	 * Index a list of files. Files are numbered by their place in the list.
+	 *
+	 * @param files - files to index
+	 * @return index of the files
+	 * @throws IOException if a file can't be read
+	 */
+	public static InvertedIndex index(List<Path> files) throws IOException {
+		long inputBytes = 0;
+		for (Path file : files) {
+			inputBytes += Files.size(file);
+		}
+		SearchTreeMap<String, PostingList> postings;
+		try {
+			postings = ForkJoinPool.commonPool().invoke(new IndexTask(files, 0, files.size()));
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+		return new InvertedIndex(files, postings, inputBytes);
+	}
+
+	/**
+	 * Index files[from, to), splitting the range in two until it is a
+	 * single file
+	 */
+	private static final class IndexTask extends RecursiveTask<SearchTreeMap<String, PostingList>> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final List<Path> files;
+		private final int from, to;
+
+		IndexTask(List<Path> files, int from, int to) {
+			this.files = files;
+			this.from = from;
+			this.to = to;
+		}
+
+		protected SearchTreeMap<String, PostingList> compute() {
+			if (to - from == 0) {
+				return new SearchTreeMap<String, PostingList>();
+			}
+			if (to - from == 1) {
+				try {
+					return indexFile(files.get(from), from);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}
+			int mid = (from + to) >>> 1;
+			IndexTask left = new IndexTask(files, from, mid);
+			left.fork();
+			SearchTreeMap<String, PostingList> right = new IndexTask(files, mid, to).compute();
+			return SearchTreeMap.merge(left.join(), right, PostingList::concat);
+		}
+	}
+
+	/**
+	 * Positions of one word in the file being indexed
+	 */
+	private static final class Positions {
+		int[] positions = new int[4];
+		int count;
+
+		void add(int position) {
+			if (count == positions.length) {
+				positions = Arrays.copyOf(positions, count * 2);
+			}
+			positions[count++] = position;
+		}
+	}
+
+	/**
+	 * Index a single file
+	 */
+	private static SearchTreeMap<String, PostingList> indexFile(Path file, int document) throws IOException {
+		HashMap<String, Positions> words = new HashMap<String, Positions>();
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE) {
+				throw new IOException(file + " is too large to index");
+			}
+			int length = (int) channel.size();
+			ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+			byte[] word = new byte[64];
+			int position = 0;
+			int start = -1;
+			for (int i = 0; i <= length; i++) {
+				if (i < length && WordCountEngine.isLetter(buffer.get(i))) {
+					if (start < 0) {
+						start = i;
+					}
+				} else if (start >= 0) {
+					int wordLength = i - start;
+					if (wordLength > word.length) {
+						word = new byte[wordLength];
+					}
+					buffer.get(start, word, 0, wordLength);
+					String key = new String(word, 0, wordLength, StandardCharsets.ISO_8859_1);
+					words.computeIfAbsent(key, k -> new Positions()).add(position++);
+					start = -1;
+				}
+			}
+		}
+		ArrayList<Map.Entry<String, PostingList>> entries = new ArrayList<Map.Entry<String, PostingList>>(words.size());
+		for (Map.Entry<String, Positions> entry : words.entrySet()) {
+			Positions positions = entry.getValue();
+			entries.add(new AbstractMap.SimpleImmutableEntry<String, PostingList>(entry.getKey(),
+					PostingList.of(document, positions.positions, positions.count)));
+		}
+		entries.sort(Map.Entry.comparingByKey());
+		return SearchTreeMap.fromSorted(entries.iterator());
+	}
+
+	/**
+	 * Index a directory and print how fast it went and how large the index
+	 * is. Any further arguments are phrases to look up.
+	 *
+	 * <pre>
+	 * java wordCount.CorpusIndexer directory [phrase ...]
+	 * </pre>
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length == 0) {
+			System.err.println("usage: CorpusIndexer directory [phrase ...]");
+			System.exit(1);
+		}
+		long start = System.nanoTime();
+		InvertedIndex index = index(Paths.get(args[0]));
+		double seconds = (System.nanoTime() - start) / 1e9;
+		double megabytes = index.inputBytes() / (1024.0 * 1024.0);
+		double gigabytes = megabytes / 1024.0;
+		System.out.printf("%d files, %.1f MB in %.2f s: %.1f MB/s%n", index.files().size(), megabytes, seconds,
+				megabytes / seconds);
+		System.out.printf("%d words, %d bytes of postings: %.1f MB per GB of input%n", index.wordCount(),
+				index.encodedBytes(), index.encodedBytes() / (1024.0 * 1024.0) / gigabytes);
+		for (int i = 1; i < args.length; i++) {
+			System.out.println(args[i] + ": " + index.phraseQuery(args[i]));
+		}
+	}
+}
@@ -0,0 +1,85 @@
+package wordCount;
+
+/**
+ * A count-min sketch: estimates how many times each item was added, in a
+ * fixed amount of memory no matter how many different items there are.
+ *
+ * The sketch is a table of depth rows of width counters. Adding an item adds
+ * one to a counter in every row, picked by a different hash for each row.
+ * Other items can share those counters, so each one only ever counts too
+ * high, and the estimate is the smallest of them. With width = e / epsilon
+ * and depth = ln(1 / delta), an estimate is more than epsilon * total too
+ * high with probability at most delta.
+ *
+ */
+public class CountMinSketch<K> {
+
+	private final int width;
+	private final int depth;
+	//row i is counts[i * width, (i + 1) * width)
+	private final long[] counts;
+	private long total;
+
+	/**
+	 * Make an empty sketch
+	 *
+	 * @param epsilon - largest error wanted, as a fraction of the total count
+	 * @param delta - probability of an estimate being off by more than that
+	 * @throws IllegalArgumentException if epsilon or delta is not between 0
+	 *             and 1
+	 */
+	public CountMinSketch(double epsilon, double delta) {
+		if (!(epsilon > 0 && epsilon < 1 && delta > 0 && delta < 1)) {
+			throw new IllegalArgumentException();
+		}
+		width = (int) Math.ceil(Math.E / epsilon);
+		depth = (int) Math.ceil(Math.log(1 / delta));
+		counts = new long[width * depth];
+	}
+
+	/**
+	 * Count one more occurrence of item
+	 */
+	public void add(K item) {
+		int h1 = spread(item.hashCode());
+		int h2 = spread(h1 * 0x9e3779b9) | 1;
+		for (int row = 0; row < depth; row++) {
+			counts[row * width + Math.floorMod(h1 + row * h2, width)]++;
+		}
+		total++;
+	}
+
+	/**
+	 * @return an estimate of how many times item was added, never less than
+	 *         the true number
+	 */
+	public long estimate(K item) {
+		int h1 = spread(item.hashCode());
+		int h2 = spread(h1 * 0x9e3779b9) | 1;
+		long estimate = Long.MAX_VALUE;
+		for (int row = 0; row < depth; row++) {
+			estimate = Math.min(estimate, counts[row * width + Math.floorMod(h1 + row * h2, width)]);
+		}
+		return estimate;
+	}
+
+	/**
+	 * @return number of items added
+	 */
+	public long total() {
+		return total;
+	}
+
+	/**
+	 * Mix the bits of a hash code, since the row hashes are taken from it
+	 * with a modulus and the low bits of String hash codes of similar words
+	 * are much alike
+	 */
+	private static int spread(int h) {
+		h ^= h >>> 16;
+		h *= 0x85ebca6b;
+		h ^= h >>> 13;
+		h *= 0xc2b2ae35;
+		return h ^ (h >>> 16);
+	}
+}
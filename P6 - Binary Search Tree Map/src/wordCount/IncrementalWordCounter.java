@@ -0,0 +1,288 @@
+package wordCount;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import searchTree.Counter;
+import searchTree.SearchTreeMap;
+
+/**
+ * Keeps the word counts of a file that grows, like a log, up to date without
+ * reading it again from the start.
+ *
+ * Each update only counts the bytes added since the last one and adds those
+ * counts to the map, so it takes time in proportion to the new data. The
+ * whole file is counted again instead when it has been replaced (its file key
+ * changed), cut short, or had its first bytes changed, since then the
+ * earlier counts no longer match the file.
+ *
+ * A word at the very end of the file may go on in the next bytes written, so
+ * it is taken back out of the counts and counted again with them.
+ *
+ * An update reads everything it needs from the file before it changes
+ * anything, so one that fails part way, for example while the file is being
+ * rotated, leaves the counts as they were and the next update starts over
+ * from the same place.
+ *
+ */
+public class IncrementalWordCounter implements Closeable {
+
+	//how much of the start of the file is checked for changes
+	private static final int HEAD_BYTES = 4096;
+
+	private final Path file;
+	private final int threads;
+	private SearchTreeMap<String, Counter> counts = new SearchTreeMap<String, Counter>();
+	//what the file was like at the last update
+	private Object fileKey;
+	private long offset;
+	private int headLength;
+	private long headChecksum;
+	private String lastWord;
+
+	private Thread follower;
+	private volatile boolean closed;
+
+	/**
+	 * Make a counter for file using one thread per processor. Nothing is
+	 * counted until the first update.
+	 *
+	 * @param file - file to count the words of
+	 */
+	public IncrementalWordCounter(Path file) {
+		this(file, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Make a counter for file. Nothing is counted until the first update.
+	 *
+	 * @param file - file to count the words of
+	 * @param threads - number of threads counting at once
+	 */
+	public IncrementalWordCounter(Path file, int threads) {
+		if (threads < 1) {
+			throw new IllegalArgumentException();
+		}
+		this.file = file;
+		this.threads = threads;
+	}
+
+	/**
+	 * Bring the counts up to date with the file
+	 *
+	 * @return true if the counts changed
+	 * @throws IOException if the file can't be read
+	 */
+	public synchronized boolean update() throws IOException {
+		BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+		long size = attributes.size();
+		Object key = attributes.fileKey() != null ? attributes.fileKey() : attributes.creationTime();
+		boolean rescan = fileKey == null || !fileKey.equals(key) || size < offset
+				|| headChecksum(headLength) != headChecksum;
+		if (!rescan && size == offset) {
+			return false;
+		}
+		//the last word is counted again with the bytes after it
+		long from = rescan ? 0 : lastWord != null ? offset - lastWord.length() : offset;
+		SearchTreeMap<String, Counter> added = countRange(from, size);
+		String newLastWord = trailingWord(from, size);
+		int newHeadLength = (int) Math.min(size, HEAD_BYTES);
+		long newHeadChecksum = headChecksum(newHeadLength);
+		//all the reading is done, so nothing below can fail part way
+		if (rescan) {
+			counts = added;
+			fileKey = key;
+		} else {
+			if (lastWord != null) {
+				uncount(lastWord);
+			}
+			for (Map.Entry<String, Counter> entry : added.entryList()) {
+				counts.merge(entry.getKey(), entry.getValue(), WordCountEngine::addCounts);
+			}
+		}
+		lastWord = newLastWord;
+		offset = size;
+		headLength = newHeadLength;
+		headChecksum = newHeadChecksum;
+		return true;
+	}
+
+	/**
+	 * Count the words of bytes from to to - 1 of the file. Subclasses may
+	 * override this, for example to count another way or to see how updates
+	 * cope with a read that fails.
+	 *
+	 * @param from - first byte to count, at the start of a word
+	 * @param to - end of the bytes to count
+	 * @return map from every word in the range to its count
+	 * @throws IOException if the file can't be read
+	 */
+	protected SearchTreeMap<String, Counter> countRange(long from, long to) throws IOException {
+		return WordCountEngine.count(file, from, to, threads);
+	}
+
+	/**
+	 * Return the counts as of the last update. The map is changed in place
+	 * by update, so it must not be read while an update may be running.
+	 *
+	 * @return map from every word to the number of times it appears
+	 */
+	public synchronized SearchTreeMap<String, Counter> counts() {
+		return counts;
+	}
+
+	/**
+	 * @return number of bytes of the file counted so far
+	 */
+	public synchronized long offset() {
+		return offset;
+	}
+
+	/**
+	 * Update the counts on a new thread whenever the file changes, until
+	 * close is called. Changes are noticed with a WatchService on the file's
+	 * directory where the file system supports one, and the file is also
+	 * checked every pollMillis milliseconds in case a change is missed.
+	 *
+	 * @param pollMillis - longest time between checks of the file
+	 * @param listener - run on the following thread after each update that
+	 *            changed the counts; counts() may be read safely from it
+	 */
+	public synchronized void follow(long pollMillis, Runnable listener) {
+		if (follower != null || closed) {
+			throw new IllegalStateException();
+		}
+		follower = new Thread(() -> followLoop(pollMillis, listener), "follow " + file.getFileName());
+		follower.setDaemon(true);
+		follower.start();
+	}
+
+	/**
+	 * Stop following the file
+	 */
+	public void close() {
+		closed = true;
+		Thread thread;
+		synchronized (this) {
+			thread = follower;
+		}
+		if (thread != null) {
+			thread.interrupt();
+		}
+	}
+
+	private void followLoop(long pollMillis, Runnable listener) {
+		WatchService watcher = null;
+		try {
+			watcher = file.getFileSystem().newWatchService();
+			file.toAbsolutePath().getParent().register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+					StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+		} catch (IOException | UnsupportedOperationException e) {
+			//no change notifications, so the file is only polled
+			closeQuietly(watcher);
+			watcher = null;
+		}
+		try {
+			while (!closed) {
+				try {
+					if (update()) {
+						listener.run();
+					}
+				} catch (IOException e) {
+					//the file may be in the middle of being rotated, so try again on the next check
+				}
+				if (watcher == null) {
+					Thread.sleep(pollMillis);
+				} else {
+					WatchKey key = watcher.poll(pollMillis, TimeUnit.MILLISECONDS);
+					if (key != null) {
+						key.pollEvents();
+						key.reset();
+					}
+				}
+			}
+		} catch (InterruptedException | ClosedWatchServiceException e) {
+			//close was called
+		} finally {
+			closeQuietly(watcher);
+		}
+	}
+
+	private static void closeQuietly(WatchService watcher) {
+		if (watcher != null) {
+			try {
+				watcher.close();
+			} catch (IOException e) {
+			}
+		}
+	}
+
+	/**
+	 * Take one occurrence of word back out of the counts
+	 */
+	private void uncount(String word) {
+		Counter counter = counts.get(word);
+		if (counter == null) {
+			//nothing to take back
+			return;
+		}
+		if (counter.get() == 1) {
+			counts.remove(word);
+		} else {
+			counter.add(-1);
+		}
+	}
+
+	/**
+	 * @return the word that ends at to, no earlier than from, or null if the
+	 *         byte before to isn't a letter
+	 */
+	private String trailingWord(long from, long to) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			ByteBuffer one = ByteBuffer.allocate(1);
+			long start = to;
+			while (start > from) {
+				one.clear();
+				channel.read(one, start - 1);
+				if (!WordCountEngine.isLetter(one.get(0))) {
+					break;
+				}
+				start--;
+			}
+			if (start == to) {
+				return null;
+			}
+			ByteBuffer word = ByteBuffer.allocate((int) (to - start));
+			channel.read(word, start);
+			return new String(word.array(), StandardCharsets.ISO_8859_1);
+		}
+	}
+
+	/**
+	 * @return checksum of the first length bytes of the file
+	 */
+	private long headChecksum(int length) throws IOException {
+		ByteBuffer head = ByteBuffer.allocate(length);
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			while (head.hasRemaining() && channel.read(head, head.position()) > 0) {
+			}
+		}
+		CRC32 crc = new CRC32();
+		crc.update(head.array(), 0, head.position());
+		return crc.getValue();
+	}
+}
@@ -0,0 +1,162 @@
+package wordCount;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+
+import searchTree.SearchTreeMap;
+
+/**
+ * An index from every word of a set of files to the files it appears in and
+ * where, made by CorpusIndexer. Files are numbered by their place in
+ * files(), and words are the runs of ASCII letters that WordCountEngine
+ * counts.
+ *
+ */
+public class InvertedIndex {
+
+	private final List<Path> files;
+	private final SearchTreeMap<String, PostingList> postings;
+	private final long inputBytes;
+
+	InvertedIndex(List<Path> files, SearchTreeMap<String, PostingList> postings, long inputBytes) {
+		this.files = Collections.unmodifiableList(new ArrayList<Path>(files));
+		this.postings = postings;
+		this.inputBytes = inputBytes;
+	}
+
+	/**
+	 * @return the indexed files, in the order they are numbered
+	 */
+	public List<Path> files() {
+		return files;
+	}
+
+	/**
+	 * @return number of distinct words in the index
+	 */
+	public int wordCount() {
+		return postings.size();
+	}
+
+	/**
+	 * @return total size of the indexed files in bytes
+	 */
+	public long inputBytes() {
+		return inputBytes;
+	}
+
+	/**
+	 * @return total size of the encoded postings in bytes
+	 */
+	public long encodedBytes() {
+		long bytes = 0;
+		for (String word : postings.keyList()) {
+			bytes += postings.get(word).byteSize();
+		}
+		return bytes;
+	}
+
+	/**
+	 * @param word - word to look up
+	 * @return postings of the word, or null if it isn't in any file
+	 */
+	public PostingList postings(String word) {
+		return postings.get(word);
+	}
+
+	/**
+	 * @param word - word to look for
+	 * @return the files containing the word, in order
+	 */
+	public List<Path> search(String word) {
+		return phraseQuery(word);
+	}
+
+	/**
+	 * Find the files where the words of the phrase appear one right after the
+	 * other. Anything that isn't a letter in the phrase only separates words.
+	 *
+	 * @param phrase - words to look for
+	 * @return the files containing the phrase, in order
+	 */
+	public List<Path> phraseQuery(String phrase) {
+		List<String> words = new ArrayList<String>();
+		for (String word : phrase.split("[^a-zA-Z]+")) {
+			if (!word.isEmpty()) {
+				words.add(word);
+			}
+		}
+		List<Path> found = new ArrayList<Path>();
+		if (words.isEmpty()) {
+			return found;
+		}
+		PostingList[] lists = new PostingList[words.size()];
+		for (int i = 0; i < lists.length; i++) {
+			lists[i] = postings.get(words.get(i));
+			if (lists[i] == null) {
+				return found;
+			}
+		}
+		for (int document : lists[0].documents()) {
+			if (containsPhrase(lists, document)) {
+				found.add(files.get(document));
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * @param prefix - start of the words to look for
+	 * @return the words in the index starting with prefix, in sorted order
+	 */
+	public List<String> prefixWords(String prefix) {
+		//every word starting with prefix sorts between prefix and prefix followed by the largest char
+		return postings.subMap(prefix, prefix + Character.MAX_VALUE).keyList();
+	}
+
+	/**
+	 * @param prefix - start of the words to look for
+	 * @return the files containing a word that starts with prefix, in order
+	 */
+	public List<Path> prefixQuery(String prefix) {
+		TreeSet<Integer> documents = new TreeSet<Integer>();
+		for (String word : prefixWords(prefix)) {
+			for (int document : postings.get(word).documents()) {
+				documents.add(document);
+			}
+		}
+		List<Path> found = new ArrayList<Path>();
+		for (int document : documents) {
+			found.add(files.get(document));
+		}
+		return found;
+	}
+
+	/**
+	 * @return true if word i of the phrase is at position p + i of the
+	 *         document for some p
+	 */
+	private static boolean containsPhrase(PostingList[] lists, int document) {
+		int[][] positions = new int[lists.length][];
+		for (int i = 0; i < lists.length; i++) {
+			positions[i] = lists[i].positions(document);
+			if (positions[i].length == 0) {
+				return false;
+			}
+		}
+		for (int start : positions[0]) {
+			int i = 1;
+			while (i < lists.length && Arrays.binarySearch(positions[i], start + i) >= 0) {
+				i++;
+			}
+			if (i == lists.length) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
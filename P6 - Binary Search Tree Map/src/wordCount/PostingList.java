@@ -0,0 +1,190 @@
+package wordCount;
+
+import java.util.Arrays;
+
+/**
+ * The postings of one word in an InvertedIndex: the documents the word
+ * appears in, and its positions (counted in words) in each of them.
+ *
+ * The postings are stored as one byte array of varints. For each document
+ * there is the gap from the previous document, the number of positions, and
+ * the gap from each position to the one before it. Gaps are small numbers,
+ * and a varint stores numbers below 128 in one byte, so most postings take a
+ * byte or two instead of the eight of a pair of ints.
+ *
+ * A PostingList never changes once it is made.
+ *
+ */
+public final class PostingList {
+
+	private final byte[] bytes;
+	private final int documentCount;
+	private final int lastDocument;
+
+	private PostingList(byte[] bytes, int documentCount, int lastDocument) {
+		this.bytes = bytes;
+		this.documentCount = documentCount;
+		this.lastDocument = lastDocument;
+	}
+
+	/**
+	 * Make the postings of a word that appears in a single document
+	 *
+	 * @param document - number of the document
+	 * @param positions - positions of the word in increasing order, in
+	 *            positions[0, count)
+	 * @param count - number of positions
+	 */
+	static PostingList of(int document, int[] positions, int count) {
+		Output out = new Output(count + 8);
+		out.write(document);
+		out.write(count);
+		int previous = 0;
+		for (int i = 0; i < count; i++) {
+			out.write(positions[i] - previous);
+			previous = positions[i];
+		}
+		return new PostingList(out.toArray(), 1, document);
+	}
+
+	/**
+	 * Join the postings of the same word from two sets of documents
+	 *
+	 * @param a - postings from the first documents
+	 * @param b - postings from later documents only
+	 * @return the postings of a followed by those of b
+	 */
+	static PostingList concat(PostingList a, PostingList b) {
+		//only the first gap of b changes: it was from document 0 and is now from a's last document
+		int[] next = new int[1];
+		int firstDocument = readVarint(b.bytes, 0, next);
+		Output out = new Output(a.bytes.length + b.bytes.length + 4);
+		out.write(a.bytes, 0, a.bytes.length);
+		out.write(firstDocument - a.lastDocument);
+		out.write(b.bytes, next[0], b.bytes.length - next[0]);
+		return new PostingList(out.toArray(), a.documentCount + b.documentCount, b.lastDocument);
+	}
+
+	/**
+	 * @return number of documents the word appears in
+	 */
+	public int documentCount() {
+		return documentCount;
+	}
+
+	/**
+	 * @return number of bytes the encoded postings take
+	 */
+	public int byteSize() {
+		return bytes.length;
+	}
+
+	/**
+	 * @return the documents the word appears in, in increasing order
+	 */
+	public int[] documents() {
+		int[] documents = new int[documentCount];
+		int[] next = new int[1];
+		int document = 0;
+		for (int i = 0; i < documentCount; i++) {
+			document += readVarint(bytes, next[0], next);
+			documents[i] = document;
+			int count = readVarint(bytes, next[0], next);
+			skipVarints(count, next);
+		}
+		return documents;
+	}
+
+	/**
+	 * @param document - number of a document
+	 * @return positions of the word in the document in increasing order, or
+	 *         an empty array if the word isn't in it
+	 */
+	public int[] positions(int document) {
+		int[] next = new int[1];
+		int current = 0;
+		for (int i = 0; i < documentCount && current <= document; i++) {
+			current += readVarint(bytes, next[0], next);
+			int count = readVarint(bytes, next[0], next);
+			if (current == document) {
+				int[] positions = new int[count];
+				int position = 0;
+				for (int j = 0; j < count; j++) {
+					position += readVarint(bytes, next[0], next);
+					positions[j] = position;
+				}
+				return positions;
+			}
+			skipVarints(count, next);
+		}
+		return new int[0];
+	}
+
+	private void skipVarints(int count, int[] next) {
+		int index = next[0];
+		while (count > 0) {
+			//the last byte of a varint is the one without the high bit
+			if (bytes[index++] >= 0) {
+				count--;
+			}
+		}
+		next[0] = index;
+	}
+
+	/**
+	 * Read the varint starting at bytes[index]
+	 *
+	 * @param next - next[0] is set to the index after the varint
+	 */
+	private static int readVarint(byte[] bytes, int index, int[] next) {
+		int value = 0;
+		int shift = 0;
+		byte b;
+		do {
+			b = bytes[index++];
+			value |= (b & 0x7f) << shift;
+			shift += 7;
+		} while (b < 0);
+		next[0] = index;
+		return value;
+	}
+
+	/**
+	 * A growing byte array that non negative ints are written to as varints:
+	 * seven bits per byte, low bits first, with the high bit set on every
+	 * byte but the last
+	 */
+	private static final class Output {
+		private byte[] bytes;
+		private int size;
+
+		Output(int capacity) {
+			bytes = new byte[capacity];
+		}
+
+		void write(int value) {
+			ensure(5);
+			while ((value & ~0x7f) != 0) {
+				bytes[size++] = (byte) ((value & 0x7f) | 0x80);
+				value >>>= 7;
+			}
+			bytes[size++] = (byte) value;
+		}
+
+		void write(byte[] source, int from, int length) {
+			ensure(length);
+			System.arraycopy(source, from, bytes, size, length);
+			size += length;
+		}
+
+		byte[] toArray() {
+			return Arrays.copyOf(bytes, size);
+		}
+
+		private void ensure(int extra) {
+			if (size + extra > bytes.length) {
+				bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+			}
+		}
+	}
+}
@@ -0,0 +1,246 @@
+package wordCount;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds the most frequent items of a stream with the Space-Saving algorithm,
+ * keeping at most capacity counters no matter how many different items the
+ * stream has.
+ *
+ * An item that already has a counter adds one to it. A new item takes a free
+ * counter if there is one, and otherwise takes over the counter with the
+ * smallest count, min, starting at min + 1 with an error of min. So every
+ * count is at most total / capacity too high, and every item seen more than
+ * total / capacity times is sure to have a counter.
+ *
+ * Counters are kept in a stream summary: a list of buckets in increasing
+ * order of count, each holding the counters with that count. Adding to a
+ * counter moves it to the next bucket, and the smallest counter is the
+ * first one of the first bucket, so each item takes O(1) time.
+ *
+ * A CountMinSketch can be given as well, to estimate the counts of items
+ * that have no counter and to tighten the estimates of those that do.
+ *
+ */
+public class SpaceSaving<K> {
+
+	private final int capacity;
+	private final CountMinSketch<K> sketch;
+	private final HashMap<K, Node<K>> nodes = new HashMap<K, Node<K>>();
+	private Bucket<K> smallest, largest;
+	private long total;
+
+	/**
+	 * The counters that have the same count, in a list of buckets ordered by
+	 * count
+	 */
+	private static final class Bucket<K> {
+		final long count;
+		Bucket<K> previous, next;
+		Node<K> first;
+
+		Bucket(long count) {
+			this.count = count;
+		}
+	}
+
+	/**
+	 * One counter, in the list of counters of its bucket
+	 */
+	private static final class Node<K> {
+		K item;
+		long error;
+		Bucket<K> bucket;
+		Node<K> previous, next;
+	}
+
+	/**
+	 * Make a summary with the given number of counters
+	 *
+	 * @param capacity - number of counters
+	 */
+	public SpaceSaving(int capacity) {
+		this(capacity, null);
+	}
+
+	/**
+	 * Make a summary with the given number of counters that also adds every
+	 * item to sketch
+	 *
+	 * @param capacity - number of counters
+	 * @param sketch - sketch for estimating the counts of any item, or null
+	 */
+	public SpaceSaving(int capacity, CountMinSketch<K> sketch) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException();
+		}
+		this.capacity = capacity;
+		this.sketch = sketch;
+	}
+
+	/**
+	 * Count one more occurrence of item
+	 */
+	public void offer(K item) {
+		total++;
+		if (sketch != null) {
+			sketch.add(item);
+		}
+		Node<K> node = nodes.get(item);
+		if (node != null) {
+			increment(node);
+		} else if (nodes.size() < capacity) {
+			node = new Node<K>();
+			node.item = item;
+			nodes.put(item, node);
+			//a new counter starts at 1, which is the smallest count there can be
+			if (smallest == null || smallest.count != 1) {
+				Bucket<K> bucket = new Bucket<K>(1);
+				linkBucket(bucket, null, smallest);
+			}
+			addToBucket(node, smallest);
+		} else {
+			//take over the counter of an item with the smallest count
+			node = smallest.first;
+			nodes.remove(node.item);
+			node.item = item;
+			node.error = smallest.count;
+			nodes.put(item, node);
+			increment(node);
+		}
+	}
+
+	/**
+	 * @return an upper bound on the number of times item was offered. It is
+	 *         exact for items that never lost a counter.
+	 */
+	public long estimate(K item) {
+		Node<K> node = nodes.get(item);
+		long estimate;
+		if (node != null) {
+			estimate = node.bucket.count;
+		} else if (nodes.size() < capacity) {
+			//no counter was ever taken over, so every item seen has one
+			estimate = 0;
+		} else {
+			//an item without a counter was seen at most as often as the smallest count
+			estimate = smallest.count;
+		}
+		if (sketch != null) {
+			estimate = Math.min(estimate, sketch.estimate(item));
+		}
+		return estimate;
+	}
+
+	/**
+	 * @return how much the counter of item may be too high, or -1 if item has
+	 *         no counter
+	 */
+	public long error(K item) {
+		Node<K> node = nodes.get(item);
+		return node != null ? node.error : -1;
+	}
+
+	/**
+	 * Return the k items with the largest counts, largest first
+	 *
+	 * @param k - number of items wanted
+	 * @return list of entries from item to its count
+	 */
+	public List<Map.Entry<K, Long>> top(int k) {
+		List<Map.Entry<K, Long>> top = new ArrayList<Map.Entry<K, Long>>();
+		for (Bucket<K> bucket = largest; bucket != null && top.size() < k; bucket = bucket.previous) {
+			for (Node<K> node = bucket.first; node != null && top.size() < k; node = node.next) {
+				top.add(new AbstractMap.SimpleImmutableEntry<K, Long>(node.item, bucket.count));
+			}
+		}
+		return top;
+	}
+
+	/**
+	 * @return number of items offered
+	 */
+	public long total() {
+		return total;
+	}
+
+	/**
+	 * @return the most any count can be too high, total / capacity
+	 */
+	public long maxError() {
+		return total / capacity;
+	}
+
+	/**
+	 * Move node to the bucket one count higher, making it if needed
+	 */
+	private void increment(Node<K> node) {
+		Bucket<K> bucket = node.bucket;
+		Bucket<K> next = bucket.next;
+		if (next == null || next.count != bucket.count + 1) {
+			next = new Bucket<K>(bucket.count + 1);
+			linkBucket(next, bucket, bucket.next);
+		}
+		removeFromBucket(node);
+		addToBucket(node, next);
+	}
+
+	private void addToBucket(Node<K> node, Bucket<K> bucket) {
+		node.bucket = bucket;
+		node.previous = null;
+		node.next = bucket.first;
+		if (bucket.first != null) {
+			bucket.first.previous = node;
+		}
+		bucket.first = node;
+	}
+
+	/**
+	 * Take node out of its bucket, and drop the bucket if it is left empty
+	 */
+	private void removeFromBucket(Node<K> node) {
+		Bucket<K> bucket = node.bucket;
+		if (node.previous != null) {
+			node.previous.next = node.next;
+		} else {
+			bucket.first = node.next;
+		}
+		if (node.next != null) {
+			node.next.previous = node.previous;
+		}
+		if (bucket.first == null) {
+			if (bucket.previous != null) {
+				bucket.previous.next = bucket.next;
+			} else {
+				smallest = bucket.next;
+			}
+			if (bucket.next != null) {
+				bucket.next.previous = bucket.previous;
+			} else {
+				largest = bucket.previous;
+			}
+		}
+	}
+
+	/**
+	 * Put bucket between previous and next in the bucket list
+	 */
+	private void linkBucket(Bucket<K> bucket, Bucket<K> previous, Bucket<K> next) {
+		bucket.previous = previous;
+		bucket.next = next;
+		if (previous != null) {
+			previous.next = bucket;
+		} else {
+			smallest = bucket;
+		}
+		if (next != null) {
+			next.previous = bucket;
+		} else {
+			largest = bucket;
+		}
+	}
+}
@@ -0,0 +1,78 @@
+package wordCount;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import searchTree.Counter;
+import searchTree.SearchTreeMap;
+
+/**
+ * Count the words of a file from the command line:
+ *
+ * <pre>
+ * java wordCount.WordCountCLI [-threads n] file
+ * java wordCount.WordCountCLI -bench file
+ * </pre>
+ *
+ * The first form prints every word and its count in sorted order. The second
+ * counts the file with 1, 2, 4, ... threads, up to the number of processors,
+ * and prints the best throughput of a few runs for each.
+ *
+ */
+public class WordCountCLI {
+
+	private static final int BENCH_RUNS = 3;
+
+	public static void main(String[] args) throws IOException {
+		int threads = Runtime.getRuntime().availableProcessors();
+		boolean bench = false;
+		Path file = null;
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals("-bench")) {
+				bench = true;
+			} else if (args[i].equals("-threads") && i + 1 < args.length) {
+				threads = Integer.parseInt(args[++i]);
+			} else {
+				file = Paths.get(args[i]);
+			}
+		}
+		if (file == null) {
+			System.err.println("usage: WordCountCLI [-threads n | -bench] file");
+			System.exit(1);
+		}
+		if (bench) {
+			bench(file);
+			return;
+		}
+		SearchTreeMap<String, Counter> counts = WordCountEngine.count(file, threads);
+		PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out)));
+		for (String word : counts.keyList()) {
+			out.println(word + " " + counts.get(word));
+		}
+		out.flush();
+	}
+
+	private static void bench(Path file) throws IOException {
+		double megabytes = Files.size(file) / (1024.0 * 1024.0);
+		int processors = Runtime.getRuntime().availableProcessors();
+		for (int threads = 1;; threads = Math.min(threads * 2, processors)) {
+			long best = Long.MAX_VALUE;
+			int words = 0;
+			for (int run = 0; run < BENCH_RUNS; run++) {
+				long start = System.nanoTime();
+				words = WordCountEngine.count(file, threads).size();
+				best = Math.min(best, System.nanoTime() - start);
+			}
+			System.out.printf("%2d threads: %8.1f MB/s (%d distinct words)%n", threads,
+					megabytes / (best / 1e9), words);
+			if (threads == processors) {
+				break;
+			}
+		}
+	}
+}
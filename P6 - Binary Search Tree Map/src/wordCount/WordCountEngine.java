@@ -0,0 +1,335 @@
+package wordCount;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+import searchTree.Counter;
+import searchTree.SearchTreeMap;
+
+/**
+ * This class counts the words of a file without a GUI. A word is a run of
+ * ASCII letters, the same words the pattern [a-zA-Z]+ finds, and case is
+ * kept.
+ *
+ * <ul>
+ * <li>The file is split into chunks whose ends are moved forward to the end
+ * of a word, so no word is cut in two.
+ * <li>Each chunk is memory mapped and its bytes are tokenized directly, with
+ * no regular expression and no String per word.
+ * <li>Several threads take chunks in turn, each counting into its own
+ * WordTable, so they never wait for each other.
+ * <li>Each thread's counts become a SearchTreeMap, and those maps are merged
+ * pairwise with SearchTreeMap.merge, so the final map is perfectly balanced.
+ * </ul>
+ *
+ */
+public final class WordCountEngine {
+
+	private static final long MIN_CHUNK = 1 << 16;
+	private static final long MAX_CHUNK = 1 << 26;
+	//how many chunks each thread gets, so a slow chunk doesn't hold up the rest
+	private static final int CHUNKS_PER_THREAD = 4;
+	//how much forEachWord maps at a time
+	private static final long WINDOW = 1 << 20;
+
+	private WordCountEngine() {
+	}
+
+	/**
+	 * Count the words of a file using one thread per processor
+	 *
+	 * @param file - file to count the words of
+	 * @return map from every word to the number of times it appears
+	 * @throws IOException if the file can't be read
+	 */
+	public static SearchTreeMap<String, Counter> count(Path file) throws IOException {
+		return count(file, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Count the words of a file
+	 *
+	 * @param file - file to count the words of
+	 * @param threads - number of threads counting at once
+	 * @return map from every word to the number of times it appears
+	 * @throws IOException if the file can't be read
+	 */
+	public static SearchTreeMap<String, Counter> count(Path file, int threads) throws IOException {
+		return count(file, threads, counted -> {
+		});
+	}
+
+	/**
+	 * Count the words of a file, reporting progress as chunks are finished.
+	 * If the calling thread is interrupted the count stops and an
+	 * InterruptedIOException is thrown.
+	 *
+	 * @param file - file to count the words of
+	 * @param threads - number of threads counting at once
+	 * @param progress - called with the number of bytes counted so far each
+	 *            time a chunk is finished. It is called from the counting
+	 *            threads, so it must be thread safe.
+	 * @return map from every word to the number of times it appears
+	 * @throws IOException if the file can't be read
+	 */
+	public static SearchTreeMap<String, Counter> count(Path file, int threads, LongConsumer progress)
+			throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			return count(channel, 0, channel.size(), threads, progress);
+		}
+	}
+
+	/**
+	 * Count the words in the bytes [from, to) of a file. from must be the
+	 * start of a word or follow a byte that isn't a letter, and a word that
+	 * goes on past to is only counted up to to.
+	 *
+	 * @param file - file to count the words of
+	 * @param from - position of the first byte to count
+	 * @param to - position after the last byte to count
+	 * @param threads - number of threads counting at once
+	 * @return map from every word in the range to the number of times it
+	 *         appears there
+	 * @throws IOException if the file can't be read
+	 */
+	public static SearchTreeMap<String, Counter> count(Path file, long from, long to, int threads)
+			throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			if (from < 0 || from > to || to > channel.size()) {
+				throw new IllegalArgumentException();
+			}
+			return count(channel, from, to, threads, counted -> {
+			});
+		}
+	}
+
+	private static SearchTreeMap<String, Counter> count(FileChannel channel, long from, long to, int threads,
+			LongConsumer progress) throws IOException {
+		if (threads < 1) {
+			throw new IllegalArgumentException();
+		}
+		long[] bounds = chunkBounds(channel, from, to, threads);
+		AtomicInteger nextChunk = new AtomicInteger();
+		AtomicLong counted = new AtomicLong();
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<SearchTreeMap<String, Counter>>> futures = new ArrayList<Future<SearchTreeMap<String, Counter>>>();
+			for (int i = 0; i < threads; i++) {
+				futures.add(pool.submit(new Callable<SearchTreeMap<String, Counter>>() {
+					public SearchTreeMap<String, Counter> call() throws IOException {
+						return countChunks(channel, bounds, nextChunk, counted, progress);
+					}
+				}));
+			}
+			List<SearchTreeMap<String, Counter>> maps = new ArrayList<SearchTreeMap<String, Counter>>();
+			for (Future<SearchTreeMap<String, Counter>> future : futures) {
+				maps.add(future.get());
+			}
+			return mergeAll(maps);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	/**
+	 * Give every word of a file to action, in the order they appear, on the
+	 * calling thread. This is for consumers that must see the words one at a
+	 * time, like SpaceSaving, so it makes a String per word. If the calling
+	 * thread is interrupted it stops and an InterruptedIOException is thrown.
+	 *
+	 * @param file - file to read the words of
+	 * @param action - called with each word
+	 * @param progress - called with the number of bytes read so far, about
+	 *            once a megabyte
+	 * @throws IOException if the file can't be read
+	 */
+	public static void forEachWord(Path file, Consumer<String> action, LongConsumer progress) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long size = channel.size();
+			byte[] word = new byte[64];
+			long position = 0;
+			while (position < size) {
+				if (Thread.currentThread().isInterrupted()) {
+					throw new InterruptedIOException();
+				}
+				long end = size - position <= WINDOW ? size : wordBoundary(channel, position + WINDOW, size);
+				int length = (int) (end - position);
+				ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+				int start = -1;
+				for (int i = 0; i <= length; i++) {
+					if (i < length && isLetter(buffer.get(i))) {
+						if (start < 0) {
+							start = i;
+						}
+					} else if (start >= 0) {
+						int wordLength = i - start;
+						if (wordLength > word.length) {
+							word = new byte[wordLength];
+						}
+						buffer.get(start, word, 0, wordLength);
+						action.accept(new String(word, 0, wordLength, StandardCharsets.ISO_8859_1));
+						start = -1;
+					}
+				}
+				position = end;
+				progress.accept(position);
+			}
+		}
+	}
+
+	/**
+	 * Merge counts of the maps pairwise, so every entry takes part in
+	 * O(log(maps)) merges. Each merge rebuilds a balanced tree from the
+	 * sorted entries, so the result is as shallow as it can be however many
+	 * maps there were. Counters of words in more than one map are added to
+	 * and shared with the result, so the maps shouldn't be used afterwards.
+	 */
+	static SearchTreeMap<String, Counter> mergeAll(List<SearchTreeMap<String, Counter>> maps) {
+		if (maps.isEmpty()) {
+			return new SearchTreeMap<String, Counter>();
+		}
+		while (maps.size() > 1) {
+			List<SearchTreeMap<String, Counter>> merged = new ArrayList<SearchTreeMap<String, Counter>>();
+			for (int i = 0; i + 1 < maps.size(); i += 2) {
+				merged.add(SearchTreeMap.merge(maps.get(i), maps.get(i + 1), WordCountEngine::addCounts));
+			}
+			if (maps.size() % 2 == 1) {
+				merged.add(maps.get(maps.size() - 1));
+			}
+			maps = merged;
+		}
+		return maps.get(0);
+	}
+
+	/**
+	 * Add the count of b to a
+	 *
+	 * @return a
+	 */
+	static Counter addCounts(Counter a, Counter b) {
+		a.add(b.get());
+		return a;
+	}
+
+	/**
+	 * Take chunks until there are none left, counting their words into one
+	 * table and adding their lengths to counted
+	 */
+	private static SearchTreeMap<String, Counter> countChunks(FileChannel channel, long[] bounds,
+			AtomicInteger nextChunk, AtomicLong counted, LongConsumer progress) throws IOException {
+		WordTable table = new WordTable();
+		int chunk;
+		while ((chunk = nextChunk.getAndIncrement()) < bounds.length - 1) {
+			if (Thread.currentThread().isInterrupted()) {
+				throw new InterruptedIOException();
+			}
+			long length = bounds[chunk + 1] - bounds[chunk];
+			if (length > 0) {
+				ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, bounds[chunk], length);
+				countWords(buffer, 0, (int) length, table);
+				progress.accept(counted.addAndGet(length));
+			}
+		}
+		return table.toSearchTreeMap();
+	}
+
+	/**
+	 * Count the words in buffer[from, to) into table. Words are taken to end
+	 * at to.
+	 */
+	static void countWords(ByteBuffer buffer, int from, int to, WordTable table) {
+		int start = -1;
+		int hash = 0;
+		for (int i = from; i < to; i++) {
+			byte b = buffer.get(i);
+			if (isLetter(b)) {
+				if (start < 0) {
+					start = i;
+					hash = 0;
+				}
+				hash = 31 * hash + b;
+			} else if (start >= 0) {
+				table.add(buffer, start, i - start, hash);
+				start = -1;
+			}
+		}
+		if (start >= 0) {
+			table.add(buffer, start, to - start, hash);
+		}
+	}
+
+	/**
+	 * @return true if b is an ASCII letter
+	 */
+	static boolean isLetter(byte b) {
+		//setting the 0x20 bit turns upper case letters into lower case ones
+		int lower = b | 0x20;
+		return lower >= 'a' && lower <= 'z';
+	}
+
+	/**
+	 * Split [from, to) into chunks of about the same size, each ending just
+	 * after a byte that isn't a letter (or at to)
+	 *
+	 * @return chunk i is [bounds[i], bounds[i + 1])
+	 */
+	private static long[] chunkBounds(FileChannel channel, long from, long to, int threads) throws IOException {
+		long size = to - from;
+		long chunkSize = Math.max(MIN_CHUNK, Math.min(MAX_CHUNK, size / ((long) threads * CHUNKS_PER_THREAD)));
+		int chunks = (int) Math.max(1, (size + chunkSize - 1) / chunkSize);
+		long[] bounds = new long[chunks + 1];
+		bounds[0] = from;
+		for (int i = 1; i < chunks; i++) {
+			bounds[i] = Math.max(bounds[i - 1], wordBoundary(channel, from + i * chunkSize, to));
+		}
+		bounds[chunks] = to;
+		return bounds;
+	}
+
+	/**
+	 * @return the first position at or after position that doesn't follow a
+	 *         letter, or end if there is none before it
+	 */
+	private static long wordBoundary(FileChannel channel, long position, long end) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(256);
+		long next = position - 1;
+		while (next < end) {
+			buffer.clear();
+			int read = channel.read(buffer, next);
+			if (read <= 0) {
+				break;
+			}
+			for (int i = 0; i < read && next + i < end; i++) {
+				if (!isLetter(buffer.get(i))) {
+					return next + i + 1;
+				}
+			}
+			next += read;
+		}
+		return end;
+	}
+}
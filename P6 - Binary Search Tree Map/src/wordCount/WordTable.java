@@ -0,0 +1,121 @@
+package wordCount;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+
+import searchTree.Counter;
+import searchTree.SearchTreeMap;
+
+/**
+ * An open addressing hash table counting words given as byte ranges of a
+ * buffer. The bytes of every distinct word are copied once into an arena, so
+ * counting a word that was already seen allocates nothing; Strings are only
+ * made when the table is turned into a SearchTreeMap.
+ *
+ * Each counting thread has its own table, so there is no locking.
+ *
+ */
+final class WordTable {
+
+	//the bytes of entry i are arena[starts[i], starts[i] + lengths[i])
+	private byte[] arena = new byte[1 << 12];
+	private int arenaSize;
+	private int[] starts = new int[64];
+	private int[] lengths = new int[64];
+	private int[] hashes = new int[64];
+	private int[] counts = new int[64];
+	private int size;
+	//entry index + 1 for every used slot, 0 for empty slots
+	private int[] slots = new int[128];
+
+	/**
+	 * Count one more occurrence of the word buffer[start, start + length)
+	 *
+	 * @param hash - the hash of the word, computed by the caller while reading it
+	 */
+	void add(ByteBuffer buffer, int start, int length, int hash) {
+		int mask = slots.length - 1;
+		int slot = (hash ^ (hash >>> 16)) & mask;
+		while (slots[slot] != 0) {
+			int entry = slots[slot] - 1;
+			if (hashes[entry] == hash && matches(entry, buffer, start, length)) {
+				counts[entry]++;
+				return;
+			}
+			slot = (slot + 1) & mask;
+		}
+		if (arenaSize + length > arena.length) {
+			arena = Arrays.copyOf(arena, Math.max(arena.length * 2, arenaSize + length));
+		}
+		buffer.get(start, arena, arenaSize, length);
+		if (size == starts.length) {
+			starts = Arrays.copyOf(starts, size * 2);
+			lengths = Arrays.copyOf(lengths, size * 2);
+			hashes = Arrays.copyOf(hashes, size * 2);
+			counts = Arrays.copyOf(counts, size * 2);
+		}
+		starts[size] = arenaSize;
+		lengths[size] = length;
+		hashes[size] = hash;
+		counts[size] = 1;
+		arenaSize += length;
+		slots[slot] = ++size;
+		//keep the table at most half full so probe sequences stay short
+		if (size * 2 > slots.length) {
+			rehash();
+		}
+	}
+
+	/**
+	 * @return number of distinct words counted
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Return the counts as a SearchTreeMap, built in one pass from the words
+	 * in sorted order
+	 */
+	SearchTreeMap<String, Counter> toSearchTreeMap() {
+		ArrayList<Map.Entry<String, Counter>> entries = new ArrayList<Map.Entry<String, Counter>>(size);
+		for (int i = 0; i < size; i++) {
+			Counter counter = new Counter();
+			counter.add(counts[i]);
+			//words are ASCII letters, so every byte is one char
+			entries.add(new AbstractMap.SimpleImmutableEntry<String, Counter>(
+					new String(arena, starts[i], lengths[i], StandardCharsets.ISO_8859_1), counter));
+		}
+		entries.sort(Map.Entry.comparingByKey());
+		return SearchTreeMap.fromSorted(entries.iterator());
+	}
+
+	private boolean matches(int entry, ByteBuffer buffer, int start, int length) {
+		if (lengths[entry] != length) {
+			return false;
+		}
+		int offset = starts[entry];
+		for (int i = 0; i < length; i++) {
+			if (arena[offset + i] != buffer.get(start + i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void rehash() {
+		slots = new int[slots.length * 2];
+		int mask = slots.length - 1;
+		for (int entry = 0; entry < size; entry++) {
+			int slot = (hashes[entry] ^ (hashes[entry] >>> 16)) & mask;
+			while (slots[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+			slots[slot] = entry + 1;
+		}
+	}
+}
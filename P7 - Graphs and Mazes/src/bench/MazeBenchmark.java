@@ -0,0 +1,280 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import graph.CompiledGraph;
+import graph.GraphAlgorithmObserver;
+import graph.ManhattanHeuristic;
+import graph.MazeGraph;
+import graph.MazeGridGraph;
+import graph.ShortestPath;
+import maze.Juncture;
+import maze.Maze;
+
+/**
+ * Benchmarks of the WeightedGraph searches on random mazes:
+ *
+ * <pre>
+ * java -Xmx8g bench.MazeBenchmark [-sizes 100,500,1000,2000] [-sparcity 10] [-queries 10] [-grid true]
+ * </pre>
+ *
+ * For every size it makes a square Maze, its MazeGraph, the CompiledGraph
+ * of that and a MazeGridGraph, reporting the time and heap each took, then
+ * runs each
+ * search between the same pairs of junctures, the first pair being opposite
+ * corners and the rest random. It prints how many vertices each search
+ * expanded and how long it took, averaged over the queries, after one
+ * untimed round to warm up the JIT. Searches that find lowest cost paths
+ * are checked against each other.
+ *
+ * A 2000x2000 MazeGraph has four million vertices, each with two HashMaps,
+ * so it needs a heap of several GB. With -grid true only the MazeGridGraph
+ * is made and searched, which works for much bigger mazes, but then there
+ * is nothing to check costs against.
+ *
+ */
+public class MazeBenchmark {
+
+	//Maze builds its walls recursively, as deep as the longest wall
+	private static final long STACK_SIZE = 1L << 30;
+
+	/**
+	 * Counts the vertices the Do methods visit or finish, and keeps the
+	 * cost of the end vertex Dijkstra finishes
+	 */
+	private static final class CountingObserver implements GraphAlgorithmObserver<Juncture> {
+		int expanded;
+		Juncture end;
+		int endCost;
+
+		public void notifyDFSHasBegun() {
+		}
+
+		public void notifyBFSHasBegun() {
+		}
+
+		public void notifyVisit(Juncture vertexBeingVisited) {
+			expanded++;
+		}
+
+		public void notifySearchIsOver() {
+			//the end vertex is visited without notifyVisit
+			expanded++;
+		}
+
+		public void notifyDijkstraHasBegun() {
+		}
+
+		public void notifyDijkstraVertexFinished(Juncture vertex, Integer cost) {
+			expanded++;
+			if (vertex.equals(end)) {
+				endCost = cost;
+			}
+		}
+
+		public void notifyDijkstraIsOver(List<Juncture> path) {
+		}
+	}
+
+	/**
+	 * The forms of one maze the searches run on
+	 */
+	private static final class Graphs {
+		MazeGraph graph;
+		CompiledGraph<Juncture> compiled;
+		MazeGridGraph grid;
+	}
+
+	/**
+	 * One of the searches, run from start to end
+	 */
+	private interface Search {
+		ShortestPath<Juncture> run(Graphs graphs, CountingObserver observer, Juncture start, Juncture end);
+	}
+
+	private static final String[] NAMES = { "DoDijsktra", "compiled DoDijsktra", "grid DoDijsktra",
+			"shortestPath", "bidirectionalDijkstra", "DoAStar", "DoBFS", "compiled DoBFS", "grid DoBFS",
+			"bidirectionalBFS", "DoDFS", "compiled DoDFS", "grid DoDFS" };
+
+	//whether each search finds lowest cost paths, so its costs can be checked
+	private static final boolean[] LOWEST_COST = { true, true, true, true, true, true, false, false, false,
+			false, false, false, false };
+
+	private static final Search[] SEARCHES = { (graphs, observer, start, end) -> {
+		observer.end = end;
+		graphs.graph.DoDijsktra(start, end);
+		return observed(observer);
+	}, (graphs, observer, start, end) -> {
+		observer.end = end;
+		graphs.compiled.DoDijsktra(start, end);
+		return observed(observer);
+	}, (graphs, observer, start, end) -> {
+		observer.end = end;
+		graphs.grid.DoDijsktra(start, end);
+		return observed(observer);
+	}, (graphs, observer, start, end) -> graphs.graph.shortestPath(start, end),
+			(graphs, observer, start, end) -> graphs.graph.bidirectionalDijkstra(start, end),
+			(graphs, observer, start, end) -> {
+				observer.end = end;
+				graphs.graph.DoAStar(start, end, new ManhattanHeuristic());
+				return observed(observer);
+			}, (graphs, observer, start, end) -> {
+				graphs.graph.DoBFS(start, end);
+				return observed(observer);
+			}, (graphs, observer, start, end) -> {
+				graphs.compiled.DoBFS(start, end);
+				return observed(observer);
+			}, (graphs, observer, start, end) -> {
+				graphs.grid.DoBFS(start, end);
+				return observed(observer);
+			}, (graphs, observer, start, end) -> graphs.graph.bidirectionalBFS(start, end),
+			(graphs, observer, start, end) -> {
+				graphs.graph.DoDFS(start, end);
+				return observed(observer);
+			}, (graphs, observer, start, end) -> {
+				graphs.compiled.DoDFS(start, end);
+				return observed(observer);
+			}, (graphs, observer, start, end) -> {
+				graphs.grid.DoDFS(start, end);
+				return observed(observer);
+			} };
+
+	/**
+	 * @return what the observer saw of a search that notifies it
+	 */
+	private static ShortestPath<Juncture> observed(CountingObserver observer) {
+		return new ShortestPath<Juncture>(new ArrayList<Juncture>(), observer.endCost, observer.expanded);
+	}
+
+	public static void main(String[] args) throws Exception {
+		int[] sizes = { 100, 500, 1000 };
+		int sparcity = 10;
+		int queries = 10;
+		boolean gridOnly = false;
+		for (int i = 0; i + 1 < args.length; i += 2) {
+			if (args[i].equals("-sizes")) {
+				String[] parts = args[i + 1].split(",");
+				sizes = new int[parts.length];
+				for (int j = 0; j < parts.length; j++) {
+					sizes[j] = Integer.parseInt(parts[j].trim());
+				}
+			} else if (args[i].equals("-sparcity")) {
+				sparcity = Integer.parseInt(args[i + 1]);
+			} else if (args[i].equals("-queries")) {
+				queries = Integer.parseInt(args[i + 1]);
+			} else if (args[i].equals("-grid")) {
+				gridOnly = Boolean.parseBoolean(args[i + 1]);
+			}
+		}
+		int[] chosenSizes = sizes;
+		int chosenSparcity = sparcity;
+		int chosenQueries = queries;
+		boolean chosenGridOnly = gridOnly;
+		Throwable[] failure = new Throwable[1];
+		Thread thread = new Thread(null, () -> {
+			try {
+				run(chosenSizes, chosenSparcity, chosenQueries, chosenGridOnly);
+			} catch (Throwable e) {
+				failure[0] = e;
+			}
+		}, "benchmark", STACK_SIZE);
+		thread.start();
+		thread.join();
+		if (failure[0] != null) {
+			throw new RuntimeException(failure[0]);
+		}
+	}
+
+	private static void run(int[] sizes, int sparcity, int queries, boolean gridOnly) {
+		for (int n : sizes) {
+			String name = n + "x" + n;
+			Maze maze = new Maze(n, n, sparcity, 42);
+			Graphs graphs = new Graphs();
+			CountingObserver observer = new CountingObserver();
+			System.out.printf("%n%-11s %-22s %12s %12s%n", "maze", "graph", "build ms", "heap MB");
+			long before, start;
+			if (!gridOnly) {
+				before = usedMemory();
+				start = System.nanoTime();
+				graphs.graph = new MazeGraph(maze);
+				reportGraph(name, "MazeGraph", start, before);
+				graphs.graph.addObserver(observer);
+				before = usedMemory();
+				start = System.nanoTime();
+				graphs.compiled = graphs.graph.compile();
+				reportGraph(name, "CompiledGraph", start, before);
+			}
+			before = usedMemory();
+			start = System.nanoTime();
+			graphs.grid = new MazeGridGraph(maze);
+			reportGraph(name, "MazeGridGraph", start, before);
+			graphs.grid.addObserver(observer);
+			System.out.printf("%-11s %-22s %12s %12s%n", "maze", "search", "expanded", "us/query");
+			Random random = new Random(n);
+			Juncture[] starts = new Juncture[queries];
+			Juncture[] ends = new Juncture[queries];
+			for (int q = 0; q < queries; q++) {
+				if (q == 0) {
+					starts[q] = new Juncture(0, 0);
+					ends[q] = new Juncture(n - 1, n - 1);
+				} else {
+					starts[q] = new Juncture(random.nextInt(n), random.nextInt(n));
+					ends[q] = new Juncture(random.nextInt(n), random.nextInt(n));
+				}
+			}
+			for (int s = 0; s < SEARCHES.length; s++) {
+				if (gridOnly && !NAMES[s].startsWith("grid")) {
+					continue;
+				}
+				benchmarkSearch(name, s, graphs, observer, starts, ends);
+			}
+		}
+	}
+
+	private static void reportGraph(String maze, String graph, long startNanos, long memoryBefore) {
+		double millis = (System.nanoTime() - startNanos) / 1e6;
+		System.out.printf("%-11s %-22s %12.0f %12.1f%n", maze, graph, millis,
+				(usedMemory() - memoryBefore) / (1024.0 * 1024));
+	}
+
+	/**
+	 * @return bytes of heap in use after a garbage collection, which is
+	 *         only a rough measure
+	 */
+	private static long usedMemory() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	private static void benchmarkSearch(String maze, int s, Graphs graphs, CountingObserver observer,
+			Juncture[] starts, Juncture[] ends) {
+		long expanded = 0;
+		long nanos = 0;
+		for (int round = 0; round < 2; round++) {
+			expanded = 0;
+			nanos = 0;
+			for (int q = 0; q < starts.length; q++) {
+				observer.expanded = 0;
+				observer.endCost = Integer.MAX_VALUE;
+				long start = System.nanoTime();
+				ShortestPath<Juncture> result = SEARCHES[s].run(graphs, observer, starts[q], ends[q]);
+				nanos += System.nanoTime() - start;
+				expanded += result.getVerticesExpanded();
+				if (LOWEST_COST[s] && graphs.graph != null) {
+					int expected = graphs.graph.shortestPath(starts[q], ends[q]).getCost();
+					if (result.getCost() != expected) {
+						throw new IllegalStateException(NAMES[s] + " found cost " + result.getCost() + " from "
+								+ starts[q] + " to " + ends[q] + " instead of " + expected);
+					}
+				}
+			}
+		}
+		System.out.printf("%-11s %-22s %12.0f %12.1f%n", maze, NAMES[s], (double) expanded / starts.length,
+				nanos / 1e3 / starts.length);
+	}
+}
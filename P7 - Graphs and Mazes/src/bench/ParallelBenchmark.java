@@ -0,0 +1,142 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import graph.IntGraph;
+import graph.MazeGraph;
+import graph.MazeGridGraph;
+import maze.Juncture;
+import maze.Maze;
+
+/**
+ * Scaling benchmark of the parallel graph searches on a random maze:
+ *
+ * <pre>
+ * java -Xmx8g bench.ParallelBenchmark [-size 2000] [-sparcity 10] [-threads 1,2,4,8] [-runs 5]
+ * </pre>
+ *
+ * The searches run from the corner of the maze, on both its MazeGridGraph
+ * and the CompiledGraph of its MazeGraph, once for each number of threads.
+ * The parallel searches cover the whole maze, as does DoDijsktra; DoBFS
+ * stops at the opposite corner. It prints the best
+ * time of the runs and the speedup over the same search with one thread,
+ * which is always measured, even if -threads leaves it out. The threads
+ * default to powers of two up to the number of processors.
+ *
+ */
+public class ParallelBenchmark {
+
+	//Maze builds its walls recursively, as deep as the longest wall
+	private static final long STACK_SIZE = 1L << 30;
+
+	/**
+	 * One of the searches, run from start
+	 */
+	private interface Search {
+		void run(IntGraph<Juncture> graph, Juncture start, Juncture corner, int threads);
+	}
+
+	private static final String[] NAMES = { "DoBFS", "parallelBFS", "DoDijsktra", "deltaStepping" };
+
+	//whether each search uses threads, or always runs on one
+	private static final boolean[] PARALLEL = { false, true, false, true };
+
+	private static final Search[] SEARCHES = {
+			(graph, start, corner, threads) -> graph.DoBFS(start, corner),
+			(graph, start, corner, threads) -> graph.parallelBFS(start, threads),
+			(graph, start, corner, threads) -> graph.DoDijsktra(start, corner),
+			(graph, start, corner, threads) -> graph.deltaStepping(start, threads) };
+
+	public static void main(String[] args) throws Exception {
+		int size = 2000;
+		int sparcity = 10;
+		int runs = 5;
+		List<Integer> threads = new ArrayList<Integer>();
+		for (int i = 0; i + 1 < args.length; i += 2) {
+			if (args[i].equals("-size")) {
+				size = Integer.parseInt(args[i + 1]);
+			} else if (args[i].equals("-sparcity")) {
+				sparcity = Integer.parseInt(args[i + 1]);
+			} else if (args[i].equals("-runs")) {
+				runs = Integer.parseInt(args[i + 1]);
+			} else if (args[i].equals("-threads")) {
+				for (String part : args[i + 1].split(",")) {
+					threads.add(Integer.parseInt(part.trim()));
+				}
+			}
+		}
+		if (threads.isEmpty()) {
+			int processors = Runtime.getRuntime().availableProcessors();
+			for (int t = 1; t < processors; t *= 2) {
+				threads.add(t);
+			}
+			threads.add(processors);
+		}
+		//the speedup column is over one thread, so that is measured even if it wasn't asked for
+		if (!threads.contains(1)) {
+			threads.add(1);
+		}
+		Collections.sort(threads);
+		int chosenSize = size;
+		int chosenSparcity = sparcity;
+		int chosenRuns = runs;
+		Throwable[] failure = new Throwable[1];
+		Thread thread = new Thread(null, () -> {
+			try {
+				run(chosenSize, chosenSparcity, chosenRuns, threads);
+			} catch (Throwable e) {
+				failure[0] = e;
+			}
+		}, "benchmark", STACK_SIZE);
+		thread.start();
+		thread.join();
+		if (failure[0] != null) {
+			throw new RuntimeException(failure[0]);
+		}
+	}
+
+	private static void run(int size, int sparcity, int runs, List<Integer> threads) {
+		Maze maze = new Maze(size, size, sparcity, 42);
+		List<IntGraph<Juncture>> graphs = new ArrayList<IntGraph<Juncture>>();
+		graphs.add(new MazeGridGraph(maze));
+		graphs.add(new MazeGraph(maze).compile());
+		Juncture start = new Juncture(0, 0);
+		Juncture corner = new Juncture(size - 1, size - 1);
+		System.out.printf("%d x %d maze, %d processors%n", size, size, Runtime.getRuntime().availableProcessors());
+		System.out.printf("%-14s %-14s %8s %12s %8s%n", "graph", "search", "threads", "ms", "speedup");
+		for (IntGraph<Juncture> graph : graphs) {
+			String graphName = graph.getClass().getSimpleName();
+			for (int s = 0; s < SEARCHES.length; s++) {
+				double oneThread = 0;
+				for (int t : threads) {
+					if (!PARALLEL[s] && t > 1) {
+						break;
+					}
+					double millis = bestMillis(SEARCHES[s], graph, start, corner, t, runs);
+					if (t == 1) {
+						oneThread = millis;
+					}
+					System.out.printf("%-14s %-14s %8d %12.1f %8.2f%n", graphName, NAMES[s], t, millis,
+							oneThread / millis);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return the shortest time of runs runs, after one to warm up
+	 */
+	private static double bestMillis(Search search, IntGraph<Juncture> graph, Juncture start, Juncture corner,
+			int threads, int runs) {
+		search.run(graph, start, corner, threads);
+		long best = Long.MAX_VALUE;
+		for (int r = 0; r < runs; r++) {
+			long begin = System.nanoTime();
+			search.run(graph, start, corner, threads);
+			best = Math.min(best, System.nanoTime() - begin);
+		}
+		return best / 1e6;
+	}
+}
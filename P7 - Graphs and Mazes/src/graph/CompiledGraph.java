@@ -0,0 +1,148 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <P>A read-only copy of a WeightedGraph, made by
+ * WeightedGraph.compile(), that stores its edges in compressed sparse
+ * row form: the vertices are numbered, and the edges from vertex i
+ * are entries offsets[i] to offsets[i + 1] - 1 of the targets and
+ * weights arrays. An edge takes 8 bytes instead of a HashMap entry
+ * and an Integer, and following the edges of a vertex reads two
+ * arrays instead of walking a HashMap.</P>
+ */
+public class CompiledGraph<V> extends IntGraph<V> {
+
+	private final Object[] vertices;
+	private final Map<V, Integer> indices;
+	private final int[] offsets;
+	private final int[] targets;
+	private final int[] weights;
+	private final int maxDegree;
+	//the same form for the edges turned around, made the first time they are needed
+	private volatile int[][] reverse;
+
+	/**
+	 * @param adjacency map from every vertex to a map from the vertices
+	 * its edges lead to to their weights
+	 */
+	CompiledGraph(Map<V, Map<V, Integer>> adjacency) {
+		int n = adjacency.size();
+		vertices = new Object[n];
+		indices = new HashMap<V, Integer>(2 * n);
+		offsets = new int[n + 1];
+		int edges = 0;
+		for (Map.Entry<V, Map<V, Integer>> entry : adjacency.entrySet()) {
+			int index = indices.size();
+			vertices[index] = entry.getKey();
+			indices.put(entry.getKey(), index);
+			edges += entry.getValue().size();
+		}
+		targets = new int[edges];
+		weights = new int[edges];
+		int edge = 0, largest = 0;
+		for (int index = 0; index < n; index++) {
+			offsets[index] = edge;
+			Map<V, Integer> edgesFrom = adjacency.get(getVertex(index));
+			largest = Math.max(largest, edgesFrom.size());
+			for (Map.Entry<V, Integer> entry : edgesFrom.entrySet()) {
+				targets[edge] = indices.get(entry.getKey());
+				weights[edge] = entry.getValue();
+				edge++;
+			}
+		}
+		offsets[n] = edge;
+		//vertices can have more edges leading to them than from them
+		int[] inDegrees = new int[n];
+		for (int target : targets) {
+			largest = Math.max(largest, ++inDegrees[target]);
+		}
+		maxDegree = largest;
+	}
+
+	public int getVertexCount() {
+		return vertices.length;
+	}
+
+	@SuppressWarnings("unchecked")
+	public V getVertex(int index) {
+		return (V) vertices[index];
+	}
+
+	public int getIndex(V vertex) {
+		Integer index = indices.get(vertex);
+		return index == null ? -1 : index;
+	}
+
+	public int getMaxDegree() {
+		return maxDegree;
+	}
+
+	public int fillNeighbors(int index, int[] targets, int[] weights) {
+		int from = offsets[index];
+		int degree = offsets[index + 1] - from;
+		System.arraycopy(this.targets, from, targets, 0, degree);
+		System.arraycopy(this.weights, from, weights, 0, degree);
+		return degree;
+	}
+
+	public int fillPredecessors(int index, int[] sources, int[] weights) {
+		int[][] reverse = reverse();
+		int from = reverse[0][index];
+		int degree = reverse[0][index + 1] - from;
+		System.arraycopy(reverse[1], from, sources, 0, degree);
+		System.arraycopy(reverse[2], from, weights, 0, degree);
+		return degree;
+	}
+
+	/**
+	 * @return the offsets, sources and weights arrays of the edges
+	 * turned around
+	 */
+	private int[][] reverse() {
+		int[][] result = reverse;
+		if (result == null) {
+			synchronized (this) {
+				result = reverse;
+				if (result == null) {
+					result = reverseEdges();
+					reverse = result;
+				}
+			}
+		}
+		return result;
+	}
+
+	private int[][] reverseEdges() {
+		int n = vertices.length;
+		int[] reverseOffsets = new int[n + 1];
+		for (int target : targets) {
+			reverseOffsets[target + 1]++;
+		}
+		for (int index = 0; index < n; index++) {
+			reverseOffsets[index + 1] += reverseOffsets[index];
+		}
+		int[] sources = new int[targets.length];
+		int[] reverseWeights = new int[targets.length];
+		//next free place in each vertex's range
+		int[] fill = Arrays.copyOf(reverseOffsets, n);
+		for (int index = 0; index < n; index++) {
+			for (int edge = offsets[index]; edge < offsets[index + 1]; edge++) {
+				int place = fill[targets[edge]]++;
+				sources[place] = index;
+				reverseWeights[place] = weights[edge];
+			}
+		}
+		return new int[][] { reverseOffsets, sources, reverseWeights };
+	}
+
+	/** Returns the number of edges in the graph.
+	 *
+	 * @return number of edges
+	 */
+	public int getEdgeCount() {
+		return targets.length;
+	}
+}
@@ -0,0 +1,246 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Single-source lowest costs of an IntGraph by delta-stepping, with the
+ * relaxations of each step split over the workers of a ForkJoinPool.
+ *
+ * Vertices wait in buckets by cost: bucket i holds the vertices whose cost
+ * so far is from i * delta to (i + 1) * delta - 1. The smallest bucket is
+ * emptied again and again, relaxing only the light edges (weight at most
+ * delta) of its vertices, since only those can put a vertex back into it.
+ * Once it stays empty, the costs of all the vertices taken from it are
+ * final, and their heavy edges are relaxed once. Each round of a bucket
+ * relaxes many vertices at once, where Dijkstra's algorithm finishes one at
+ * a time; a smaller delta wastes less work on costs that later go down, and
+ * a bigger one gives each round more vertices.
+ *
+ * The cost and parent of a vertex are packed into one long, the cost in the
+ * high half, so a relaxation can lower both with one compare-and-set.
+ */
+final class DeltaStepping {
+
+	//vertices per task
+	private static final int GRAIN = 1024;
+	//vertices looked at to choose delta
+	private static final int SAMPLE = 4096;
+
+	private final IntGraph<?> graph;
+	private final int delta;
+	private final AtomicLongArray state;
+	//the bucket each vertex was last taken from and last settled in, plus 1
+	private final int[] taken, settled;
+	private final TreeMap<Integer, IntList> buckets = new TreeMap<Integer, IntList>();
+	private final ConcurrentLinkedQueue<IntList> relaxed = new ConcurrentLinkedQueue<IntList>();
+
+	DeltaStepping(IntGraph<?> graph, int delta) {
+		this.graph = graph;
+		this.delta = delta;
+		int n = graph.getVertexCount();
+		state = new AtomicLongArray(n);
+		for (int i = 0; i < n; i++) {
+			state.set(i, pack(Integer.MAX_VALUE, -1));
+		}
+		taken = new int[n];
+		settled = new int[n];
+	}
+
+	/**
+	 * Choose delta from a sample of the edges: the largest weight divided by
+	 * the average number of edges per vertex, so that a vertex's light edges
+	 * are about the ones that can come before its others
+	 *
+	 * @return delta, at least 1
+	 */
+	static int chooseDelta(IntGraph<?> graph) {
+		int n = graph.getVertexCount();
+		int[] targets = new int[graph.getMaxDegree()];
+		int[] weights = new int[graph.getMaxDegree()];
+		int step = Math.max(1, n / SAMPLE);
+		long edges = 0, vertices = 0;
+		int largest = 0;
+		for (int vertex = 0; vertex < n; vertex += step) {
+			int degree = graph.fillNeighbors(vertex, targets, weights);
+			for (int i = 0; i < degree; i++) {
+				largest = Math.max(largest, weights[i]);
+			}
+			edges += degree;
+			vertices++;
+		}
+		if (edges == 0) {
+			return 1;
+		}
+		return (int) Math.max(1, Math.round(largest / ((double) edges / vertices)));
+	}
+
+	/**
+	 * Find the lowest cost of every vertex from start
+	 */
+	void run(int start, ForkJoinPool pool) {
+		state.set(start, pack(0, -1));
+		add(0, start);
+		while (!buckets.isEmpty()) {
+			int bucket = buckets.firstKey();
+			IntList settledHere = new IntList();
+			//relax light edges until nothing more comes into this bucket
+			while (buckets.containsKey(bucket)) {
+				IntList entries = buckets.remove(bucket);
+				IntList frontier = new IntList();
+				for (int i = 0; i < entries.size; i++) {
+					int vertex = entries.values[i];
+					//skip repeats, and vertices whose cost has moved them to a later bucket
+					if (taken[vertex] != bucket + 1 && cost(state.get(vertex)) / delta == bucket) {
+						taken[vertex] = bucket + 1;
+						frontier.add(vertex);
+						if (settled[vertex] != bucket + 1) {
+							settled[vertex] = bucket + 1;
+							settledHere.add(vertex);
+						}
+					}
+				}
+				relax(frontier, true, pool);
+				//a vertex lowered again this round may be taken again
+				for (int i = 0; i < frontier.size; i++) {
+					taken[frontier.values[i]] = 0;
+				}
+			}
+			//the costs of this bucket are final, so each heavy edge only needs relaxing once
+			relax(settledHere, false, pool);
+		}
+	}
+
+	/**
+	 * Relax the light or heavy edges of vertices in parallel, and put every
+	 * vertex whose cost went down in the bucket for its new cost
+	 */
+	private void relax(IntList vertices, boolean light, ForkJoinPool pool) {
+		if (vertices.size == 0) {
+			return;
+		}
+		pool.invoke(new Relax(vertices, 0, vertices.size, light));
+		for (IntList lowered; (lowered = relaxed.poll()) != null;) {
+			for (int i = 0; i < lowered.size; i++) {
+				int vertex = lowered.values[i];
+				add(cost(state.get(vertex)) / delta, vertex);
+			}
+		}
+	}
+
+	private void add(int bucket, int vertex) {
+		IntList entries = buckets.get(bucket);
+		if (entries == null) {
+			entries = new IntList();
+			buckets.put(bucket, entries);
+		}
+		entries.add(vertex);
+	}
+
+	/**
+	 * @return the lowest cost of every vertex, and the vertex before it on
+	 *         a path of that cost
+	 */
+	int[][] result() {
+		int n = state.length();
+		int[] costs = new int[n];
+		int[] parents = new int[n];
+		for (int i = 0; i < n; i++) {
+			long packed = state.get(i);
+			costs[i] = cost(packed);
+			parents[i] = (int) packed;
+		}
+		return new int[][] { costs, parents };
+	}
+
+	private static long pack(int cost, int parent) {
+		return ((long) cost << 32) | (parent & 0xffffffffL);
+	}
+
+	private static int cost(long packed) {
+		return (int) (packed >>> 32);
+	}
+
+	/**
+	 * Lower the cost of vertex to cost, coming from parent, if that is less
+	 * than it has
+	 *
+	 * @return true if the cost went down
+	 */
+	private boolean lower(int vertex, int cost, int parent) {
+		long packed = pack(cost, parent);
+		while (true) {
+			long current = state.get(vertex);
+			if (cost(current) <= cost) {
+				return false;
+			}
+			if (state.compareAndSet(vertex, current, packed)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Relax the edges of entries from to to - 1 of a list of vertices
+	 */
+	private final class Relax extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final IntList vertices;
+		private final int from, to;
+		private final boolean light;
+
+		Relax(IntList vertices, int from, int to, boolean light) {
+			this.vertices = vertices;
+			this.from = from;
+			this.to = to;
+			this.light = light;
+		}
+
+		protected void compute() {
+			if (to - from > GRAIN) {
+				int middle = (from + to) >>> 1;
+				invokeAll(new Relax(vertices, from, middle, light), new Relax(vertices, middle, to, light));
+				return;
+			}
+			int[] targets = new int[graph.getMaxDegree()];
+			int[] weights = new int[graph.getMaxDegree()];
+			IntList lowered = new IntList();
+			for (int i = from; i < to; i++) {
+				int vertex = vertices.values[i];
+				int cost = cost(state.get(vertex));
+				int degree = graph.fillNeighbors(vertex, targets, weights);
+				for (int j = 0; j < degree; j++) {
+					if ((weights[j] <= delta) == light) {
+						//a long, so a huge weight can't overflow
+						long newCost = (long) cost + weights[j];
+						if (newCost < Integer.MAX_VALUE && lower(targets[j], (int) newCost, vertex)) {
+							lowered.add(targets[j]);
+						}
+					}
+				}
+			}
+			if (lowered.size > 0) {
+				relaxed.add(lowered);
+			}
+		}
+	}
+
+	/**
+	 * A growing array of ints
+	 */
+	private static final class IntList {
+		int[] values = new int[16];
+		int size;
+
+		void add(int value) {
+			if (size == values.length) {
+				values = Arrays.copyOf(values, 2 * size);
+			}
+			values[size++] = value;
+		}
+	}
+}
@@ -0,0 +1,24 @@
+package graph;
+
+/**
+ * <P>A Heuristic estimates the cost of the lowest cost path from a
+ * vertex to the end vertex of a search, so WeightedGraph.DoAStar can
+ * look at the vertices that seem closest to the end first.</P>
+ *
+ * <P>For DoAStar to find the lowest cost path the estimate must be
+ * consistent: it is 0 at the end vertex, and for every edge from u
+ * to v, estimate(u, end) is at most the weight of the edge plus
+ * estimate(v, end). A consistent estimate never overestimates the
+ * cost left. The estimate that is always 0 is consistent, and makes
+ * DoAStar the same as Dijkstra's algorithm.</P>
+ */
+public interface Heuristic<V> {
+
+	/** Estimate the cost of the lowest cost path from vertex to end.
+	 *
+	 * @param vertex vertex the path starts at
+	 * @param end vertex the search is looking for
+	 * @return a non-negative estimate of the cost
+	 */
+	public int estimate(V vertex, V end);
+}
@@ -0,0 +1,349 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * <P>A directed graph whose vertices are numbered 0 to
+ * getVertexCount() - 1, so the graph algorithms can keep their
+ * charts in arrays indexed by vertex number instead of in Maps.
+ * Subclasses say which V each number stands for and what the edges
+ * out of each vertex are.</P>
+ *
+ * <P>DoBFS, DoDFS and DoDijsktra work like the WeightedGraph methods
+ * with the same names and notify the GraphAlgorithmObservers the same
+ * way. Vertex numbers are only turned back into V to be passed to the
+ * observers.</P>
+ */
+public abstract class IntGraph<V> {
+
+	private Collection<GraphAlgorithmObserver<V>> observerList = new ArrayList<>();
+
+	/** Returns the number of vertices in the graph.
+	 *
+	 * @return number of vertices
+	 */
+	public abstract int getVertexCount();
+
+	/** Returns the vertex with the given number.
+	 *
+	 * @param index number of the vertex, from 0 to getVertexCount() - 1
+	 * @return the vertex
+	 */
+	public abstract V getVertex(int index);
+
+	/** Returns the number of a vertex.
+	 *
+	 * @param vertex the vertex we are looking for
+	 * @return its number, or -1 if it is not in the graph
+	 */
+	public abstract int getIndex(V vertex);
+
+	/** Returns the most edges any vertex has leading from it or
+	 * leading to it, which is how big the arrays given to
+	 * fillNeighbors and fillPredecessors need to be.
+	 *
+	 * @return the largest number of edges from or to one vertex
+	 */
+	public abstract int getMaxDegree();
+
+	/** Puts the vertex numbers and weights of the edges leading from
+	 * a vertex into the arrays given.
+	 *
+	 * @param index number of the vertex the edges lead from
+	 * @param targets gets the number of the vertex each edge leads to
+	 * @param weights gets the weight of each edge
+	 * @return number of edges
+	 */
+	public abstract int fillNeighbors(int index, int[] targets, int[] weights);
+
+	/** Puts the vertex numbers and weights of the edges leading to
+	 * a vertex into the arrays given. Several threads may call this
+	 * at once.
+	 *
+	 * @param index number of the vertex the edges lead to
+	 * @param sources gets the number of the vertex each edge leads from
+	 * @param weights gets the weight of each edge
+	 * @return number of edges
+	 */
+	public abstract int fillPredecessors(int index, int[] sources, int[] weights);
+
+	/** Add a GraphAlgorithmObserver to the collection maintained
+	 * by this graph (observerList).
+	 *
+	 * @param observer
+	 */
+	public void addObserver(GraphAlgorithmObserver<V> observer) {
+		observerList.add(observer);
+	}
+
+	/** Searches for a given vertex.
+	 *
+	 * @param vertex the vertex we are looking for
+	 * @return true if the vertex is in the graph, false otherwise.
+	 */
+	public boolean containsVertex(V vertex) {
+		return getIndex(vertex) >= 0;
+	}
+
+	/**
+	 * <P>Perform a Breadth-First-Search from the "start" vertex until
+	 * the "end" vertex is reached, notifying the observers like
+	 * WeightedGraph.DoBFS.</P>
+	 *
+	 * @param start vertex where search begins
+	 * @param end the algorithm terminates just after this vertex
+	 * is visited
+	 * @throws IllegalArgumentException if either of the vertices
+	 * is not in the graph
+	 */
+	public void DoBFS(V start, V end) {
+		int startIndex = checkedIndex(start), endIndex = checkedIndex(end);
+		for (GraphAlgorithmObserver<V> observer : observerList) {
+			observer.notifyBFSHasBegun();
+		}
+		//a vertex is queued once, when it is first reached, so the queue never holds more than every vertex
+		boolean[] reached = new boolean[getVertexCount()];
+		int[] queue = new int[getVertexCount()];
+		int head = 0, tail = 0;
+		int[] targets = new int[getMaxDegree()];
+		int[] weights = new int[getMaxDegree()];
+		queue[tail++] = startIndex;
+		reached[startIndex] = true;
+		while (head < tail) {
+			int vertex = queue[head++];
+			if (vertex == endIndex) {
+				for (GraphAlgorithmObserver<V> observer : observerList) {
+					observer.notifySearchIsOver();
+				}
+				return;
+			}
+			int degree = fillNeighbors(vertex, targets, weights);
+			for (int i = 0; i < degree; i++) {
+				if (!reached[targets[i]]) {
+					reached[targets[i]] = true;
+					queue[tail++] = targets[i];
+				}
+			}
+			notifyVisit(vertex);
+		}
+	}
+
+	/**
+	 * <P>Perform a Depth-First-Search from the "start" vertex until
+	 * the "end" vertex is reached, notifying the observers like
+	 * WeightedGraph.DoDFS.</P>
+	 *
+	 * @param start vertex where search begins
+	 * @param end the algorithm terminates just after this vertex
+	 * is visited
+	 * @throws IllegalArgumentException if either of the vertices
+	 * is not in the graph
+	 */
+	public void DoDFS(V start, V end) {
+		int startIndex = checkedIndex(start), endIndex = checkedIndex(end);
+		for (GraphAlgorithmObserver<V> observer : observerList) {
+			observer.notifyDFSHasBegun();
+		}
+		boolean[] visited = new boolean[getVertexCount()];
+		//like WeightedGraph.DoDFS a vertex may be pushed more than once, and counts as visited when it is popped
+		int[] stack = new int[Math.max(16, getMaxDegree() + 1)];
+		int top = 0;
+		int[] targets = new int[getMaxDegree()];
+		int[] weights = new int[getMaxDegree()];
+		stack[top++] = startIndex;
+		while (top > 0) {
+			int vertex = stack[--top];
+			if (visited[vertex]) {
+				continue;
+			}
+			if (vertex == endIndex) {
+				for (GraphAlgorithmObserver<V> observer : observerList) {
+					observer.notifySearchIsOver();
+				}
+				return;
+			}
+			visited[vertex] = true;
+			int degree = fillNeighbors(vertex, targets, weights);
+			if (top + degree > stack.length) {
+				stack = Arrays.copyOf(stack, Math.max(top + degree, 2 * stack.length));
+			}
+			for (int i = 0; i < degree; i++) {
+				if (!visited[targets[i]]) {
+					stack[top++] = targets[i];
+				}
+			}
+			notifyVisit(vertex);
+		}
+	}
+
+	/**
+	 * <P>Perform Dijkstra's algorithm from the "start" vertex until
+	 * every vertex is finished, notifying the observers like
+	 * WeightedGraph.DoDijsktra: vertices are finished in order of
+	 * cost, those that can't be reached last with a cost of
+	 * Integer.MAX_VALUE, and then the lowest cost path from "start"
+	 * to "end" is passed to notifyDijkstraIsOver.</P>
+	 *
+	 * @param start vertex where algorithm will start
+	 * @param end special vertex used as the end of the path
+	 * reported to observers via the notifyDijkstraIsOver method.
+	 * @throws IllegalArgumentException if either of the vertices
+	 * is not in the graph
+	 */
+	public void DoDijsktra(V start, V end) {
+		int startIndex = checkedIndex(start), endIndex = checkedIndex(end);
+		for (GraphAlgorithmObserver<V> observer : observerList) {
+			observer.notifyDijkstraHasBegun();
+		}
+		int n = getVertexCount();
+		int[] costs = new int[n];
+		Arrays.fill(costs, Integer.MAX_VALUE);
+		//the vertex each vertex's lowest cost path comes from, or -1
+		int[] from = new int[n];
+		Arrays.fill(from, -1);
+		boolean[] finished = new boolean[n];
+		int[] targets = new int[getMaxDegree()];
+		int[] weights = new int[getMaxDegree()];
+		IntHeap heap = new IntHeap(costs);
+		costs[startIndex] = 0;
+		heap.decrease(startIndex);
+		while (!heap.isEmpty()) {
+			int vertex = heap.removeMin();
+			finished[vertex] = true;
+			int degree = fillNeighbors(vertex, targets, weights);
+			for (int i = 0; i < degree; i++) {
+				int neighbor = targets[i];
+				//a long, so a huge weight can't overflow
+				long newCost = (long) costs[vertex] + weights[i];
+				if (!finished[neighbor] && newCost < costs[neighbor]) {
+					costs[neighbor] = (int) newCost;
+					from[neighbor] = vertex;
+					heap.decrease(neighbor);
+				}
+			}
+			notifyFinished(vertex, costs[vertex]);
+		}
+		//vertices the start can't reach are finished last at infinite cost
+		for (int vertex = 0; vertex < n; vertex++) {
+			if (!finished[vertex]) {
+				notifyFinished(vertex, Integer.MAX_VALUE);
+			}
+		}
+		LinkedList<V> path = new LinkedList<V>();
+		for (int vertex = endIndex; vertex >= 0; vertex = from[vertex]) {
+			path.addFirst(getVertex(vertex));
+		}
+		for (GraphAlgorithmObserver<V> observer : observerList) {
+			observer.notifyDijkstraIsOver(path);
+		}
+	}
+
+	/**
+	 * <P>Find the number of edges on the shortest path from the
+	 * "start" vertex to every vertex, with a Breadth-First-Search
+	 * that searches each level with several threads (see
+	 * ParallelBFS). Weights are ignored, and observers are not
+	 * notified.</P>
+	 *
+	 * @param start vertex where search begins
+	 * @param threads number of threads to search with
+	 * @return the number of edges to every vertex, and the vertex
+	 * before it on a path with that many
+	 * @throws IllegalArgumentException if the vertex is not in the
+	 * graph or threads is less than 1
+	 */
+	public PathTree<V> parallelBFS(V start, int threads) {
+		int startIndex = checkedIndex(start);
+		if (threads < 1) {
+			throw new IllegalArgumentException();
+		}
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		try {
+			ParallelBFS search = new ParallelBFS(this);
+			search.run(startIndex, pool);
+			return new PathTree<V>(this, startIndex, search.distances, search.parents);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * <P>Find the lowest cost of a path from the "start" vertex to
+	 * every vertex by delta-stepping, relaxing edges with several
+	 * threads (see DeltaStepping), with delta chosen from the weights
+	 * of the edges. The costs are the ones DoDijsktra finishes the
+	 * vertices with. Observers are not notified.</P>
+	 *
+	 * @param start vertex where the paths begin
+	 * @param threads number of threads to relax edges with
+	 * @return the lowest cost of every vertex, and the vertex before
+	 * it on a path of that cost
+	 * @throws IllegalArgumentException if the vertex is not in the
+	 * graph or threads is less than 1
+	 */
+	public PathTree<V> deltaStepping(V start, int threads) {
+		return deltaStepping(start, DeltaStepping.chooseDelta(this), threads);
+	}
+
+	/**
+	 * <P>Find the lowest cost of a path from the "start" vertex to
+	 * every vertex by delta-stepping with the given delta.</P>
+	 *
+	 * @param start vertex where the paths begin
+	 * @param delta range of costs each bucket holds
+	 * @param threads number of threads to relax edges with
+	 * @return the lowest cost of every vertex, and the vertex before
+	 * it on a path of that cost
+	 * @throws IllegalArgumentException if the vertex is not in the
+	 * graph, or delta or threads is less than 1
+	 */
+	public PathTree<V> deltaStepping(V start, int delta, int threads) {
+		int startIndex = checkedIndex(start);
+		if (delta < 1 || threads < 1) {
+			throw new IllegalArgumentException();
+		}
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		try {
+			DeltaStepping search = new DeltaStepping(this, delta);
+			search.run(startIndex, pool);
+			int[][] result = search.result();
+			return new PathTree<V>(this, startIndex, result[0], result[1]);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * @return the number of vertex
+	 * @throws IllegalArgumentException if vertex is not in the graph
+	 */
+	int checkedIndex(V vertex) {
+		int index = getIndex(vertex);
+		if (index < 0) {
+			throw new IllegalArgumentException();
+		}
+		return index;
+	}
+
+	private void notifyVisit(int vertex) {
+		if (!observerList.isEmpty()) {
+			V visited = getVertex(vertex);
+			for (GraphAlgorithmObserver<V> observer : observerList) {
+				observer.notifyVisit(visited);
+			}
+		}
+	}
+
+	private void notifyFinished(int vertex, int cost) {
+		if (!observerList.isEmpty()) {
+			V finished = getVertex(vertex);
+			for (GraphAlgorithmObserver<V> observer : observerList) {
+				observer.notifyDijkstraVertexFinished(finished, cost);
+			}
+		}
+	}
+}
@@ -0,0 +1,90 @@
+package graph;
+
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of vertex numbers, ordered by an array of keys that
+ * belongs to the caller (Dijkstra's costs). It remembers where each vertex
+ * is in the heap, so when the caller lowers a vertex's key, decrease moves
+ * the vertex up instead of adding it again.
+ */
+final class IntHeap {
+
+	private final int[] keys;
+	private final int[] heap;
+	//where each vertex is in heap, or -1 if it isn't
+	private final int[] positions;
+	private int size;
+
+	/**
+	 * @param keys - key of every vertex, which may only go down while the
+	 *        vertex is in the heap
+	 */
+	IntHeap(int[] keys) {
+		this.keys = keys;
+		heap = new int[keys.length];
+		positions = new int[keys.length];
+		Arrays.fill(positions, -1);
+	}
+
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Add vertex, or move it up if it is already in the heap and its key was
+	 * lowered
+	 */
+	void decrease(int vertex) {
+		int position = positions[vertex];
+		if (position < 0) {
+			position = size++;
+		}
+		//move parents with bigger keys down until vertex's place is found
+		int key = keys[vertex];
+		while (position > 0) {
+			int parent = (position - 1) >>> 1;
+			if (keys[heap[parent]] <= key) {
+				break;
+			}
+			place(heap[parent], position);
+			position = parent;
+		}
+		place(vertex, position);
+	}
+
+	/**
+	 * Take out the vertex with the smallest key; the heap must not be empty
+	 */
+	int removeMin() {
+		int min = heap[0];
+		positions[min] = -1;
+		int last = heap[--size];
+		if (size > 0) {
+			//move smaller children up until the place for last is found
+			int key = keys[last];
+			int position = 0;
+			while (true) {
+				int child = 2 * position + 1;
+				if (child >= size) {
+					break;
+				}
+				if (child + 1 < size && keys[heap[child + 1]] < keys[heap[child]]) {
+					child++;
+				}
+				if (keys[heap[child]] >= key) {
+					break;
+				}
+				place(heap[child], position);
+				position = child;
+			}
+			place(last, position);
+		}
+		return min;
+	}
+
+	private void place(int vertex, int position) {
+		heap[position] = vertex;
+		positions[vertex] = position;
+	}
+}
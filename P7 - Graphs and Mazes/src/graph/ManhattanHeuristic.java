@@ -0,0 +1,19 @@
+package graph;
+
+import maze.Juncture;
+
+/**
+ * <P>The Manhattan distance heuristic for a MazeGraph: the number of
+ * steps across and up or down from one Juncture to another, as if
+ * there were no walls.</P>
+ *
+ * <P>Every edge of a MazeGraph joins two neighboring Junctures and
+ * weighs at least 1, so each step of the estimate costs at least 1
+ * and the estimate is consistent (see Heuristic).</P>
+ */
+public class ManhattanHeuristic implements Heuristic<Juncture> {
+
+	public int estimate(Juncture vertex, Juncture end) {
+		return Math.abs(vertex.getX() - end.getX()) + Math.abs(vertex.getY() - end.getY());
+	}
+}
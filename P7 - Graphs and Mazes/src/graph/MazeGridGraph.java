@@ -0,0 +1,81 @@
+package graph;
+
+import maze.Juncture;
+import maze.Maze;
+
+/**
+ * <P>The MazeGridGraph is a MazeGraph that is never built: the
+ * edges of a Juncture are read from the Maze's walls and weights
+ * each time a search asks for them, so making one takes no time
+ * and no memory beyond the Maze itself.</P>
+ *
+ * <P>It has the same vertices and edges as the MazeGraph of the
+ * same Maze. The Juncture at (x, y) is vertex number
+ * y * width + x, and the searches of IntGraph keep their charts in
+ * arrays indexed by those numbers. A Juncture is only made to pass
+ * a vertex to the observers.</P>
+ */
+public class MazeGridGraph extends IntGraph<Juncture> {
+
+	private final Maze maze;
+	private final int width, height;
+
+	/**
+	 * @param maze to be used as the source of the vertices and edges
+	 */
+	public MazeGridGraph(Maze maze) {
+		this.maze = maze;
+		width = maze.getMazeWidth();
+		height = maze.getMazeHeight();
+	}
+
+	public int getVertexCount() {
+		return width * height;
+	}
+
+	public Juncture getVertex(int index) {
+		return new Juncture(index % width, index / width);
+	}
+
+	public int getIndex(Juncture vertex) {
+		int x = vertex.getX(), y = vertex.getY();
+		if (x < 0 || x >= width || y < 0 || y >= height) {
+			return -1;
+		}
+		return y * width + x;
+	}
+
+	public int getMaxDegree() {
+		return 4;
+	}
+
+	public int fillNeighbors(int index, int[] targets, int[] weights) {
+		int x = index % width, y = index / width;
+		int degree = 0;
+		if (y > 0 && !maze.isWallAbove(x, y)) {
+			targets[degree] = index - width;
+			weights[degree++] = maze.getWeightAbove(x, y);
+		}
+		if (y < height - 1 && !maze.isWallBelow(x, y)) {
+			targets[degree] = index + width;
+			weights[degree++] = maze.getWeightBelow(x, y);
+		}
+		if (x > 0 && !maze.isWallToLeft(x, y)) {
+			targets[degree] = index - 1;
+			weights[degree++] = maze.getWeightToLeft(x, y);
+		}
+		if (x < width - 1 && !maze.isWallToRight(x, y)) {
+			targets[degree] = index + 1;
+			weights[degree++] = maze.getWeightToRight(x, y);
+		}
+		return degree;
+	}
+
+	/**
+	 * Every edge of a maze goes both ways with the same weight, so the
+	 * edges leading to a Juncture mirror the edges leading from it
+	 */
+	public int fillPredecessors(int index, int[] sources, int[] weights) {
+		return fillNeighbors(index, sources, weights);
+	}
+}
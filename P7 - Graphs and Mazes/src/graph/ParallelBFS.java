@@ -0,0 +1,222 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A level-synchronous, direction-optimizing Breadth-First-Search of an
+ * IntGraph, with each level split over the workers of a ForkJoinPool.
+ *
+ * A level can be searched two ways. Top-down, every vertex of the frontier
+ * (the last level) looks at the vertices its edges lead to, and claims the
+ * ones nobody has reached yet by setting their bit in the visited bitset
+ * with a compare-and-set. Bottom-up, every vertex not reached yet looks at
+ * the vertices with edges leading to it, and stops at the first one that is
+ * in the frontier bitset. Top-down is cheaper while the frontier is small;
+ * once the frontier is a big part of what is left, bottom-up looks at far
+ * fewer edges, since most vertices find a parent in their first few.
+ *
+ * Bottom-up workers get ranges of whole 64-vertex words, so each word of
+ * the next frontier bitset is written by one worker only.
+ */
+final class ParallelBFS {
+
+	//vertices per task, a multiple of 64
+	private static final int GRAIN = 2048;
+	//go bottom-up when the frontier is more than 1 / ALPHA of the vertices not reached
+	private static final int ALPHA = 14;
+	//go back top-down when the frontier is less than 1 / BETA of all vertices
+	private static final int BETA = 24;
+
+	private final IntGraph<?> graph;
+	private final int n;
+	final int[] distances;
+	final int[] parents;
+	private final AtomicLongArray visited;
+	private int level;
+	//the frontier is either a list (top-down) or a bitset (bottom-up)
+	private int[] frontier, next;
+	private int frontierSize;
+	private final AtomicInteger nextSize = new AtomicInteger();
+	private long[] frontierBits, nextBits;
+
+	ParallelBFS(IntGraph<?> graph) {
+		this.graph = graph;
+		n = graph.getVertexCount();
+		distances = new int[n];
+		Arrays.fill(distances, Integer.MAX_VALUE);
+		parents = new int[n];
+		Arrays.fill(parents, -1);
+		visited = new AtomicLongArray((n + 63) >>> 6);
+	}
+
+	/**
+	 * Search from start, filling in distances and parents
+	 */
+	void run(int start, ForkJoinPool pool) {
+		distances[start] = 0;
+		visited.set(start >>> 6, 1L << start);
+		frontier = new int[] { start };
+		frontierSize = 1;
+		boolean bottomUp = false;
+		int unreached = n - 1;
+		while (frontierSize > 0) {
+			if (!bottomUp && frontierSize > unreached / ALPHA) {
+				bottomUp = true;
+				toBits();
+			} else if (bottomUp && frontierSize < n / BETA) {
+				bottomUp = false;
+				toList();
+			}
+			if (bottomUp) {
+				nextBits = new long[frontierBits.length];
+				frontierSize = pool.invoke(new BottomUp(0, frontierBits.length));
+				frontierBits = nextBits;
+			} else {
+				if (next == null || next.length < n) {
+					next = new int[n];
+				}
+				nextSize.set(0);
+				pool.invoke(new TopDown(0, frontierSize));
+				int[] swap = frontier;
+				frontier = next;
+				next = swap;
+				frontierSize = nextSize.get();
+			}
+			unreached -= frontierSize;
+			level++;
+		}
+	}
+
+	private void toBits() {
+		frontierBits = new long[(n + 63) >>> 6];
+		for (int i = 0; i < frontierSize; i++) {
+			frontierBits[frontier[i] >>> 6] |= 1L << frontier[i];
+		}
+	}
+
+	private void toList() {
+		frontier = new int[n];
+		int size = 0;
+		for (int word = 0; word < frontierBits.length; word++) {
+			for (long bits = frontierBits[word]; bits != 0; bits &= bits - 1) {
+				frontier[size++] = (word << 6) + Long.numberOfTrailingZeros(bits);
+			}
+		}
+	}
+
+	/**
+	 * Set vertex's visited bit
+	 *
+	 * @return false if another worker set it first
+	 */
+	private boolean claim(int vertex) {
+		int word = vertex >>> 6;
+		long bit = 1L << vertex;
+		while (true) {
+			long bits = visited.get(word);
+			if ((bits & bit) != 0) {
+				return false;
+			}
+			if (visited.compareAndSet(word, bits, bits | bit)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Search the next level top-down from frontier entries from to to - 1
+	 */
+	private final class TopDown extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final int from, to;
+
+		TopDown(int from, int to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		protected void compute() {
+			if (to - from > GRAIN) {
+				int middle = (from + to) >>> 1;
+				invokeAll(new TopDown(from, middle), new TopDown(middle, to));
+				return;
+			}
+			int[] targets = new int[graph.getMaxDegree()];
+			int[] weights = new int[graph.getMaxDegree()];
+			int[] found = new int[64];
+			int count = 0;
+			for (int i = from; i < to; i++) {
+				int vertex = frontier[i];
+				int degree = graph.fillNeighbors(vertex, targets, weights);
+				for (int j = 0; j < degree; j++) {
+					int neighbor = targets[j];
+					if (claim(neighbor)) {
+						distances[neighbor] = level + 1;
+						parents[neighbor] = vertex;
+						if (count == found.length) {
+							found = Arrays.copyOf(found, 2 * count);
+						}
+						found[count++] = neighbor;
+					}
+				}
+			}
+			//a vertex is claimed once, so the next frontier can't overflow
+			System.arraycopy(found, 0, next, nextSize.getAndAdd(count), count);
+		}
+	}
+
+	/**
+	 * Search the next level bottom-up for the vertices of words from to
+	 * to - 1 of the bitsets
+	 */
+	private final class BottomUp extends RecursiveTask<Integer> {
+		private static final long serialVersionUID = 1L;
+		private final int from, to;
+
+		BottomUp(int from, int to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		protected Integer compute() {
+			if ((to - from) * 64 > GRAIN) {
+				int middle = (from + to) >>> 1;
+				BottomUp second = new BottomUp(middle, to);
+				second.fork();
+				int count = new BottomUp(from, middle).compute();
+				return count + second.join();
+			}
+			int[] sources = new int[graph.getMaxDegree()];
+			int[] weights = new int[graph.getMaxDegree()];
+			int count = 0;
+			for (int word = from; word < to; word++) {
+				long unreached = ~visited.get(word);
+				for (; unreached != 0; unreached &= unreached - 1) {
+					int vertex = (word << 6) + Long.numberOfTrailingZeros(unreached);
+					if (vertex >= n) {
+						break;
+					}
+					int degree = graph.fillPredecessors(vertex, sources, weights);
+					for (int j = 0; j < degree; j++) {
+						int source = sources[j];
+						if ((frontierBits[source >>> 6] & (1L << source)) != 0) {
+							distances[vertex] = level + 1;
+							parents[vertex] = source;
+							nextBits[word] |= 1L << vertex;
+							count++;
+							break;
+						}
+					}
+				}
+				//only this task writes these words
+				visited.set(word, visited.get(word) | nextBits[word]);
+			}
+			return count;
+		}
+	}
+}
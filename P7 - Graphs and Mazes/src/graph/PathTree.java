@@ -0,0 +1,134 @@
+package graph;
+
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <P>The result of a single-source search of an IntGraph: for every
+ * vertex, its distance from the root and the vertex before it on a
+ * path of that distance, so the paths from the root to every vertex
+ * form a tree. The distance is the number of edges for parallelBFS
+ * and the lowest cost for deltaStepping.</P>
+ *
+ * <P>Vertices that can't be reached from the root have a distance
+ * of Integer.MAX_VALUE and no parent, as in DoDijsktra.</P>
+ */
+public class PathTree<V> {
+
+	private final IntGraph<V> graph;
+	private final int root;
+	private final int[] distances;
+	private final int[] parents;
+
+	/**
+	 * @param graph the graph that was searched
+	 * @param root number of the vertex the search started at
+	 * @param distances distance of every vertex, by vertex number
+	 * @param parents number of the vertex before every vertex, or -1
+	 */
+	PathTree(IntGraph<V> graph, int root, int[] distances, int[] parents) {
+		this.graph = graph;
+		this.root = root;
+		this.distances = distances;
+		this.parents = parents;
+	}
+
+	/** Returns the vertex the search started at.
+	 *
+	 * @return the root of the tree
+	 */
+	public V getRoot() {
+		return graph.getVertex(root);
+	}
+
+	/** Returns the distance of a vertex from the root.
+	 *
+	 * @param vertex the vertex we are looking for
+	 * @return its distance, or Integer.MAX_VALUE if it can't be reached
+	 * @throws IllegalArgumentException if the vertex is not in the graph
+	 */
+	public int getDistance(V vertex) {
+		return distances[graph.checkedIndex(vertex)];
+	}
+
+	/** Returns the distance of a vertex from the root.
+	 *
+	 * @param index number of the vertex
+	 * @return its distance, or Integer.MAX_VALUE if it can't be reached
+	 */
+	public int getDistance(int index) {
+		return distances[index];
+	}
+
+	/** Returns the vertex before a vertex on its path from the root.
+	 *
+	 * @param vertex the vertex we are looking for
+	 * @return the vertex before it, or null for the root and vertices
+	 * that can't be reached
+	 * @throws IllegalArgumentException if the vertex is not in the graph
+	 */
+	public V getParent(V vertex) {
+		int parent = parents[graph.checkedIndex(vertex)];
+		return parent < 0 ? null : graph.getVertex(parent);
+	}
+
+	/** Returns the number of the vertex before a vertex on its path
+	 * from the root.
+	 *
+	 * @param index number of the vertex
+	 * @return number of the vertex before it, or -1 for the root and
+	 * vertices that can't be reached
+	 */
+	public int getParent(int index) {
+		return parents[index];
+	}
+
+	/** Returns the path from the root to a vertex.
+	 *
+	 * @param vertex the vertex the path leads to
+	 * @return the vertices of the path, the first being the root, or
+	 * an empty list if the vertex can't be reached
+	 * @throws IllegalArgumentException if the vertex is not in the graph
+	 */
+	public List<V> getPathTo(V vertex) {
+		LinkedList<V> path = new LinkedList<V>();
+		int index = graph.checkedIndex(vertex);
+		if (distances[index] != Integer.MAX_VALUE) {
+			for (; index >= 0; index = parents[index]) {
+				path.addFirst(graph.getVertex(index));
+			}
+		}
+		return path;
+	}
+
+	/** Returns the distance of every vertex from the root, like the
+	 * costs DoDijsktra finishes the vertices with.
+	 *
+	 * @return map from every vertex to its distance, which is
+	 * Integer.MAX_VALUE if it can't be reached
+	 */
+	public Map<V, Integer> getDistanceMap() {
+		Map<V, Integer> distanceMap = new HashMap<V, Integer>(2 * distances.length);
+		for (int index = 0; index < distances.length; index++) {
+			distanceMap.put(graph.getVertex(index), distances[index]);
+		}
+		return distanceMap;
+	}
+
+	/** Returns the number of vertices that can be reached from the
+	 * root, counting the root.
+	 *
+	 * @return number of vertices reached
+	 */
+	public int getReachedCount() {
+		int reached = 0;
+		for (int distance : distances) {
+			if (distance != Integer.MAX_VALUE) {
+				reached++;
+			}
+		}
+		return reached;
+	}
+}
@@ -0,0 +1,73 @@
+package graph;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <P>The answer to a point-to-point query on a WeightedGraph: the
+ * path found from the start vertex to the end vertex, what it costs,
+ * and how many vertices the search expanded to find it.</P>
+ *
+ * <P>If the end vertex can't be reached from the start vertex, the
+ * path is empty and the cost is Integer.MAX_VALUE.</P>
+ */
+public class ShortestPath<V> {
+
+	private final List<V> path;
+	private final int cost;
+	private final int verticesExpanded;
+
+	/**
+	 * @param path vertices from the start vertex to the end vertex,
+	 * or an empty list if there is no path
+	 * @param cost sum of the weights of the edges of the path
+	 * @param verticesExpanded number of vertices whose edges the
+	 * search followed
+	 */
+	public ShortestPath(List<V> path, int cost, int verticesExpanded) {
+		this.path = Collections.unmodifiableList(path);
+		this.cost = cost;
+		this.verticesExpanded = verticesExpanded;
+	}
+
+	/** Returns the vertices of the path, the first being the start
+	 * vertex and the last the end vertex.
+	 *
+	 * @return the path, or an empty list if there is none
+	 */
+	public List<V> getPath() {
+		return path;
+	}
+
+	/** Returns true if a path was found.
+	 *
+	 * @return true if the end vertex can be reached
+	 */
+	public boolean isFound() {
+		return !path.isEmpty();
+	}
+
+	/** Returns the sum of the weights of the edges of the path.
+	 *
+	 * @return cost of the path, or Integer.MAX_VALUE if there is none
+	 */
+	public int getCost() {
+		return cost;
+	}
+
+	/** Returns the number of vertices whose edges the search
+	 * followed, a measure of how much of the graph it explored.
+	 *
+	 * @return number of vertices expanded
+	 */
+	public int getVerticesExpanded() {
+		return verticesExpanded;
+	}
+
+	/**
+	 * Return a string representation of the path and its cost
+	 */
+	public String toString() {
+		return path + " cost " + cost;
+	}
+}
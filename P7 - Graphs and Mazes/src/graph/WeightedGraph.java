@@ -6,7 +6,9 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Queue;
 import java.util.Set;
 import java.util.Stack;
@@ -46,6 +48,13 @@ public class WeightedGraph<V> {
 	 */
 	Map<V, Map<V,Integer>> WeightedGraph;
 	
+	/**
+	 * Map with every edge of WeightedGraph turned around: the TO vertex
+	 * as V, the FROM vertex as the inner Map's V, and the WEIGHT as the
+	 * Integer value. The bidirectional searches use it to follow edges
+	 * backwards from the end vertex.
+	 */
+	Map<V, Map<V,Integer>> reverseGraph;
 	
 	
 	/* Collection of observers.  Be sure to initialize this list
@@ -62,6 +71,7 @@ public class WeightedGraph<V> {
 	 */
 	public WeightedGraph() { 
 		WeightedGraph = new HashMap<V, Map<V,Integer>>();
+		reverseGraph = new HashMap<V, Map<V,Integer>>();
 		//initializes observerList as a new empty ArrayList
 		observerList = new ArrayList<>();
 	}
@@ -89,6 +99,8 @@ public class WeightedGraph<V> {
 		}
 		//add the vertex as a key for the WeightedGraph and initialize the HashMap for that key 
 		WeightedGraph.put(vertex, new HashMap<V,Integer>());
+		//and the same for the reverseGraph
+		reverseGraph.put(vertex, new HashMap<V,Integer>());
 		return;
 	}
 	
@@ -130,6 +142,8 @@ public class WeightedGraph<V> {
 		}
 		//otherwise get the FROM vertex and insert the TO and the WEIGHT into its map
 		WeightedGraph.get(from).put(to, weight);
+		//and insert the FROM and the WEIGHT into the TO vertex's map in the reverseGraph
+		reverseGraph.get(to).put(from, weight);
 	}
 
 	/** 
@@ -160,6 +174,26 @@ public class WeightedGraph<V> {
 		return WeightedGraph.get(from).get(to);
 	}
 
+	/** 
+	 * <P>Make a CompiledGraph with the same vertices and edges as this
+	 * graph. It runs DFS, BFS and Dijkstra's on arrays instead of Maps
+	 * and takes much less memory, but it is a snapshot: vertices and
+	 * edges added to this graph later are not in it.</P>
+	 * 
+	 * <P>The CompiledGraph notifies the observers this graph has
+	 * when it is made.</P>
+	 * 
+	 * @return compiled copy of this graph
+	 */
+	public CompiledGraph<V> compile() {
+		CompiledGraph<V> compiled = new CompiledGraph<V>(WeightedGraph);
+		//pass on every observer
+		for(GraphAlgorithmObserver<V> observer : observerList) {
+			compiled.addObserver(observer);
+		}
+		return compiled;
+	}
+
 	/** 
 	 * <P>This method will perform a Breadth-First-Search on the graph.
 	 * The search will begin at the "start" vertex and conclude once
@@ -324,6 +358,9 @@ public class WeightedGraph<V> {
 	 * in the list will be the "start" vertex, and the last vertex
 	 * in the list will be the "end" vertex.)</P>
 	 * 
+	 * <P>Vertices that can't be reached from the "start" vertex are
+	 * finished last, each with a cost of Integer.MAX_VALUE.</P>
+	 * 
 	 * @param start vertex where algorithm will start
 	 * @param end special vertex used as the end of the path 
 	 * reported to observers via the notifyDijkstraIsOver method.
@@ -347,36 +384,36 @@ public class WeightedGraph<V> {
 		}
 		//sets the costChart start value cost to 0 
 		costChart.put(start, 0);
-		//while the finished set does not have all the verticies the algorithm is not done running
-		while(!finishedSet.equals(costChart.keySet())) {
-			//set maxCost to the max possible integer so it will be helpful later in finding the min cost vertex
-			int maxCost = Integer.MAX_VALUE;
-			//tempVertex to be used for processing
-			V tempVertex = null;
-			//finds the vertex with the smallest cost excluding the verticies in the finished set 
-			for(V vertex : costChart.keySet()) {
-				//if the cost of the current vertex is <= maxCost and not already in the finished set
-				if(costChart.get(vertex) <= maxCost && !finishedSet.contains(vertex)) {
-					tempVertex = vertex;
-					maxCost = costChart.get(vertex);
-				}
+		//vertexQ holds the verticies waiting to be finished, smallest cost first. When the cost of a vertex
+		//goes down it is added again instead of being moved, so the old entries for it come out after it
+		//is already finished and get skipped
+		PriorityQueue<CostEntry<V>> vertexQ = new PriorityQueue<CostEntry<V>>();
+		vertexQ.add(new CostEntry<V>(start, 0));
+		//while there are reachable verticies left to finish the algorithm is not done running
+		while(!vertexQ.isEmpty()) {
+			//take out the unfinished vertex with the smallest cost
+			CostEntry<V> entry = vertexQ.remove();
+			V tempVertex = entry.vertex;
+			//if tempVertex is already in the finished set this entry is out of date
+			if(finishedSet.contains(tempVertex)) {
+				continue;
 			}
 			//add tempVertex to the finished set
 			finishedSet.add(tempVertex);
 			//getting the neighbors of the current vertex
-			for(V neighborVertex : WeightedGraph.get(tempVertex).keySet()) {
+			for(Map.Entry<V,Integer> edge : WeightedGraph.get(tempVertex).entrySet()) {
+				V neighborVertex = edge.getKey();
 				//making sure the current vertex is not in the finished set
 				if (!finishedSet.contains(neighborVertex)) {
-					//if the cost to get to tempVertex + the cost to get to the connected vertex
-					//is less than the cost to get to the neighbor vertex
-					if (costChart.get(tempVertex) + WeightedGraph.get(tempVertex).get(neighborVertex) < costChart
-							.get(neighborVertex)) {
-						//change the cost of the neighbor vertex to the cost to get to tempVertex + 
-						//the cost to get to the connected vertex
-						costChart.put(neighborVertex,
-								costChart.get(tempVertex) + WeightedGraph.get(tempVertex).get(neighborVertex));
-						//change the from for the connected vertex to tempVertex
+					//the cost to get to tempVertex + the cost to get to the connected vertex, as a long
+					//so a huge weight can't overflow
+					long newCost = (long) entry.cost + edge.getValue();
+					//if it is less than the cost to get to the neighbor vertex
+					if (newCost < costChart.get(neighborVertex)) {
+						//change the cost and the from of the neighbor vertex, and queue it at its new cost
+						costChart.put(neighborVertex, (int) newCost);
 						fromChart.put(neighborVertex, tempVertex);
+						vertexQ.add(new CostEntry<V>(neighborVertex, (int) newCost));
 					}
 				}
 			}
@@ -384,7 +421,16 @@ public class WeightedGraph<V> {
 			for(GraphAlgorithmObserver<V> observer : observerList) {
 				observer.notifyDijkstraVertexFinished(tempVertex, costChart.get(tempVertex));
 			}
-			
+		}
+		//verticies the start can't reach never go into vertexQ, so they are finished last at infinite cost
+		//without looking at their edges
+		for(V vertex : costChart.keySet()) {
+			if(!finishedSet.contains(vertex)) {
+				finishedSet.add(vertex);
+				for(GraphAlgorithmObserver<V> observer : observerList) {
+					observer.notifyDijkstraVertexFinished(vertex, Integer.MAX_VALUE);
+				}
+			}
 		}
 		//now the path needs to be created
 		//make a curr which will keep going until its at the start vertex
@@ -405,4 +451,356 @@ public class WeightedGraph<V> {
 		
 	}
 	
+	/** 
+	 * <P>Perform an A* search from the "start" vertex to the "end"
+	 * vertex. It is Dijkstra's algorithm with the unfinished verticies
+	 * taken in order of their cost plus the heuristic's estimate of the
+	 * cost left to "end", so it heads towards "end" and stops once
+	 * "end" is added to the finished set.</P>
+	 * 
+	 * <P>Observers are notified the same way DoDijsktra notifies them:
+	 * notifyDijkstraHasBegun before the search, 
+	 * notifyDijkstraVertexFinished with the vertex and the cost of its
+	 * path each time a vertex is added to the finished set, and
+	 * notifyDijkstraIsOver with the lowest cost path from "start" to
+	 * "end" at the end, which is empty if "end" can't be reached.</P>
+	 * 
+	 * <P>The path is only sure to be the lowest cost one if the
+	 * heuristic is consistent (see Heuristic).</P>
+	 * 
+	 * @param start vertex where algorithm will start
+	 * @param end vertex the algorithm is looking for
+	 * @param heuristic estimates the cost from a vertex to "end"
+	 * @throws IllegalArgumentException if either of the vertices
+	 * is not in the graph
+	 */
+	public void DoAStar(V start, V end, Heuristic<V> heuristic) {
+		//make sure that the start and end verticies are in the graph
+		if(!WeightedGraph.containsKey(start) || !WeightedGraph.containsKey(end)) {
+			throw new IllegalArgumentException();
+		}
+		//goes through collection of observers and notifies that Dijsktra has begun
+		for(GraphAlgorithmObserver<V> observer : observerList) {
+			observer.notifyDijkstraHasBegun();
+		}
+		DijkstraSearch search = new DijkstraSearch(WeightedGraph, start, heuristic, end);
+		//keep finishing verticies until end is finished or nothing reachable is left
+		while(search.hasNext()) {
+			V tempVertex = search.finishNext();
+			//notifying the observer that the vertex is done being processed and pass in its lowest from cost  
+			for(GraphAlgorithmObserver<V> observer : observerList) {
+				observer.notifyDijkstraVertexFinished(tempVertex, search.costChart.get(tempVertex));
+			}
+			if(tempVertex.equals(end)) {
+				break;
+			}
+		}
+		List<V> path = search.finishedSet.contains(end) ? joinPaths(search.fromChart, end, end, null)
+				: new LinkedList<V>();
+		//notify the observer that the search is over and pass in the path
+		for(GraphAlgorithmObserver<V> observer : observerList) {
+			observer.notifyDijkstraIsOver(path);
+		}
+	}
+	
+	/** 
+	 * <P>Find the lowest cost path from the "start" vertex to the
+	 * "end" vertex with Dijkstra's algorithm. Unlike DoDijsktra, the
+	 * search stops as soon as the "end" vertex is added to the
+	 * finished set, and observers are not notified.</P>
+	 * 
+	 * @param start vertex where the path begins
+	 * @param end vertex where the path ends
+	 * @return the lowest cost path, which is empty if "end" can't be
+	 * reached from "start"
+	 * @throws IllegalArgumentException if either of the vertices
+	 * is not in the graph
+	 */
+	public ShortestPath<V> shortestPath(V start, V end) {
+		//make sure that the start and end verticies are in the graph
+		if(!WeightedGraph.containsKey(start) || !WeightedGraph.containsKey(end)) {
+			throw new IllegalArgumentException();
+		}
+		DijkstraSearch search = new DijkstraSearch(WeightedGraph, start);
+		//keep finishing verticies until end is finished or nothing reachable is left
+		while(search.hasNext()) {
+			V tempVertex = search.finishNext();
+			if(tempVertex.equals(end)) {
+				return new ShortestPath<V>(joinPaths(search.fromChart, end, end, null),
+						search.costChart.get(end), search.finishedSet.size());
+			}
+		}
+		return new ShortestPath<V>(new LinkedList<V>(), Integer.MAX_VALUE, search.finishedSet.size());
+	}
+	
+	/** 
+	 * <P>Find the lowest cost path from the "start" vertex to the
+	 * "end" vertex with bidirectional Dijkstra: one search goes
+	 * forwards from "start", another goes backwards from "end" along
+	 * the reverse edges, and each step is taken by the search whose
+	 * next vertex is cheaper. The searches stop once the cheapest
+	 * path found through a vertex they have both reached costs no
+	 * more than the costs of their next verticies added together.
+	 * Observers are not notified.</P>
+	 * 
+	 * @param start vertex where the path begins
+	 * @param end vertex where the path ends
+	 * @return the lowest cost path, which is empty if "end" can't be
+	 * reached from "start"
+	 * @throws IllegalArgumentException if either of the vertices
+	 * is not in the graph
+	 */
+	public ShortestPath<V> bidirectionalDijkstra(V start, V end) {
+		//make sure that the start and end verticies are in the graph
+		if(!WeightedGraph.containsKey(start) || !WeightedGraph.containsKey(end)) {
+			throw new IllegalArgumentException();
+		}
+		DijkstraSearch forward = new DijkstraSearch(WeightedGraph, start);
+		DijkstraSearch backward = new DijkstraSearch(reverseGraph, end);
+		//bestCost is the cost of the cheapest path found so far, which goes from meetFrom to meetTo
+		long bestCost = Long.MAX_VALUE;
+		V meetFrom = null, meetTo = null;
+		while(forward.hasNext() && backward.hasNext() && forward.nextCost() + backward.nextCost() < bestCost) {
+			//take a step with the search whose next vertex is cheaper
+			boolean forwardStep = forward.nextCost() <= backward.nextCost();
+			DijkstraSearch search = forwardStep ? forward : backward;
+			DijkstraSearch other = forwardStep ? backward : forward;
+			V tempVertex = search.finishNext();
+			long cost = search.costChart.get(tempVertex);
+			//a path through tempVertex if the other search has reached it too
+			if(other.costChart.containsKey(tempVertex) && cost + other.costChart.get(tempVertex) < bestCost) {
+				bestCost = cost + other.costChart.get(tempVertex);
+				meetFrom = tempVertex;
+				meetTo = tempVertex;
+			}
+			//and a path through each edge from tempVertex to a vertex the other search has reached
+			for(Map.Entry<V,Integer> edge : search.edges.get(tempVertex).entrySet()) {
+				V neighborVertex = edge.getKey();
+				if(other.costChart.containsKey(neighborVertex)
+						&& cost + edge.getValue() + other.costChart.get(neighborVertex) < bestCost) {
+					bestCost = cost + edge.getValue() + other.costChart.get(neighborVertex);
+					//the backward search's edges are turned around
+					meetFrom = forwardStep ? tempVertex : neighborVertex;
+					meetTo = forwardStep ? neighborVertex : tempVertex;
+				}
+			}
+		}
+		int expanded = forward.finishedSet.size() + backward.finishedSet.size();
+		if(meetFrom == null) {
+			return new ShortestPath<V>(new LinkedList<V>(), Integer.MAX_VALUE, expanded);
+		}
+		return new ShortestPath<V>(joinPaths(forward.fromChart, meetFrom, meetTo, backward.fromChart),
+				(int) bestCost, expanded);
+	}
+	
+	/** 
+	 * <P>Find a path from the "start" vertex to the "end" vertex with
+	 * the fewest edges, using a bidirectional Breadth-First-Search: one
+	 * search goes forwards from "start", another goes backwards from
+	 * "end" along the reverse edges, and each step visits the next
+	 * level of whichever search has the smaller level. Weights are
+	 * ignored while searching; the cost of the path returned is the
+	 * sum of the weights of its edges. Observers are not notified.</P>
+	 * 
+	 * @param start vertex where the path begins
+	 * @param end vertex where the path ends
+	 * @return a path with the fewest edges, which is empty if "end"
+	 * can't be reached from "start"
+	 * @throws IllegalArgumentException if either of the vertices
+	 * is not in the graph
+	 */
+	public ShortestPath<V> bidirectionalBFS(V start, V end) {
+		//make sure that the start and end verticies are in the graph
+		if(!WeightedGraph.containsKey(start) || !WeightedGraph.containsKey(end)) {
+			throw new IllegalArgumentException();
+		}
+		//fromCharts have Key: a vertex the search has reached, Value: the vertex it was reached from
+		Map<V,V> forwardFrom = new HashMap<V,V>();
+		Map<V,V> backwardFrom = new HashMap<V,V>();
+		//depth charts have Key: a vertex the search has reached, Value: its number of edges from the search's start
+		Map<V,Integer> forwardDepth = new HashMap<V,Integer>();
+		Map<V,Integer> backwardDepth = new HashMap<V,Integer>();
+		forwardFrom.put(start, null);
+		forwardDepth.put(start, 0);
+		backwardFrom.put(end, null);
+		backwardDepth.put(end, 0);
+		List<V> forwardLevel = new ArrayList<V>(Collections.singletonList(start));
+		List<V> backwardLevel = new ArrayList<V>(Collections.singletonList(end));
+		int expanded = 0;
+		//the vertex the searches met at on the path with the fewest edges found so far
+		V meeting = start.equals(end) ? start : null;
+		while(meeting == null && !forwardLevel.isEmpty() && !backwardLevel.isEmpty()) {
+			//visit the next level of the search with the smaller level
+			boolean forwardStep = forwardLevel.size() <= backwardLevel.size();
+			List<V> level = forwardStep ? forwardLevel : backwardLevel;
+			Map<V, Map<V,Integer>> edges = forwardStep ? WeightedGraph : reverseGraph;
+			Map<V,V> fromChart = forwardStep ? forwardFrom : backwardFrom;
+			Map<V,Integer> depthChart = forwardStep ? forwardDepth : backwardDepth;
+			Map<V,Integer> otherDepth = forwardStep ? backwardDepth : forwardDepth;
+			List<V> nextLevel = new ArrayList<V>();
+			int bestDepth = Integer.MAX_VALUE;
+			for(V tempVertex : level) {
+				expanded++;
+				int depth = depthChart.get(tempVertex) + 1;
+				for(V neighborVertex : edges.get(tempVertex).keySet()) {
+					//skip verticies this search has already reached
+					if(!fromChart.containsKey(neighborVertex)) {
+						fromChart.put(neighborVertex, tempVertex);
+						depthChart.put(neighborVertex, depth);
+						nextLevel.add(neighborVertex);
+						//the whole level is visited so the meeting with the fewest edges is found
+						if(otherDepth.containsKey(neighborVertex) && depth + otherDepth.get(neighborVertex) < bestDepth) {
+							bestDepth = depth + otherDepth.get(neighborVertex);
+							meeting = neighborVertex;
+						}
+					}
+				}
+			}
+			if(forwardStep) {
+				forwardLevel = nextLevel;
+			} else {
+				backwardLevel = nextLevel;
+			}
+		}
+		if(meeting == null) {
+			return new ShortestPath<V>(new LinkedList<V>(), Integer.MAX_VALUE, expanded);
+		}
+		LinkedList<V> path = joinPaths(forwardFrom, meeting, meeting, backwardFrom);
+		//add up the weights along the path
+		int cost = 0;
+		V previous = null;
+		for(V vertex : path) {
+			if(previous != null) {
+				cost += WeightedGraph.get(previous).get(vertex);
+			}
+			previous = vertex;
+		}
+		return new ShortestPath<V>(path, cost, expanded);
+	}
+	
+	/**
+	 * Build the path that follows forwardFrom back from meetFrom to the
+	 * start, then the edge from meetFrom to meetTo if they are different,
+	 * then follows backwardFrom on from meetTo to the end
+	 */
+	private LinkedList<V> joinPaths(Map<V,V> forwardFrom, V meetFrom, V meetTo, Map<V,V> backwardFrom) {
+		LinkedList<V> path = new LinkedList<V>();
+		//work the way from meetFrom to the front
+		for(V curr = meetFrom; curr != null; curr = forwardFrom.get(curr)) {
+			path.addFirst(curr);
+		}
+		//then from meetTo to the end
+		if(backwardFrom != null) {
+			for(V curr = meetFrom.equals(meetTo) ? backwardFrom.get(meetTo) : meetTo; curr != null; 
+					curr = backwardFrom.get(curr)) {
+				path.addLast(curr);
+			}
+		}
+		return path;
+	}
+	
+	/**
+	 * One Dijkstra search that finishes one vertex at a time and only
+	 * keeps charts for the verticies it has reached, so a search that
+	 * stops early doesn't have to touch the whole graph. Given a
+	 * heuristic it is an A* search: verticies come out of vertexQ in
+	 * order of their cost plus the heuristic's estimate of the cost
+	 * left to the target.
+	 */
+	private class DijkstraSearch {
+		//the edges the search follows: WeightedGraph forwards, reverseGraph backwards
+		final Map<V, Map<V,Integer>> edges;
+		final Heuristic<V> heuristic;
+		final V target;
+		final Set<V> finishedSet = new HashSet<V>();
+		final Map<V,V> fromChart = new HashMap<V,V>();
+		final Map<V,Integer> costChart = new HashMap<V,Integer>();
+		final PriorityQueue<CostEntry<V>> vertexQ = new PriorityQueue<CostEntry<V>>();
+
+		DijkstraSearch(Map<V, Map<V,Integer>> edges, V source) {
+			this(edges, source, null, null);
+		}
+
+		DijkstraSearch(Map<V, Map<V,Integer>> edges, V source, Heuristic<V> heuristic, V target) {
+			this.edges = edges;
+			this.heuristic = heuristic;
+			this.target = target;
+			fromChart.put(source, null);
+			costChart.put(source, 0);
+			vertexQ.add(new CostEntry<V>(source, priority(source, 0)));
+		}
+
+		/**
+		 * @return the cost vertex is queued at: its cost, plus the
+		 * heuristic's estimate if there is one
+		 */
+		int priority(V vertex, long cost) {
+			if(heuristic != null) {
+				cost += heuristic.estimate(vertex, target);
+			}
+			return (int) Math.min(cost, Integer.MAX_VALUE);
+		}
+
+		/**
+		 * @return true if there is a reachable vertex left to finish
+		 */
+		boolean hasNext() {
+			//drop the out of date entries of verticies already finished
+			while(!vertexQ.isEmpty() && finishedSet.contains(vertexQ.peek().vertex)) {
+				vertexQ.remove();
+			}
+			return !vertexQ.isEmpty();
+		}
+
+		/**
+		 * @return cost the next vertex to finish is queued at, which
+		 * hasNext must have checked for
+		 */
+		long nextCost() {
+			return vertexQ.peek().cost;
+		}
+
+		/**
+		 * Finish the unfinished vertex with the smallest cost, which
+		 * hasNext must have checked for, and lower the costs of its
+		 * neighbors
+		 * 
+		 * @return the vertex finished
+		 */
+		V finishNext() {
+			V tempVertex = vertexQ.remove().vertex;
+			finishedSet.add(tempVertex);
+			int cost = costChart.get(tempVertex);
+			for(Map.Entry<V,Integer> edge : edges.get(tempVertex).entrySet()) {
+				V neighborVertex = edge.getKey();
+				if(!finishedSet.contains(neighborVertex)) {
+					long newCost = (long) cost + edge.getValue();
+					if(newCost < costChart.getOrDefault(neighborVertex, Integer.MAX_VALUE)) {
+						costChart.put(neighborVertex, (int) newCost);
+						fromChart.put(neighborVertex, tempVertex);
+						vertexQ.add(new CostEntry<V>(neighborVertex, priority(neighborVertex, newCost)));
+					}
+				}
+			}
+			return tempVertex;
+		}
+	}
+	
+	/**
+	 * A vertex waiting in Dijkstra's vertexQ, with the cost it had when it
+	 * was added. Entries are ordered by cost.
+	 */
+	private static class CostEntry<V> implements Comparable<CostEntry<V>> {
+		final V vertex;
+		final int cost;
+
+		CostEntry(V vertex, int cost) {
+			this.vertex = vertex;
+			this.cost = cost;
+		}
+
+		public int compareTo(CostEntry<V> other) {
+			return Integer.compare(cost, other.cost);
+		}
+	}
 }
@@ -98,10 +98,9 @@ public class Maze {
 				points.add(new Juncture(x, y));
 			}
 		}
-		Collections.shuffle(points);
+		Collections.shuffle(points, random);
 		
-		while (points.size() > 0) {
-			Juncture p = points.remove(0);
+		for (Juncture p : points) {
 			int row = p.getY();
 			int col = p.getX();
 			if (wallIndex[row][col] == 0) {
@@ -221,7 +220,17 @@ public class Maze {
 	 * @return true if there is a wall above this juncture
 	 */
 	public boolean isWallAbove(Juncture juncture) {
-		return wallToRight[juncture.getY()][juncture.getX()];
+		return isWallAbove(juncture.getX(), juncture.getY());
+	}
+
+	/** The same as isWallAbove for the juncture at (x, y).
+	 * 
+	 * @param x X coordinate of the juncture
+	 * @param y Y coordinate of the juncture
+	 * @return true if there is a wall above this juncture
+	 */
+	public boolean isWallAbove(int x, int y) {
+		return wallToRight[y][x];
 	}
 
 	/** Returns true if there is a wall below the given juncture,
@@ -230,7 +239,17 @@ public class Maze {
 	 * @return true if there is a wall below this juncture
 	 */
 	public boolean isWallBelow(Juncture juncture) {
-		return wallToRight[juncture.getY()+ 1][juncture.getX()];
+		return isWallBelow(juncture.getX(), juncture.getY());
+	}
+
+	/** The same as isWallBelow for the juncture at (x, y).
+	 * 
+	 * @param x X coordinate of the juncture
+	 * @param y Y coordinate of the juncture
+	 * @return true if there is a wall below this juncture
+	 */
+	public boolean isWallBelow(int x, int y) {
+		return wallToRight[y + 1][x];
 	}
 
 	/** Returns true if there is a wall to the left of the 
@@ -239,7 +258,17 @@ public class Maze {
 	 * @return true if there is a wall to the left of this juncture
 	 */
 	public boolean isWallToLeft(Juncture juncture) {
-		return wallDown[juncture.getY()][juncture.getX()];
+		return isWallToLeft(juncture.getX(), juncture.getY());
+	}
+
+	/** The same as isWallToLeft for the juncture at (x, y).
+	 * 
+	 * @param x X coordinate of the juncture
+	 * @param y Y coordinate of the juncture
+	 * @return true if there is a wall to the left of this juncture
+	 */
+	public boolean isWallToLeft(int x, int y) {
+		return wallDown[y][x];
 	}
 
 	/** Returns true if there is a wall to the right of the 
@@ -248,7 +277,17 @@ public class Maze {
 	 * @return true if there is a wall to the right of this juncture
 	 */
 	public boolean isWallToRight(Juncture juncture) {
-		return wallDown[juncture.getY()][juncture.getX() + 1];
+		return isWallToRight(juncture.getX(), juncture.getY());
+	}
+
+	/** The same as isWallToRight for the juncture at (x, y).
+	 * 
+	 * @param x X coordinate of the juncture
+	 * @param y Y coordinate of the juncture
+	 * @return true if there is a wall to the right of this juncture
+	 */
+	public boolean isWallToRight(int x, int y) {
+		return wallDown[y][x + 1];
 	}
 
 	/** Returns the weight between this juncture and the one above.
@@ -257,7 +296,17 @@ public class Maze {
 	 * @return a positive integer
 	 */
 	public int getWeightAbove(Juncture juncture) {
-		return horizontalWeights[juncture.getY() - 1][juncture.getX()];
+		return getWeightAbove(juncture.getX(), juncture.getY());
+	}
+
+	/** The same as getWeightAbove for the juncture at (x, y).
+	 * 
+	 * @param x X coordinate of the juncture
+	 * @param y Y coordinate of the juncture
+	 * @return a positive integer
+	 */
+	public int getWeightAbove(int x, int y) {
+		return horizontalWeights[y - 1][x];
 	}
 	
 	/** Returns the weight between this juncture and the one below.
@@ -266,7 +315,17 @@ public class Maze {
 	 * @return a positive integer
 	 */
 	public int getWeightBelow(Juncture juncture) {
-		return horizontalWeights[juncture.getY()][juncture.getX()];
+		return getWeightBelow(juncture.getX(), juncture.getY());
+	}
+
+	/** The same as getWeightBelow for the juncture at (x, y).
+	 * 
+	 * @param x X coordinate of the juncture
+	 * @param y Y coordinate of the juncture
+	 * @return a positive integer
+	 */
+	public int getWeightBelow(int x, int y) {
+		return horizontalWeights[y][x];
 	}
 
 	/** Returns the weight between this juncture and the one to its
@@ -276,7 +335,17 @@ public class Maze {
 	 * @return a positive integer
 	 */
 	public int getWeightToLeft(Juncture juncture) {
-		return verticalWeights[juncture.getY()][juncture.getX() - 1];
+		return getWeightToLeft(juncture.getX(), juncture.getY());
+	}
+
+	/** The same as getWeightToLeft for the juncture at (x, y).
+	 * 
+	 * @param x X coordinate of the juncture
+	 * @param y Y coordinate of the juncture
+	 * @return a positive integer
+	 */
+	public int getWeightToLeft(int x, int y) {
+		return verticalWeights[y][x - 1];
 	}
 	
 	/** Returns the weight between this juncture and the one to its
@@ -286,6 +355,16 @@ public class Maze {
 	 * @return a positive integer
 	 */
 	public int getWeightToRight(Juncture juncture) {
-		return	verticalWeights[juncture.getY()][juncture.getX()];
+		return getWeightToRight(juncture.getX(), juncture.getY());
+	}
+
+	/** The same as getWeightToRight for the juncture at (x, y).
+	 * 
+	 * @param x X coordinate of the juncture
+	 * @param y Y coordinate of the juncture
+	 * @return a positive integer
+	 */
+	public int getWeightToRight(int x, int y) {
+		return verticalWeights[y][x];
 	}
 }
@@ -25,14 +25,15 @@ import javax.swing.JCheckBox;
 import javax.swing.WindowConstants;
 
 import graph.GraphAlgorithmObserver;
+import graph.ManhattanHeuristic;
 import graph.MazeGraph;
 
 /**
  * <P>The MazeGUI class allows the user to create
  * and display mazes.  It relies on an underlying 
  * MazeGraph, which stores the maze as a Graph, and 
- * can perform various algorithms (DFS, BFS, and 
- * Dijsktra.)</P>
+ * can perform various algorithms (DFS, BFS, 
+ * Dijsktra, and A*.)</P>
  * 
  * @author Fawzi Emad (C) 2022
  */
@@ -54,6 +55,7 @@ public class MazeGUI {
 	private JButton DFSButton;
 	private JButton BFSButton;
 	private JButton DijkstraButton;
+	private JButton AStarButton;
 	private JSlider speedSlider;
 	private JSlider densitySlider;
 	private JCheckBox showWeights;
@@ -82,6 +84,7 @@ public class MazeGUI {
 		heightLabel = new JLabel("Height");
 		drawButton = new JButton("New Maze");
 		DijkstraButton = new JButton("Dijkstra");
+		AStarButton = new JButton("A*");
 		densitySlider = new JSlider();
 		DFSButton = new JButton("DFS");
 		BFSButton = new JButton("BFS");
@@ -109,6 +112,21 @@ public class MazeGUI {
 			}
 		});
 
+		AStarButton.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent arg0) {
+				changeButtonStatus(false);
+				showWeights.setSelected(true);
+				Thread thread = new Thread(new Runnable() {
+					public void run() {
+						theGraph.DoAStar(new Juncture(0,0), new Juncture(maze.getMazeWidth() - 1, maze.getMazeHeight() - 1),
+								new ManhattanHeuristic());
+					}
+				});
+				thread.start();
+			}
+		});
+
 		DFSButton.addActionListener(new ActionListener() {
 			@Override
 			public void actionPerformed(ActionEvent arg0) {
@@ -191,6 +209,7 @@ public class MazeGUI {
 		controlsPanel.add(DFSButton);
 		controlsPanel.add(BFSButton);
 		controlsPanel.add(DijkstraButton);
+		controlsPanel.add(AStarButton);
 		controlsPanel.add(new JLabel("   Speed"));
 		controlsPanel.add(speedSlider);
 
@@ -304,6 +323,7 @@ public class MazeGUI {
 		BFSButton.setEnabled(setting);
 		drawButton.setEnabled(setting);
 		DijkstraButton.setEnabled(setting);
+		AStarButton.setEnabled(setting);
 	}
 
 	private int getSliderDelayMS() {
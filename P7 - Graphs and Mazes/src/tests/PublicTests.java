@@ -3,7 +3,26 @@ package tests;
 import static org.junit.Assert.*;
 import org.junit.Test;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import graph.CompiledGraph;
+import graph.GraphAlgorithmObserver;
+import graph.IntGraph;
+import graph.ManhattanHeuristic;
+import graph.MazeGraph;
+import graph.MazeGridGraph;
+import graph.PathTree;
+import graph.ShortestPath;
 import graph.WeightedGraph;
+import maze.Juncture;
+import maze.Maze;
 
 public class PublicTests {
 
@@ -56,4 +75,295 @@ public class PublicTests {
 		assertTrue(graph.getWeight("B", "D") == null);
 	}
 	
+	@Test
+	public void testDijkstraFinishesInOrderOfCost() {
+		WeightedGraph<String> graph = new WeightedGraph<String>();
+		for (String vertex : new String[] { "A", "B", "C", "D", "E", "F" }) {
+			graph.addVertex(vertex);
+		}
+		graph.addEdge("A", "B", 4);
+		graph.addEdge("A", "C", 1);
+		graph.addEdge("C", "B", 2);
+		graph.addEdge("B", "D", 1);
+		graph.addEdge("C", "D", 5);
+		//E and F can't be reached from A
+		graph.addEdge("E", "F", 3);
+		graph.addEdge("E", "A", 1);
+		Recorder<String> recorder = new Recorder<String>();
+		graph.addObserver(recorder);
+		graph.DoDijsktra("A", "D");
+		assertEquals(List.of("A", "C", "B", "D"), recorder.finished.subList(0, 4));
+		assertEquals(List.of(0, 1, 3, 4), recorder.costs.subList(0, 4));
+		assertEquals(6, recorder.finished.size());
+		assertEquals(Integer.MAX_VALUE, (int) recorder.costs.get(4));
+		assertEquals(Integer.MAX_VALUE, (int) recorder.costs.get(5));
+		assertEquals(List.of("A", "C", "B", "D"), recorder.path);
+	}
+	
+	@Test
+	public void testPointToPointQueries() {
+		WeightedGraph<String> graph = new WeightedGraph<String>();
+		for (String vertex : new String[] { "A", "B", "C", "D", "E", "F" }) {
+			graph.addVertex(vertex);
+		}
+		graph.addEdge("A", "B", 1);
+		graph.addEdge("B", "C", 1);
+		graph.addEdge("C", "D", 1);
+		graph.addEdge("A", "D", 7);
+		graph.addEdge("D", "E", 2);
+		graph.addEdge("F", "A", 1);
+		List<ShortestPath<String>> lowestCost = List.of(graph.shortestPath("A", "E"),
+				graph.bidirectionalDijkstra("A", "E"));
+		for (ShortestPath<String> path : lowestCost) {
+			assertEquals(List.of("A", "B", "C", "D", "E"), path.getPath());
+			assertEquals(5, path.getCost());
+		}
+		ShortestPath<String> fewestEdges = graph.bidirectionalBFS("A", "E");
+		assertEquals(List.of("A", "D", "E"), fewestEdges.getPath());
+		assertEquals(9, fewestEdges.getCost());
+		//F can't be reached from A
+		for (ShortestPath<String> path : List.of(graph.shortestPath("A", "F"), graph.bidirectionalDijkstra("A", "F"),
+				graph.bidirectionalBFS("A", "F"))) {
+			assertFalse(path.isFound());
+			assertEquals(Integer.MAX_VALUE, path.getCost());
+		}
+		assertEquals(List.of("C"), graph.bidirectionalDijkstra("C", "C").getPath());
+		assertEquals(List.of("C"), graph.bidirectionalBFS("C", "C").getPath());
+		boolean caught = false;
+		try {
+			graph.bidirectionalDijkstra("A", "X");
+		} catch (IllegalArgumentException e) {
+			caught = true;
+		}
+		assertTrue(caught);
+	}
+	
+	@Test
+	public void testAStarMatchesDijkstra() {
+		MazeGraph graph = new MazeGraph(new Maze(30, 40, 20, 7));
+		Juncture start = new Juncture(0, 0);
+		Juncture end = new Juncture(39, 29);
+		Recorder<Juncture> recorder = new Recorder<Juncture>();
+		graph.addObserver(recorder);
+		//A* has to expand fewer vertices than a Dijkstra search that also stops at end
+		int dijkstraExpanded = graph.shortestPath(start, end).getVerticesExpanded();
+		graph.DoAStar(start, end, new ManhattanHeuristic());
+		assertTrue(recorder.costs.size() < dijkstraExpanded);
+		List<Juncture> path = recorder.path;
+		assertEquals(start, path.get(0));
+		assertEquals(end, path.get(path.size() - 1));
+		int cost = 0;
+		for (int i = 1; i < path.size(); i++) {
+			cost += graph.getWeight(path.get(i - 1), path.get(i));
+		}
+		assertEquals(graph.shortestPath(start, end).getCost(), cost);
+		assertEquals(cost, (int) recorder.costs.get(recorder.costs.size() - 1));
+	}
+	
+	@Test
+	public void testCompiledGraphMatchesWeightedGraph() {
+		MazeGraph graph = new MazeGraph(new Maze(20, 25, 20, 3));
+		Juncture start = new Juncture(0, 0);
+		Juncture end = new Juncture(24, 19);
+		Recorder<Juncture> recorder = new Recorder<Juncture>();
+		graph.addObserver(recorder);
+		CompiledGraph<Juncture> compiled = graph.compile();
+		assertEquals(500, compiled.getVertexCount());
+		assertTrue(compiled.containsVertex(end));
+		assertFalse(compiled.containsVertex(new Juncture(25, 19)));
+		graph.DoDijsktra(start, end);
+		Recorder<Juncture> expected = recorder.copy();
+		compiled.DoDijsktra(start, end);
+		//vertices with the same cost may come out of the two heaps in either order
+		assertEquals(expected.costs, recorder.costs);
+		assertEquals(expected.finishedCosts(), recorder.finishedCosts());
+		assertEquals(expected.path.size(), recorder.path.size());
+		assertEquals(end, recorder.path.get(recorder.path.size() - 1));
+		//both searches follow the edges in the same order, so they visit the same vertices in the same order
+		graph.DoBFS(start, end);
+		expected = recorder.copy();
+		compiled.DoBFS(start, end);
+		assertEquals(expected.visited, recorder.visited);
+		graph.DoDFS(start, end);
+		expected = recorder.copy();
+		compiled.DoDFS(start, end);
+		assertEquals(expected.visited, recorder.visited);
+		//each vertex is visited once, and the search stops at end without visiting it
+		assertEquals(start, recorder.visited.get(0));
+		assertFalse(recorder.visited.contains(end));
+		assertEquals(recorder.visited.size(), new HashSet<Juncture>(recorder.visited).size());
+	}
+	
+	@Test
+	public void testMazeGridGraphHasMazeGraphEdges() {
+		Maze maze = new Maze(15, 20, 30, 5);
+		MazeGraph graph = new MazeGraph(maze);
+		MazeGridGraph grid = new MazeGridGraph(maze);
+		assertEquals(300, grid.getVertexCount());
+		assertEquals(-1, grid.getIndex(new Juncture(20, 0)));
+		int[] targets = new int[grid.getMaxDegree()];
+		int[] weights = new int[grid.getMaxDegree()];
+		for (int index = 0; index < grid.getVertexCount(); index++) {
+			Juncture from = grid.getVertex(index);
+			assertEquals(index, grid.getIndex(from));
+			int degree = grid.fillNeighbors(index, targets, weights);
+			int edges = 0;
+			for (int dx = -1; dx <= 1; dx++) {
+				for (int dy = -1; dy <= 1; dy++) {
+					Juncture to = new Juncture(from.getX() + dx, from.getY() + dy);
+					if (Math.abs(dx + dy) == 1 && graph.containsVertex(to) && graph.getWeight(from, to) != null) {
+						edges++;
+					}
+				}
+			}
+			assertEquals(edges, degree);
+			for (int i = 0; i < degree; i++) {
+				assertEquals((int) graph.getWeight(from, grid.getVertex(targets[i])), weights[i]);
+			}
+		}
+	}
+	
+	@Test
+	public void testParallelBFSDistances() {
+		//a directed graph whose frontier grows fast enough to be searched bottom-up, and a maze whose doesn't
+		WeightedGraph<Integer> graph = new WeightedGraph<Integer>();
+		for (int i = 0; i < 3000; i++) {
+			graph.addVertex(i);
+		}
+		for (int i = 0; i < 2900; i++) {
+			graph.addEdge(i, (i * 7 + 1) % 2900, 1);
+			graph.addEdge(i, (i * 13 + 5) % 2900, 1);
+			graph.addEdge(i, (i + 1) % 2900, 1);
+		}
+		List<IntGraph<?>> graphs = List.of(graph.compile(), new MazeGridGraph(new Maze(40, 50, 20, 9)));
+		for (IntGraph<?> intGraph : graphs) {
+			checkParallelBFS(intGraph);
+		}
+	}
+	
+	private static <V> void checkParallelBFS(IntGraph<V> graph) {
+		int n = graph.getVertexCount();
+		int[] targets = new int[graph.getMaxDegree()];
+		int[] weights = new int[graph.getMaxDegree()];
+		//distances from vertex 0 by a plain Breadth-First-Search
+		int[] expected = new int[n];
+		Arrays.fill(expected, Integer.MAX_VALUE);
+		expected[0] = 0;
+		ArrayDeque<Integer> queue = new ArrayDeque<Integer>(List.of(0));
+		while (!queue.isEmpty()) {
+			int vertex = queue.remove();
+			int degree = graph.fillNeighbors(vertex, targets, weights);
+			for (int i = 0; i < degree; i++) {
+				if (expected[targets[i]] == Integer.MAX_VALUE) {
+					expected[targets[i]] = expected[vertex] + 1;
+					queue.add(targets[i]);
+				}
+			}
+		}
+		for (int threads : new int[] { 1, 4 }) {
+			PathTree<V> tree = graph.parallelBFS(graph.getVertex(0), threads);
+			for (int vertex = 0; vertex < n; vertex++) {
+				assertEquals(expected[vertex], tree.getDistance(vertex));
+				int parent = tree.getParent(vertex);
+				if (parent >= 0) {
+					assertEquals(expected[vertex] - 1, expected[parent]);
+				} else {
+					assertTrue(vertex == 0 || expected[vertex] == Integer.MAX_VALUE);
+				}
+			}
+			V last = graph.getVertex(n - 1);
+			assertEquals(expected[n - 1] == Integer.MAX_VALUE ? 0 : expected[n - 1] + 1, tree.getPathTo(last).size());
+		}
+	}
+	
+	@Test
+	public void testDeltaSteppingMatchesDijkstra() {
+		//a directed graph with a few vertices it can't reach, and a maze
+		WeightedGraph<Integer> graph = new WeightedGraph<Integer>();
+		for (int i = 0; i < 2000; i++) {
+			graph.addVertex(i);
+		}
+		Random random = new Random(1);
+		for (int i = 0; i < 6000; i++) {
+			graph.addEdge(random.nextInt(1990), random.nextInt(2000), random.nextInt(40));
+		}
+		assertTrue(checkDeltaStepping(graph.compile(), 0).containsValue(Integer.MAX_VALUE));
+		checkDeltaStepping(new MazeGridGraph(new Maze(40, 50, 20, 11)), new Juncture(0, 0));
+	}
+	
+	private static <V> Map<V, Integer> checkDeltaStepping(IntGraph<V> graph, V start) {
+		Recorder<V> recorder = new Recorder<V>();
+		graph.addObserver(recorder);
+		graph.DoDijsktra(start, start);
+		Map<V, Integer> expected = recorder.finishedCosts();
+		assertEquals(expected, graph.deltaStepping(start, 4).getDistanceMap());
+		for (int delta : new int[] { 1, 3, 100 }) {
+			PathTree<V> tree = graph.deltaStepping(start, delta, 2);
+			assertEquals(expected, tree.getDistanceMap());
+			for (int index = 0; index < graph.getVertexCount(); index++) {
+				V vertex = graph.getVertex(index);
+				boolean reached = expected.get(vertex) != Integer.MAX_VALUE;
+				assertEquals(reached, !tree.getPathTo(vertex).isEmpty());
+			}
+		}
+		return expected;
+	}
+	
+	/**
+	 * Records what the algorithms tell their observers, starting over each
+	 * time a search begins
+	 */
+	private static final class Recorder<V> implements GraphAlgorithmObserver<V> {
+		final List<V> visited = new ArrayList<V>();
+		final List<V> finished = new ArrayList<V>();
+		final List<Integer> costs = new ArrayList<Integer>();
+		List<V> path;
+		
+		public void notifyDFSHasBegun() {
+			visited.clear();
+		}
+		public void notifyBFSHasBegun() {
+			visited.clear();
+		}
+		public void notifyVisit(V vertexBeingVisited) {
+			visited.add(vertexBeingVisited);
+		}
+		public void notifySearchIsOver() {}
+		public void notifyDijkstraHasBegun() {
+			finished.clear();
+			costs.clear();
+			path = null;
+		}
+		public void notifyDijkstraVertexFinished(V vertex, Integer cost) {
+			finished.add(vertex);
+			costs.add(cost);
+		}
+		public void notifyDijkstraIsOver(List<V> path) {
+			this.path = path;
+		}
+		
+		/**
+		 * @return each finished vertex with the cost it was finished at
+		 */
+		Map<V, Integer> finishedCosts() {
+			Map<V, Integer> finishedCosts = new HashMap<V, Integer>();
+			for (int i = 0; i < finished.size(); i++) {
+				finishedCosts.put(finished.get(i), costs.get(i));
+			}
+			return finishedCosts;
+		}
+		
+		/**
+		 * @return what has been recorded so far, which the next search won't change
+		 */
+		Recorder<V> copy() {
+			Recorder<V> copy = new Recorder<V>();
+			copy.visited.addAll(visited);
+			copy.finished.addAll(finished);
+			copy.costs.addAll(costs);
+			copy.path = path;
+			return copy;
+		}
+	}
+	
 }
\ No newline at end of file